@@ -0,0 +1,79 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.entity.CartItem;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.VariantRepository;
+import com.dacsan.service.PriceCatalogService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing a 20-line cart at checkout from the in-memory price catalog (server-side variant prices)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartPricingBenchmark {
+
+    private static final int PRODUCTS = 500;
+    private static final int VARIANTS_PER_PRODUCT = 6;
+    private static final int CART_LINES = 20;
+
+    private PriceCatalogService priceCatalog;
+    private List<Long> productIds;
+    private List<List<CartItem.SelectedVariant>> selectedVariants;
+    private List<Integer> quantities;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> productRows = new ArrayList<>();
+        List<Object[]> variantRows = new ArrayList<>();
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            productRows.add(new Object[] { productId, BigDecimal.valueOf(30_000 + productId * 500) });
+            for (int v = 0; v < VARIANTS_PER_PRODUCT; v++) {
+                long variantId = productId * 100 + v;
+                variantRows.add(new Object[] { productId, variantId, v < 3 ? "Size" : "Topping",
+                        "Lựa chọn " + v, BigDecimal.valueOf(v * 2_500L) });
+            }
+        }
+
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        VariantRepository variantRepository = Mockito.mock(VariantRepository.class);
+        Mockito.when(productRepository.findAllPriceRows()).thenReturn(productRows);
+        Mockito.when(variantRepository.findAllPriceRows()).thenReturn(variantRows);
+        priceCatalog = new PriceCatalogService(productRepository, variantRepository);
+        priceCatalog.loadAll();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        productIds = new ArrayList<>();
+        selectedVariants = new ArrayList<>();
+        quantities = new ArrayList<>();
+        for (int line = 0; line < CART_LINES; line++) {
+            long productId = 1 + random.nextInt(PRODUCTS);
+            productIds.add(productId);
+            selectedVariants.add(List.of(
+                    new CartItem.SelectedVariant(productId * 100 + random.nextInt(3), "Size", null, null),
+                    new CartItem.SelectedVariant(productId * 100 + 3 + random.nextInt(3), "Topping", null, null)));
+            quantities.add(1 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal priceCart() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int line = 0; line < CART_LINES; line++) {
+            BigDecimal unitPrice = priceCatalog.priceLine(productIds.get(line), selectedVariants.get(line)).unitPrice();
+            total = total.add(unitPrice.multiply(BigDecimal.valueOf(quantities.get(line))));
+        }
+        return total;
+    }
+}
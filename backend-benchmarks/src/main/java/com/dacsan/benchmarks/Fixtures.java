@@ -0,0 +1,104 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.entity.User;
+import com.dacsan.entity.UserRole;
+import com.dacsan.entity.Vendor;
+import org.mockito.Mockito;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds services outside Spring (collaborators are Mockito stubs unless given) and sample
+ * entities, and opens the private methods some benchmarks measure.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Instantiate a @RequiredArgsConstructor service, passing the given collaborators by type
+     * and Mockito mocks for everything else
+     */
+    static <T> T newService(Class<T> type, Map<Class<?>, Object> collaborators) {
+        try {
+            @SuppressWarnings("unchecked")
+            Constructor<T> constructor = (Constructor<T>) Arrays.stream(type.getConstructors())
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow();
+            Object[] args = Arrays.stream(constructor.getParameterTypes())
+                    .map(param -> collaborators.containsKey(param) ? collaborators.get(param) : Mockito.mock(param))
+                    .toArray();
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + type.getSimpleName(), e);
+        }
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name, e);
+        }
+    }
+
+    static MethodHandle privateMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot open " + type.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static User customer(long id) {
+        return User.builder()
+                .id(id)
+                .fullName("Nguyễn Văn An")
+                .email("customer" + id + "@gmail.com")
+                .role(UserRole.CUSTOMER)
+                .build();
+    }
+
+    static Vendor vendor(long id, Region region) {
+        return Vendor.builder()
+                .id(id)
+                .storeName("Quán Ngon " + id)
+                .region(region)
+                .build();
+    }
+
+    static Product product(long id, Vendor vendor) {
+        return Product.builder()
+                .id(id)
+                .vendor(vendor)
+                .name("Bún Chả Hà Nội Đặc Biệt " + id)
+                .description("Bún chả truyền thống với chả nướng than hoa, nước mắm chua ngọt")
+                .basePrice(BigDecimal.valueOf(45_000 + id * 1_000))
+                .region(vendor.getRegion())
+                .category(ProductCategory.values()[(int) (id % ProductCategory.values().length)])
+                .images(List.of("https://cdn.dacsan.vn/p/" + id + "/1.jpg", "https://cdn.dacsan.vn/p/" + id + "/2.jpg"))
+                .available(true)
+                .featured(false)
+                .soldCount(120)
+                .rating(4.6)
+                .reviewCount(37)
+                .build();
+    }
+}
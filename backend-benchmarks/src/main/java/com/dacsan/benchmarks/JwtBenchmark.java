@@ -0,0 +1,47 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token parsing done by the JWT filter on every authenticated request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        Fixtures.setField(tokenProvider, "secretKey",
+                Base64.getEncoder().encodeToString("benchmark-secret-key-of-at-least-256-bits!!".getBytes()));
+        Fixtures.setField(tokenProvider, "jwtExpiration", 86_400_000L);
+
+        user = new User("customer1@gmail.com", "x", List.of());
+        token = tokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return tokenProvider.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return tokenProvider.isTokenValid(token, user);
+    }
+}
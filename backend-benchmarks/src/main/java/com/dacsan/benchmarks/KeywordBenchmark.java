@@ -0,0 +1,40 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.service.RecommendationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword extraction used for "related products" on every product page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordBenchmark {
+
+    private static final MethodHandle EXTRACT_KEYWORDS =
+            Fixtures.privateMethod(RecommendationService.class, "extractKeywords", String.class);
+
+    @Param({ "Phở Bò Tái Nạm", "Bún Chả Hà Nội Đặc Biệt", "Bánh Mì", "Combo Cơm Tấm Sườn Bì Chả Trứng Ốp La" })
+    public String productName;
+
+    private RecommendationService recommendationService;
+
+    @Setup
+    public void setUp() {
+        recommendationService = Fixtures.newService(RecommendationService.class, Map.of());
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<String> extractKeywords() throws Throwable {
+        return (List<String>) EXTRACT_KEYWORDS.invoke(recommendationService, productName);
+    }
+}
@@ -0,0 +1,70 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.service.ProductSearchService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search over the in-memory index with a generated 5000-product catalog. Queries
+ * that match exactly stay on prefix range scans; the misspelled ones fall back to the
+ * BK-tree, which is what bounds the latency of typo-tolerant search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 5000;
+
+    private static final String[] DISHES = {
+            "Phở bò", "Phở gà", "Bún chả", "Bún bò Huế", "Bún riêu", "Bánh mì", "Bánh cuốn", "Bánh xèo",
+            "Cơm tấm", "Cơm gà", "Mì Quảng", "Cao lầu", "Hủ tiếu", "Bánh canh", "Chả cá", "Nem rán",
+            "Gỏi cuốn", "Bánh bèo", "Chè ba màu", "Cà phê sữa đá"
+    };
+    private static final String[] STYLES = {
+            "đặc biệt", "truyền thống", "thập cẩm", "tái nạm", "sườn bì chả", "giò heo", "chay", "nhà làm"
+    };
+    private static final String[] PLACES = {
+            "Hà Nội", "Nam Định", "Huế", "Đà Nẵng", "Hội An", "Sài Gòn", "Cần Thơ", "Hải Phòng"
+    };
+
+    @Param({ "bun cha", "com tam sai gon", "banh m", "bahn mi", "bun chaa ha noi", "pho bo nam dihn" })
+    public String query;
+
+    private ProductSearchService productSearchService;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            long id = i + 1;
+            String name = DISHES[i % DISHES.length] + " " + STYLES[(i / DISHES.length) % STYLES.length]
+                    + " " + PLACES[(i / 7) % PLACES.length];
+            rows.add(new Object[] {
+                    id, name, "Món " + name + " nấu theo công thức gia truyền", (long) (i % 50 + 1),
+                    "Quán số " + (i % 50 + 1), Region.values()[i % Region.values().length],
+                    ProductCategory.values()[i % ProductCategory.values().length], true, i % 300
+            });
+        }
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findAllSearchRows()).thenReturn(rows);
+
+        productSearchService = new ProductSearchService(productRepository, 5);
+        productSearchService.loadAll();
+    }
+
+    @Benchmark
+    public ProductSearchService.SearchResult search() {
+        return productSearchService.search(query, null, null, null, true, 0, 20);
+    }
+}
@@ -0,0 +1,121 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.dto.response.OrderResponse;
+import com.dacsan.dto.response.ProductResponse;
+import com.dacsan.entity.*;
+import com.dacsan.repository.OrderItemRepository;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.service.OrderService;
+import com.dacsan.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> response mapping for product listings and order details. Repositories are stubbed
+ * with preloaded rows, so only the mapping (and the variant JSON parsing it does) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMapperBenchmark {
+
+    private static final MethodHandle BUILD_ORDER_RESPONSE =
+            Fixtures.privateMethod(OrderService.class, "buildOrderResponse", Order.class, List.class);
+
+    private static final int SUB_ORDERS = 3;
+    private static final int ITEMS_PER_SUB_ORDER = 4;
+
+    private ProductService productService;
+    private OrderService orderService;
+    private Product product;
+    private Order order;
+    private List<SubOrder> subOrders;
+
+    @Setup
+    public void setUp() {
+        product = Fixtures.product(1, Fixtures.vendor(1, Region.NORTH));
+        productService = Fixtures.newService(ProductService.class, Map.of());
+
+        order = Order.builder()
+                .id(1L)
+                .orderNumber("ORD2026101700001")
+                .customer(Fixtures.customer(7))
+                .totalAmount(BigDecimal.valueOf(540_000))
+                .shippingFee(BigDecimal.ZERO)
+                .status(OrderStatus.CONFIRMED)
+                .paymentMethod(PaymentMethod.COD)
+                .deliveryName("Nguyễn Văn An")
+                .deliveryPhone("0901234567")
+                .deliveryAddress("12 Lê Lợi, Phường Bến Nghé, Quận 1, Hồ Chí Minh")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        subOrders = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        List<Object[]> imageRows = new ArrayList<>();
+        long productId = 1;
+        for (int s = 0; s < SUB_ORDERS; s++) {
+            Vendor vendor = Fixtures.vendor(s + 1, Region.values()[s % Region.values().length]);
+            SubOrder subOrder = SubOrder.builder()
+                    .id((long) s + 1)
+                    .subOrderNumber(order.getOrderNumber() + "-" + (char) ('A' + s))
+                    .order(order)
+                    .vendor(vendor)
+                    .subtotal(BigDecimal.valueOf(180_000))
+                    .shippingFee(BigDecimal.valueOf(20_000))
+                    .status(SubOrderStatus.COOKING)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            subOrders.add(subOrder);
+
+            for (int i = 0; i < ITEMS_PER_SUB_ORDER; i++, productId++) {
+                Product itemProduct = Fixtures.product(productId, vendor);
+                items.add(OrderItem.builder()
+                        .id(productId)
+                        .subOrder(subOrder)
+                        .product(itemProduct)
+                        .quantity(2)
+                        .price(itemProduct.getBasePrice())
+                        .selectedVariantsJson("[{\"variantId\":11,\"groupName\":\"Size\",\"variantName\":\"Lớn\","
+                                + "\"priceAdjustment\":10000},{\"variantId\":21,\"groupName\":\"Topping\","
+                                + "\"variantName\":\"Thêm trứng\",\"priceAdjustment\":5000}]")
+                        .build());
+                for (String image : itemProduct.getImages()) {
+                    imageRows.add(new Object[] { productId, image });
+                }
+            }
+        }
+
+        OrderItemRepository orderItemRepository = Mockito.mock(OrderItemRepository.class);
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(orderItemRepository.findWithProductBySubOrderIdIn(ArgumentMatchers.any())).thenReturn(items);
+        Mockito.when(productRepository.findImagesByProductIdIn(ArgumentMatchers.any())).thenReturn(imageRows);
+        orderService = Fixtures.newService(OrderService.class, Map.of(
+                OrderItemRepository.class, orderItemRepository,
+                ProductRepository.class, productRepository,
+                ObjectMapper.class, new ObjectMapper()));
+    }
+
+    @Benchmark
+    public ProductResponse buildProductResponse() {
+        return productService.buildProductResponse(product);
+    }
+
+    @Benchmark
+    public OrderResponse buildOrderResponse() throws Throwable {
+        return (OrderResponse) BUILD_ORDER_RESPONSE.invoke(orderService, order, subOrders);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.entity.Region;
+import com.dacsan.service.ShippingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shipping zone lookup and quote per sub-order. Lookup cost should stay flat across spellings
+ * and positions of the province in the address (hash lookups, no scan over the 63 provinces).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShippingBenchmark {
+
+    @Param({
+            "Hà Nội",
+            "ha noi",
+            "TP.HCM",
+            "Cà Mau",
+            "Quận 1, TP Hồ Chí Minh",
+            "Xã Tả Van, Huyện Sa Pa, Tỉnh Lào Cai",
+            "Unknown town"
+    })
+    public String city;
+
+    private ShippingService shippingService;
+    private ShippingService.Zone zone;
+
+    @Setup
+    public void setUp() {
+        shippingService = new ShippingService(BigDecimal.valueOf(30_000), BigDecimal.valueOf(20_000),
+                BigDecimal.valueOf(35_000), BigDecimal.valueOf(5_000), BigDecimal.valueOf(10_000),
+                BigDecimal.valueOf(100_000), BigDecimal.ZERO);
+        zone = shippingService.resolveZone(city);
+    }
+
+    @Benchmark
+    public ShippingService.Zone resolveZone() {
+        return shippingService.resolveZone(city);
+    }
+
+    @Benchmark
+    public BigDecimal quoteSubOrder() {
+        return shippingService.quoteSubOrder(Region.NORTH, zone, BigDecimal.valueOf(85_000));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dacsan.benchmarks;
+
+import com.dacsan.entity.CartItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The @PostLoad / @PrePersist hooks that (de)serialize CartItem.selectedVariantsJson,
+ * run for every cart item loaded or saved
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantJsonBenchmark {
+
+    private static final MethodHandle DESERIALIZE = Fixtures.privateMethod(CartItem.class, "deserializeVariants");
+    private static final MethodHandle SERIALIZE = Fixtures.privateMethod(CartItem.class, "serializeVariants");
+
+    private CartItem loaded;
+    private CartItem toSave;
+
+    @Setup
+    public void setUp() throws Throwable {
+        List<CartItem.SelectedVariant> variants = new ArrayList<>(List.of(
+                new CartItem.SelectedVariant(11L, "Size", "Lớn", BigDecimal.valueOf(10_000)),
+                new CartItem.SelectedVariant(21L, "Topping", "Thêm trứng", BigDecimal.valueOf(5_000)),
+                new CartItem.SelectedVariant(31L, "Tùy chỉnh", "Ít hành", BigDecimal.ZERO)));
+
+        toSave = CartItem.builder().quantity(2).selectedVariants(variants).build();
+        SERIALIZE.invoke(toSave);
+        loaded = CartItem.builder().quantity(2).selectedVariantsJson(toSave.getSelectedVariantsJson()).build();
+    }
+
+    @Benchmark
+    public List<CartItem.SelectedVariant> postLoadDeserialize() throws Throwable {
+        DESERIALIZE.invoke(loaded);
+        return loaded.getSelectedVariants();
+    }
+
+    @Benchmark
+    public String prePersistSerialize() throws Throwable {
+        SERIALIZE.invoke(toSave);
+        return toSave.getSelectedVariantsJson();
+    }
+}
@@ -0,0 +1,90 @@
+package com.dacsan.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin JSON client for the backend API. Every call is timed into the recorder under a
+ * stable endpoint name (path templates, not concrete ids).
+ */
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, "GET", path, null, token, Map.of());
+    }
+
+    public JsonNode post(String endpoint, String path, Object body, String token) {
+        return send(endpoint, "POST", path, body, token, Map.of());
+    }
+
+    public JsonNode post(String endpoint, String path, Object body, String token, Map<String, String> headers) {
+        return send(endpoint, "POST", path, body, token, headers);
+    }
+
+    public JsonNode patch(String endpoint, String path, Object body, String token) {
+        return send(endpoint, "PATCH", path, body, token, Map.of());
+    }
+
+    private JsonNode send(String endpoint, String method, String path, Object body, String token,
+            Map<String, String> headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        headers.forEach(request::header);
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            byte[] payload = body == null ? new byte[0] : MAPPER.writeValueAsBytes(body);
+            request.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(payload));
+
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            success = response.statusCode() / 100 == 2;
+            if (!success) {
+                throw new ApiException(method + " " + path + " -> " + response.statusCode() + ": "
+                        + new String(response.body()));
+            }
+            return response.body().length == 0 ? MAPPER.nullNode() : MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new ApiException(method + " " + path + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(method + " " + path + " interrupted");
+        } finally {
+            recorder.record(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    public static class ApiException extends RuntimeException {
+        public ApiException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.dacsan.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One shopper: registers, then loops browse -> product detail -> add to cart -> checkout,
+ * looking at the order history now and then.
+ */
+public class CustomerSession implements Runnable {
+
+    private static final String[] CITIES = { "Hà Nội", "TP. Hồ Chí Minh", "Đà Nẵng", "Huế", "Lào Cai", "Cần Thơ" };
+
+    private final ApiClient api;
+    private final int index;
+    private final BooleanSupplier running;
+
+    public CustomerSession(ApiClient api, int index, BooleanSupplier running) {
+        this.api = api;
+        this.index = index;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = "loadtest-" + UUID.randomUUID() + "@dacsan.test";
+        String token;
+        long addressId;
+        try {
+            api.post("POST /api/auth/register", "/api/auth/register", Map.of(
+                    "fullName", "Load Test " + index,
+                    "email", email,
+                    "password", "loadtest123",
+                    "phone", "09" + (10_000_000 + random.nextInt(89_999_999)),
+                    "role", "CUSTOMER"), null);
+            token = api.post("POST /api/auth/login", "/api/auth/login",
+                    Map.of("email", email, "password", "loadtest123"), null).path("token").asText();
+            addressId = api.post("POST /api/addresses", "/api/addresses", Map.of(
+                    "recipientName", "Load Test " + index,
+                    "recipientPhone", "0900000000",
+                    "addressLine", index + " Lê Lợi",
+                    "ward", "Phường 1",
+                    "district", "Quận 1",
+                    "city", CITIES[index % CITIES.length],
+                    "isDefault", true), token).path("id").asLong();
+        } catch (ApiClient.ApiException e) {
+            System.err.println("Customer " + index + " setup failed: " + e.getMessage());
+            return;
+        }
+
+        int iteration = 0;
+        while (running.getAsBoolean()) {
+            try {
+                JsonNode page = api.get("GET /api/products", "/api/products?available=true&size=20&page="
+                        + random.nextInt(3), token);
+                List<JsonNode> products = new ArrayList<>();
+                page.path("content").forEach(products::add);
+                if (products.isEmpty()) {
+                    page = api.get("GET /api/products", "/api/products?available=true&size=20", token);
+                    page.path("content").forEach(products::add);
+                }
+                if (products.isEmpty()) {
+                    throw new ApiClient.ApiException("No products to order, is the database seeded?");
+                }
+
+                int lines = 1 + random.nextInt(3);
+                for (int i = 0; i < lines; i++) {
+                    JsonNode summary = products.get(random.nextInt(products.size()));
+                    JsonNode product = api.get("GET /api/products/{id}",
+                            "/api/products/" + summary.path("id").asLong(), token);
+                    api.post("POST /api/cart/items", "/api/cart/items", Map.of(
+                            "productId", product.path("id").asLong(),
+                            "quantity", 1 + random.nextInt(2),
+                            "selectedVariants", pickVariants(product)), token);
+                }
+
+                api.get("GET /api/cart", "/api/cart", token);
+                api.post("POST /api/orders", "/api/orders",
+                        Map.of("addressId", addressId, "paymentMethod", "COD"), token,
+                        Map.of("Idempotency-Key", UUID.randomUUID().toString()));
+
+                if (++iteration % 5 == 0) {
+                    api.get("GET /api/orders?size", "/api/orders?size=20", token);
+                }
+            } catch (ApiClient.ApiException e) {
+                // Recorded as an error sample already; keep the session going
+                System.err.println("Customer " + index + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * First available variant of every required group, like a shopper taking the defaults
+     */
+    private static List<Map<String, Object>> pickVariants(JsonNode product) {
+        List<Map<String, Object>> selected = new ArrayList<>();
+        for (JsonNode group : product.path("variantGroups")) {
+            if (!group.path("isRequired").asBoolean()) {
+                continue;
+            }
+            for (JsonNode variant : group.path("variants")) {
+                if (variant.path("available").asBoolean(true)) {
+                    selected.add(Map.of(
+                            "variantId", variant.path("id").asLong(),
+                            "groupName", group.path("name").asText(),
+                            "variantName", variant.path("name").asText()));
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+}
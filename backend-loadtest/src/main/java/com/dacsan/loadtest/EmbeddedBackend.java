@@ -0,0 +1,133 @@
+package com.dacsan.loadtest;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Embedded MariaDB (MySQL stand-in, so Flyway migrations and native queries run unchanged)
+ * plus the backend jar in its own JVM. Flyway creates the schema and the seed data
+ * (vendors, products, variants) on startup.
+ */
+public class EmbeddedBackend implements AutoCloseable {
+
+    private static final String DATABASE = "dacsan_db";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final DB db;
+    private final Process backend;
+    private final String baseUrl;
+    private final String jdbcUrl;
+
+    private EmbeddedBackend(DB db, Process backend, String baseUrl, String jdbcUrl) {
+        this.db = db;
+        this.backend = backend;
+        this.baseUrl = baseUrl;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public static EmbeddedBackend start(Path backendJar) throws IOException, ManagedProcessException, InterruptedException {
+        if (!Files.isRegularFile(backendJar)) {
+            throw new IllegalStateException("Backend jar not found: " + backendJar.toAbsolutePath()
+                    + " (run mvn -f ../backend package -DskipTests first, or pass --target=<url>)");
+        }
+
+        DBConfigurationBuilder dbConfig = DBConfigurationBuilder.newBuilder();
+        dbConfig.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mysqld refuses to run as root (e.g. in CI containers) unless told to
+            dbConfig.addArg("--user=root");
+        }
+        DB db = DB.newEmbeddedDB(dbConfig.build());
+        db.start();
+        db.createDB(DATABASE);
+        int dbPort = db.getConfiguration().getPort();
+
+        int httpPort = freePort();
+        Path log = Path.of("target", "backend.log");
+        Files.createDirectories(log.getParent());
+
+        ProcessBuilder builder = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", backendJar.toAbsolutePath().toString(),
+                "--server.port=" + httpPort,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.dacsan=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        String jdbcUrl = "jdbc:mysql://localhost:" + dbPort + "/" + DATABASE
+                + "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+        builder.environment().put("DATABASE_URL", jdbcUrl);
+        builder.environment().put("DATABASE_USERNAME", "root");
+        builder.environment().put("DATABASE_PASSWORD", "");
+
+        System.out.println("Starting backend on port " + httpPort + " (database port " + dbPort + ", log " + log + ")");
+        Process backend = builder.start();
+        EmbeddedBackend embedded = new EmbeddedBackend(db, backend, "http://localhost:" + httpPort, jdbcUrl);
+        try {
+            embedded.awaitHealthy();
+        } catch (RuntimeException | InterruptedException e) {
+            embedded.close();
+            throw e;
+        }
+        return embedded;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * The embedded database (user root, no password), migrated by the backend's Flyway
+     */
+    public String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        Instant deadline = Instant.now().plus(STARTUP_TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            if (!backend.isAlive()) {
+                throw new IllegalStateException("Backend exited with code " + backend.exitValue() + ", see target/backend.log");
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Backend not healthy after " + STARTUP_TIMEOUT.toSeconds() + "s, see target/backend.log");
+    }
+
+    @Override
+    public void close() {
+        backend.destroy();
+        try {
+            db.stop();
+        } catch (ManagedProcessException e) {
+            System.err.println("Could not stop embedded database: " + e.getMessage());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
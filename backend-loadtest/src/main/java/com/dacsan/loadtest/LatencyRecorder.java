@@ -0,0 +1,75 @@
+package com.dacsan.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint latency samples. Recording is off during warmup.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        if (recording) {
+            samplesByEndpoint.computeIfAbsent(endpoint, name -> new Samples()).add(nanos, success);
+        }
+    }
+
+    /**
+     * Stats of every endpoint, sorted by name
+     */
+    public Map<String, EndpointStats> summarize(double measuredSeconds) {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> stats.put(endpoint, samples.summarize(measuredSeconds)));
+        return stats;
+    }
+
+    public record EndpointStats(long requests, long errors, double throughputPerSec,
+            double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long value, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized EndpointStats summarize(double measuredSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new EndpointStats(count, errors.get(), count / measuredSeconds,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.95), percentileMs(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
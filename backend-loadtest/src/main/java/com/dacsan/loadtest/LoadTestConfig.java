@@ -0,0 +1,53 @@
+package com.dacsan.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, from --key=value arguments.
+ *
+ * @param targetUrl          Backend to drive; null starts an embedded database and the backend jar
+ * @param backendJar         Backend jar started when no target is given
+ * @param customers          Concurrent customer sessions
+ * @param vendorSessions     Concurrent vendor sessions (one per seeded vendor account at most)
+ * @param warmup             Run time whose samples are discarded
+ * @param duration           Measured run time
+ * @param report             Where the JSON report is written
+ * @param baseline           Previous report to compare against, or null
+ * @param maxRegressionPct   Allowed p95 increase / throughput drop against the baseline, in percent
+ */
+public record LoadTestConfig(
+        String targetUrl,
+        Path backendJar,
+        int customers,
+        int vendorSessions,
+        Duration warmup,
+        Duration duration,
+        Path report,
+        Path baseline,
+        double maxRegressionPct) {
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        return new LoadTestConfig(
+                options.get("target"),
+                Path.of(options.getOrDefault("backend-jar", "../backend/target/dacsan-backend-1.0.0-exec.jar")),
+                Integer.parseInt(options.getOrDefault("customers", "20")),
+                Integer.parseInt(options.getOrDefault("vendors", "3")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "15"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "60"))),
+                Path.of(options.getOrDefault("report", "target/loadtest-report.json")),
+                options.containsKey("baseline") ? Path.of(options.get("baseline")) : null,
+                Double.parseDouble(options.getOrDefault("max-regression-pct", "20")));
+    }
+}
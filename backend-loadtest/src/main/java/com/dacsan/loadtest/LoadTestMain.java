@@ -0,0 +1,107 @@
+package com.dacsan.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkout load test. Drives concurrent customer sessions (register, browse, cart, checkout) and
+ * vendor sessions (status updates), prints throughput and p50/p95/p99 per endpoint, writes a JSON
+ * report and exits with code 1 when the run regressed against --baseline.
+ *
+ * Usage: mvn -q exec:java -Dexec.args="--customers=20 --duration-seconds=60 [--target=http://localhost:8080]
+ * [--baseline=baseline.json --max-regression-pct=20]"
+ */
+public class LoadTestMain {
+
+    // Seeded by Flyway (V2, passwords reset in V9)
+    private static final List<String> SEED_VENDORS = List.of(
+            "vendor.hanoi@dacsan.vn", "vendor.hue@dacsan.vn", "vendor.saigon@dacsan.vn");
+    private static final String SEED_PASSWORD = "admin123";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        EmbeddedBackend embedded = config.targetUrl() == null ? EmbeddedBackend.start(config.backendJar()) : null;
+        String baseUrl = embedded != null ? embedded.baseUrl() : config.targetUrl();
+
+        Map<String, LatencyRecorder.EndpointStats> stats;
+        try {
+            stats = run(config, baseUrl);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+
+        printTable(stats);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("customers", config.customers());
+        report.put("vendorSessions", config.vendorSessions());
+        report.put("durationSeconds", config.duration().toSeconds());
+        report.put("endpoints", stats);
+        Files.createDirectories(config.report().toAbsolutePath().getParent());
+        mapper.writeValue(config.report().toFile(), report);
+        System.out.println("Report written to " + config.report());
+
+        if (config.baseline() != null) {
+            List<String> regressions = RegressionCheck.findRegressions(
+                    mapper.readTree(config.baseline().toFile()), stats, config.maxRegressionPct());
+            if (!regressions.isEmpty()) {
+                System.err.println("Regressions beyond " + config.maxRegressionPct() + "% against " + config.baseline() + ":");
+                regressions.forEach(regression -> System.err.println("  " + regression));
+                System.exit(1);
+            }
+            System.out.println("No regression beyond " + config.maxRegressionPct() + "% against " + config.baseline());
+        }
+    }
+
+    private static Map<String, LatencyRecorder.EndpointStats> run(LoadTestConfig config, String baseUrl)
+            throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient api = new ApiClient(baseUrl, recorder);
+        long stopAt = System.nanoTime() + config.warmup().toNanos() + config.duration().toNanos();
+
+        List<Thread> sessions = new ArrayList<>();
+        for (int i = 0; i < config.customers(); i++) {
+            sessions.add(Thread.ofVirtual().name("customer-" + i)
+                    .start(new CustomerSession(api, i, () -> System.nanoTime() < stopAt)));
+        }
+        for (int i = 0; i < Math.min(config.vendorSessions(), SEED_VENDORS.size()); i++) {
+            sessions.add(Thread.ofVirtual().name("vendor-" + i)
+                    .start(new VendorSession(api, SEED_VENDORS.get(i), SEED_PASSWORD, () -> System.nanoTime() < stopAt)));
+        }
+
+        System.out.printf("Running %d customer and %d vendor sessions against %s (warmup %ds, measured %ds)%n",
+                config.customers(), Math.min(config.vendorSessions(), SEED_VENDORS.size()), baseUrl,
+                config.warmup().toSeconds(), config.duration().toSeconds());
+
+        Thread.sleep(config.warmup().toMillis());
+        recorder.start();
+        long measuredFrom = System.nanoTime();
+        Thread.sleep(config.duration().toMillis());
+        recorder.stop();
+        double measuredSeconds = (System.nanoTime() - measuredFrom) / 1_000_000_000.0;
+
+        for (Thread session : sessions) {
+            session.join(30_000);
+        }
+        return recorder.summarize(measuredSeconds);
+    }
+
+    private static void printTable(Map<String, LatencyRecorder.EndpointStats> stats) {
+        System.out.printf("%n%-40s %8s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        stats.forEach((endpoint, s) -> System.out.printf("%-40s %8d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, s.requests(), s.errors(), s.throughputPerSec(), s.p50Ms(), s.p95Ms(), s.p99Ms()));
+    }
+}
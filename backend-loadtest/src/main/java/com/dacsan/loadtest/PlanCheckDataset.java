@@ -0,0 +1,164 @@
+package com.dacsan.loadtest;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Bulk rows for the query plan check, so the optimizer sees production-like table sizes and
+ * cardinalities instead of the few seeded rows (on tiny tables a full scan is the cheapest plan
+ * and EXPLAIN says nothing about the indexes).
+ *
+ * Rows are generated in SQL with INSERT ... SELECT over a numbers table, with ids above the
+ * existing ones. Per product: 1 image, 1 variant group, 2 variants; half as many customers
+ * (each with an address, every fifth with a 3-item cart) placing 2 orders each, every order
+ * split into 2 sub-orders of 2 items, a tenth of them with unflushed sold-count journal rows; idempotency keys span the last 25 hours like under the
+ * hourly purge. updated_at is set in the past so the backend's change polls don't pick the
+ * rows up.
+ *
+ * @param customerId a customer with orders, a cart and an address
+ */
+public record PlanCheckDataset(
+        long customerId,
+        long vendorId,
+        long vendorUserId,
+        long productId,
+        long orderId,
+        long subOrderId,
+        long cartId,
+        int products) {
+
+    private static final String SEQUENCE_TABLE = "plan_check_seq";
+    private static final String OLD = "'2020-01-01 00:00:00'";
+    private static final List<String> TABLES = List.of(
+            "users", "vendors", "products", "product_images", "variant_groups", "variants", "addresses",
+            "carts", "cart_items", "orders", "sub_orders", "order_items", "idempotency_keys",
+            "wallet_ledger", "wallet_snapshots", "product_sales_journal");
+
+    public static PlanCheckDataset seed(Connection connection, int products) throws SQLException {
+        int vendors = Math.max(products / 100, 10);
+        int customers = products / 2;
+        int carts = customers / 5;
+        int orders = customers * 2;
+        int subOrders = orders * 2;
+        int orderItems = subOrders * 2;
+
+        try (Statement sql = connection.createStatement()) {
+            sql.execute("SET foreign_key_checks = 0");
+            sql.execute("SET unique_checks = 0");
+            createSequence(sql, orderItems);
+
+            long users = maxId(sql, "users");
+            long vendorBase = maxId(sql, "vendors");
+            long productBase = maxId(sql, "products");
+            long groupBase = maxId(sql, "variant_groups");
+            long variantBase = maxId(sql, "variants");
+            long cartBase = maxId(sql, "carts");
+            long orderBase = maxId(sql, "orders");
+            long subOrderBase = maxId(sql, "sub_orders");
+            long itemBase = maxId(sql, "order_items");
+            long customerBase = users + vendors;
+
+            insert(sql, vendors + customers, "INSERT INTO users (id, full_name, email, password, role, active, created_at, updated_at) "
+                    + "SELECT " + users + " + n, CONCAT('Plan check ', n), CONCAT('plan-check-', n, '@dacsan.test'), 'x', "
+                    + "IF(n <= " + vendors + ", 'VENDOR', 'CUSTOMER'), TRUE, NOW() - INTERVAL n MINUTE, " + OLD);
+            insert(sql, vendors, "INSERT INTO vendors (id, user_id, store_name, region, address, active, verified, created_at, updated_at) "
+                    + "SELECT " + vendorBase + " + n, " + users + " + n, CONCAT('Plan check store ', n), "
+                    + "ELT(1 + n % 3, 'NORTH', 'CENTRAL', 'SOUTH'), 'Plan check', TRUE, n % 10 <> 0, NOW(), " + OLD);
+            insert(sql, products, "INSERT INTO products (id, vendor_id, name, description, base_price, region, category, "
+                    + "available, featured, sold_count, rating, review_count, created_at, updated_at) "
+                    + "SELECT " + productBase + " + n, " + vendorBase + " + 1 + n % " + vendors + ", "
+                    + "CONCAT('Plan check dish ', n), 'Plan check', 10000 + (n * 37) % 200000, "
+                    + "ELT(1 + n % 3, 'NORTH', 'CENTRAL', 'SOUTH'), "
+                    + "ELT(1 + n % 5, 'MAIN_DISH', 'SIDE_DISH', 'DESSERT', 'DRINK', 'SNACK'), "
+                    + "n % 10 <> 0, n % 50 = 0, (n * 7919) % 5000, ((n * 31) % 500) / 100, n % 200, "
+                    + "NOW() - INTERVAL n MINUTE, " + OLD);
+            insert(sql, products, "INSERT INTO product_images (product_id, image_url) "
+                    + "SELECT " + productBase + " + n, CONCAT('/images/plan-check/', n, '.jpg')");
+            insert(sql, products, "INSERT INTO variant_groups (id, product_id, name, display_order) "
+                    + "SELECT " + groupBase + " + n, " + productBase + " + n, 'Size', 0");
+            insert(sql, products * 2, "INSERT INTO variants (id, variant_group_id, name, price_adjustment, available, display_order) "
+                    + "SELECT " + variantBase + " + n, " + groupBase + " + 1 + (n - 1) % " + products + ", "
+                    + "IF(n <= " + products + ", 'Small', 'Large'), IF(n <= " + products + ", 0, 10000), TRUE, n > " + products);
+            insert(sql, customers, "INSERT INTO addresses (user_id, recipient_name, recipient_phone, address_line, is_default, created_at, updated_at) "
+                    + "SELECT " + customerBase + " + n, 'Plan check', '0900000000', 'Plan check', TRUE, NOW(), " + OLD);
+            insert(sql, carts, "INSERT INTO carts (id, user_id, created_at) "
+                    + "SELECT " + cartBase + " + n, " + customerBase + " + n, NOW()");
+            insert(sql, carts * 3, "INSERT INTO cart_items (cart_id, product_id, quantity) "
+                    + "SELECT " + cartBase + " + 1 + (n - 1) % " + carts + ", " + productBase + " + 1 + (n * 7) % " + products + ", 1");
+            insert(sql, orders, "INSERT INTO orders (id, order_number, customer_id, total_amount, shipping_fee, status, "
+                    + "payment_method, delivery_name, delivery_phone, delivery_address, created_at, updated_at) "
+                    + "SELECT " + orderBase + " + n, CONCAT('PLAN', n), " + customerBase + " + 1 + (n - 1) % " + customers + ", "
+                    + "100000, 0, ELT(1 + n % 7, 'PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'DELIVERING', 'COMPLETED', 'CANCELLED'), "
+                    + "'COD', 'Plan check', '0900000000', 'Plan check', NOW() - INTERVAL n MINUTE, " + OLD);
+            insert(sql, subOrders, "INSERT INTO sub_orders (id, sub_order_number, order_id, vendor_id, subtotal, shipping_fee, status, created_at, updated_at) "
+                    + "SELECT " + subOrderBase + " + n, CONCAT('PLAN', n, '-S'), " + orderBase + " + 1 + (n - 1) % " + orders + ", "
+                    + vendorBase + " + 1 + n % " + vendors + ", 50000, 0, "
+                    + "ELT(1 + n % 6, 'PENDING', 'COOKING', 'READY', 'PICKED_UP', 'DELIVERED', 'CANCELLED'), "
+                    + "NOW() - INTERVAL (n - 1) % " + orders + " + 1 MINUTE, " + OLD);
+            insert(sql, orderItems, "INSERT INTO order_items (id, sub_order_id, product_id, quantity, price) "
+                    + "SELECT " + itemBase + " + n, " + subOrderBase + " + 1 + (n - 1) % " + subOrders + ", "
+                    + productBase + " + 1 + (n * 13) % " + products + ", 1 + n % 3, 25000");
+            insert(sql, orders, "INSERT INTO idempotency_keys (user_id, idempotency_key, created_at) "
+                    + "SELECT " + customerBase + " + 1 + (n - 1) % " + customers + ", CONCAT('plan-check-', n), "
+                    + "NOW() - INTERVAL n % 1500 MINUTE");
+            insert(sql, orders, "INSERT INTO wallet_ledger (account_type, account_id, entry_type, amount, reference, created_at, folded) "
+                    + "SELECT IF(n % 10 = 0, 'PLATFORM', 'VENDOR'), IF(n % 10 = 0, n % 4, " + vendorBase + " + 1 + n % " + vendors + "), "
+                    + "'ORDER_EARNING', 1000, CONCAT('PLAN', n), NOW() - INTERVAL n MINUTE, n > 100");
+            insert(sql, vendors, "INSERT INTO wallet_snapshots (account_type, account_id, balance) "
+                    + "SELECT 'VENDOR', " + vendorBase + " + n, 0");
+            insert(sql, subOrders / 10, "INSERT INTO product_sales_journal (sub_order_id, product_id, quantity, created_at) "
+                    + "SELECT " + subOrderBase + " + n, " + productBase + " + 1 + (n * 13) % " + products + ", 1 + n % 3, "
+                    + "NOW() - INTERVAL n SECOND");
+
+            sql.execute("DROP TABLE " + SEQUENCE_TABLE);
+            sql.execute("SET unique_checks = 1");
+            sql.execute("SET foreign_key_checks = 1");
+            for (String table : TABLES) {
+                try (ResultSet ignored = sql.executeQuery("ANALYZE TABLE " + table)) {
+                    // Fresh index statistics for the optimizer
+                }
+            }
+
+            return new PlanCheckDataset(customerBase + 1, vendorBase + 1, users + 1, productBase + 1,
+                    orderBase + 1, subOrderBase + 1, cartBase + 1, products);
+        }
+    }
+
+    /**
+     * {@code count} consecutive ids starting at {@code first}
+     */
+    public static List<Long> ids(long first, int count) {
+        return LongStream.range(first, first + count).boxed().toList();
+    }
+
+    private static void createSequence(Statement sql, int max) throws SQLException {
+        sql.execute("DROP TABLE IF EXISTS " + SEQUENCE_TABLE);
+        sql.execute("CREATE TABLE " + SEQUENCE_TABLE + " (n INT NOT NULL PRIMARY KEY)");
+        String digits = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 "
+                + "UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9)";
+        StringBuilder number = new StringBuilder("1");
+        StringBuilder from = new StringBuilder();
+        long scale = 1;
+        for (int i = 0; scale <= max; i++, scale *= 10) {
+            number.append(" + ").append(scale).append(" * d").append(i).append(".d");
+            from.append(i == 0 ? "" : ", ").append(digits).append(" d").append(i);
+        }
+        sql.execute("INSERT INTO " + SEQUENCE_TABLE + " (n) SELECT n FROM (SELECT " + number + " AS n FROM " + from
+                + ") numbers WHERE n <= " + max);
+    }
+
+    private static void insert(Statement sql, int rows, String insertSelect) throws SQLException {
+        sql.executeUpdate(insertSelect + " FROM " + SEQUENCE_TABLE + " WHERE n <= " + rows);
+    }
+
+    private static long maxId(Statement sql, String table) throws SQLException {
+        try (ResultSet rs = sql.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
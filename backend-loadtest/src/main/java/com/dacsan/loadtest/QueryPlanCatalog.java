@@ -0,0 +1,388 @@
+package com.dacsan.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The SQL the backend's repository methods run, as Hibernate renders it (entity-graph and
+ * JOIN FETCH joins included, bind values inlined by the driver like in production), with
+ * sample values from the seeded dataset. Change the entry here when a repository query or
+ * the pagination/sort it gets changes; add one for every new repository method.
+ *
+ * Tables for repository methods whose tables Flyway doesn't create (vouchers, listing fees,
+ * vendor documents, password reset tokens) are not covered.
+ */
+public final class QueryPlanCatalog {
+
+    /**
+     * @param name           repository method (and variant)
+     * @param fullScanAliases tables (by their alias in the SQL, as EXPLAIN names them) this query reads in
+     *                        full on purpose, e.g. loads of the whole catalog
+     * @param filesortReason why sorting the matched rows is expected, or null when the order must come from an index
+     */
+    public record PlanQuery(String name, String sql, List<Object> params, Set<String> fullScanAliases,
+            String filesortReason) {
+
+        PlanQuery allowFullScan(String... aliases) {
+            return new PlanQuery(name, sql, params, Set.of(aliases), filesortReason);
+        }
+
+        PlanQuery allowFilesort(String reason) {
+            return new PlanQuery(name, sql, params, fullScanAliases, reason);
+        }
+    }
+
+    private static final int PAGE = 20;
+    // Entity-graph (and findKeysetPage) fetches are left joins, JOIN FETCH is an inner join
+    private static final String PRODUCT_WITH_VENDOR = "SELECT p.*, v.*, u.* FROM products p "
+            + "LEFT JOIN vendors v ON v.id = p.vendor_id LEFT JOIN users u ON u.id = v.user_id ";
+    private static final String PRODUCT_FETCH_VENDOR = "SELECT p.*, v.*, u.* FROM products p "
+            + "JOIN vendors v ON v.id = p.vendor_id JOIN users u ON u.id = v.user_id ";
+    private static final String PRODUCT_FILTERS = "WHERE (? IS NULL OR p.region = ?) AND (? IS NULL OR p.category = ?) "
+            + "AND (? IS NULL OR p.vendor_id = ?) AND (? IS NULL OR p.available = ?) ";
+    private static final String ORDER_HISTORY = "SELECT o.*, c.* FROM orders o JOIN users c ON c.id = o.customer_id "
+            + "WHERE o.customer_id = ? AND (? IS NULL OR o.status = ?) "
+            + "AND (? IS NULL OR o.created_at >= ?) AND (? IS NULL OR o.created_at < ?) "
+            + "AND (? IS NULL OR o.created_at < ? OR (o.created_at = ? AND o.id < ?)) "
+            + "ORDER BY o.created_at DESC, o.id DESC LIMIT ?";
+    private static final String VENDOR_HISTORY = "SELECT s.*, o.*, c.*, v.* FROM sub_orders s "
+            + "JOIN orders o ON o.id = s.order_id JOIN users c ON c.id = o.customer_id JOIN vendors v ON v.id = s.vendor_id "
+            + "WHERE s.vendor_id = ? AND (? IS NULL OR s.status = ?) "
+            + "AND (? IS NULL OR s.created_at >= ?) AND (? IS NULL OR s.created_at < ?) "
+            + "AND (? IS NULL OR s.created_at < ? OR (s.created_at = ? AND s.id < ?)) "
+            + "ORDER BY s.created_at DESC, s.id DESC LIMIT ?";
+    private static final String SUGGESTION_ROWS = "SELECT v.id, v.store_name, v.active, v.verified, COALESCE(SUM(p.sold_count), 0) "
+            + "FROM vendors v LEFT JOIN products p ON p.vendor_id = v.id ";
+    private static final String PURCHASES = "FROM order_items oi JOIN sub_orders s ON s.id = oi.sub_order_id "
+            + "JOIN orders o ON o.id = s.order_id WHERE o.customer_id = ? ";
+
+    private QueryPlanCatalog() {
+    }
+
+    public static List<PlanQuery> queries(PlanCheckDataset data) {
+        List<Long> productIds = PlanCheckDataset.ids(data.productId(), PAGE);
+        List<Long> vendorIds = PlanCheckDataset.ids(data.vendorId(), PAGE);
+        List<Long> orderIds = PlanCheckDataset.ids(data.orderId(), PAGE);
+        List<Long> subOrderIds = PlanCheckDataset.ids(data.subOrderId(), PAGE);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursor = now.minusDays(3);
+        LocalDateTime recent = now.minusSeconds(10);
+
+        List<PlanQuery> queries = new ArrayList<>();
+
+        // --- ProductRepository ---
+        queries.add(query("ProductRepository.findByAvailableTrue",
+                PRODUCT_WITH_VENDOR + "WHERE p.available = TRUE LIMIT ?", PAGE * 3));
+        queries.add(query("ProductRepository.findByFilters (createdAt)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?, ?",
+                filters(null, null, null, true), PAGE * 50, PAGE));
+        queries.add(query("ProductRepository.findByFilters (region, createdAt)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?, ?",
+                filters("CENTRAL", null, null, true), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (category, createdAt)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?, ?",
+                filters(null, "DESSERT", null, true), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (region + category, createdAt)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?, ?",
+                filters("SOUTH", "MAIN_DISH", null, true), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (vendor, createdAt)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?, ?",
+                filters(null, null, data.vendorId(), null), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (soldCount)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.sold_count DESC, p.id DESC LIMIT ?, ?",
+                filters(null, null, null, true), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (admin, no filter, rating)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.rating DESC, p.id DESC LIMIT ?, ?",
+                filters(null, null, null, null), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters (admin, no filter, basePrice)",
+                PRODUCT_WITH_VENDOR + PRODUCT_FILTERS + "ORDER BY p.base_price ASC, p.id ASC LIMIT ?, ?",
+                filters(null, null, null, null), 0, PAGE));
+        queries.add(query("ProductRepository.findByFilters count (region)",
+                "SELECT COUNT(p.id) FROM products p " + PRODUCT_FILTERS,
+                filters("NORTH", null, null, true)));
+        queries.add(query("ProductRepository.findByFilters count (vendor)",
+                "SELECT COUNT(p.id) FROM products p " + PRODUCT_FILTERS,
+                filters(null, null, data.vendorId(), null)));
+        queries.add(query("ProductRepository.findKeysetPage (createdAt)",
+                PRODUCT_WITH_VENDOR + "WHERE p.available = ? AND (p.created_at < ? OR (p.created_at = ? AND p.id < ?)) "
+                        + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?",
+                true, cursor, cursor, data.productId() + 100, PAGE + 1));
+        queries.add(query("ProductRepository.findKeysetPage (region, createdAt)",
+                PRODUCT_WITH_VENDOR + "WHERE p.region = ? AND p.available = ? "
+                        + "AND (p.created_at < ? OR (p.created_at = ? AND p.id < ?)) "
+                        + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?",
+                "NORTH", true, cursor, cursor, data.productId() + 100, PAGE + 1));
+        queries.add(query("ProductRepository.findKeysetPage (vendor, soldCount)",
+                PRODUCT_WITH_VENDOR + "WHERE p.vendor_id = ? AND (p.sold_count < ? OR (p.sold_count = ? AND p.id < ?)) "
+                        + "ORDER BY p.sold_count DESC, p.id DESC LIMIT ?",
+                data.vendorId(), 2500, 2500, data.productId() + 100, PAGE + 1)
+                .allowFilesort("one vendor's products, sorted by a key other than createdAt"));
+        queries.add(query("ProductRepository.findAllSearchRows",
+                "SELECT p.id, p.name, p.description, v.id, v.store_name, p.region, p.category, p.available, p.sold_count "
+                        + "FROM products p JOIN vendors v ON v.id = p.vendor_id")
+                .allowFullScan("p", "v"));
+        queries.add(query("ProductRepository.findSearchRowsByIdIn",
+                "SELECT p.id, p.name, p.description, v.id, v.store_name, p.region, p.category, p.available, p.sold_count "
+                        + "FROM products p JOIN vendors v ON v.id = p.vendor_id WHERE p.id IN " + in(productIds), productIds));
+        queries.add(query("ProductRepository.findWithVendorByIdIn",
+                PRODUCT_FETCH_VENDOR + "WHERE p.id IN " + in(productIds), productIds));
+        queries.add(query("ProductRepository.findDetailById",
+                "SELECT DISTINCT p.*, v.*, u.*, i.image_url FROM products p JOIN vendors v ON v.id = p.vendor_id "
+                        + "JOIN users u ON u.id = v.user_id LEFT JOIN product_images i ON i.product_id = p.id "
+                        + "WHERE p.id = ?", data.productId()));
+        queries.add(query("ProductRepository.findByFeaturedTrueAndAvailableTrue",
+                PRODUCT_WITH_VENDOR + "WHERE p.featured = TRUE AND p.available = TRUE"));
+        queries.add(query("ProductRepository.findTop10ByAvailableTrueOrderBySoldCountDesc",
+                PRODUCT_WITH_VENDOR + "WHERE p.available = TRUE ORDER BY p.sold_count DESC LIMIT ?", 10));
+        queries.add(query("ProductRepository.findImagesByProductIdIn",
+                "SELECT p.id, i.image_url FROM products p JOIN product_images i ON i.product_id = p.id "
+                        + "WHERE p.id IN " + in(productIds), productIds));
+        queries.add(query("ProductRepository.findRelatedProducts",
+                PRODUCT_WITH_VENDOR + "WHERE p.available = TRUE AND p.id <> ? "
+                        + "AND (p.category = ? OR p.region = ? OR p.vendor_id = ?) "
+                        + "ORDER BY CASE WHEN p.category = ? AND p.region = ? THEN 0 WHEN p.category = ? THEN 1 "
+                        + "WHEN p.region = ? THEN 2 ELSE 3 END, p.sold_count DESC LIMIT ?",
+                data.productId(), "DRINK", "NORTH", data.vendorId(), "DRINK", "NORTH", "DRINK", "NORTH", 16)
+                .allowFilesort("ORDER BY a CASE over the match kind cannot come from an index"));
+        queries.add(query("ProductRepository.findRecommendedByPreferences",
+                PRODUCT_WITH_VENDOR + "WHERE p.available = TRUE AND p.id NOT IN " + in(productIds)
+                        + " AND (p.category IN (?, ?) OR p.region IN (?)) "
+                        + "ORDER BY p.sold_count DESC, p.rating DESC LIMIT ?",
+                productIds, "SNACK", "DESSERT", "SOUTH", 16));
+        queries.add(query("ProductRepository.findExportRows (first page)",
+                "SELECT p.id, p.name, p.description, p.base_price, p.region, p.category, p.available, p.featured, p.created_at "
+                        + "FROM products p WHERE p.vendor_id = ? AND (p.created_at > ? OR (p.created_at = ? AND p.id > ?)) "
+                        + "ORDER BY p.created_at, p.id LIMIT ?",
+                data.vendorId(), LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 500));
+        queries.add(query("ProductRepository.findExportRows (next page)",
+                "SELECT p.id, p.name, p.description, p.base_price, p.region, p.category, p.available, p.featured, p.created_at "
+                        + "FROM products p WHERE p.vendor_id = ? AND (p.created_at > ? OR (p.created_at = ? AND p.id > ?)) "
+                        + "ORDER BY p.created_at, p.id LIMIT ?",
+                data.vendorId(), cursor, cursor, data.productId(), 500));
+        queries.add(query("ProductRepository.findAllFacetRows",
+                "SELECT p.id, p.vendor_id, p.region, p.category, p.available FROM products p")
+                .allowFullScan("p"));
+        queries.add(query("ProductRepository.findFacetRowsByIdIn",
+                "SELECT p.id, p.vendor_id, p.region, p.category, p.available FROM products p WHERE p.id IN "
+                        + in(productIds), productIds));
+        queries.add(query("ProductRepository.countByFacets",
+                "SELECT p.vendor_id, p.region, p.category, p.available, COUNT(p.id) FROM products p "
+                        + "GROUP BY p.vendor_id, p.region, p.category, p.available")
+                .allowFullScan("p")
+                .allowFilesort("periodic facet reconciliation groups the whole table"));
+        queries.add(query("ProductRepository.findAllPriceRows",
+                "SELECT p.id, p.base_price FROM products p")
+                .allowFullScan("p"));
+        queries.add(query("ProductRepository.findPriceRowsByIdIn",
+                "SELECT p.id, p.base_price FROM products p WHERE p.id IN " + in(productIds), productIds));
+        queries.add(query("ProductRepository.findAllIds",
+                "SELECT p.id FROM products p")
+                .allowFullScan("p"));
+        queries.add(query("ProductRepository.findIdsUpdatedSince",
+                "SELECT p.id FROM products p WHERE p.updated_at > ?", recent));
+        queries.add(query("ProductRepository.findStamp",
+                "SELECT COUNT(p.id), MAX(p.updated_at) FROM products p"));
+
+        // --- VendorRepository ---
+        queries.add(query("VendorRepository.findByUserId",
+                "SELECT v.*, u.* FROM vendors v JOIN users u ON u.id = v.user_id WHERE v.user_id = ?", data.vendorUserId()));
+        queries.add(query("VendorRepository.findByUserIdForUpdate",
+                "SELECT v.* FROM vendors v WHERE v.user_id = ? FOR UPDATE", data.vendorUserId()));
+        queries.add(query("VendorRepository.findAllSuggestionRows",
+                SUGGESTION_ROWS + "GROUP BY v.id, v.store_name, v.active, v.verified")
+                .allowFullScan("v")
+                .allowFilesort("grouping every vendor"));
+        queries.add(query("VendorRepository.findSuggestionRowsByIdIn",
+                SUGGESTION_ROWS + "WHERE v.id IN " + in(vendorIds) + " GROUP BY v.id, v.store_name, v.active, v.verified",
+                vendorIds)
+                .allowFilesort("grouping a page of vendors"));
+        queries.add(query("VendorRepository.findIdsUpdatedSince",
+                "SELECT v.id FROM vendors v WHERE v.updated_at > ?", recent));
+        queries.add(query("VendorRepository.findStamp",
+                "SELECT COUNT(v.id), MAX(v.updated_at) FROM vendors v"));
+
+        // --- UserRepository ---
+        queries.add(query("UserRepository.findByEmail",
+                "SELECT u.* FROM users u WHERE u.email = ?", "plan-check-1@dacsan.test"));
+
+        // --- OrderRepository ---
+        queries.add(query("OrderRepository.findByCustomerIdOrderByCreatedAtDesc",
+                "SELECT o.* FROM orders o WHERE o.customer_id = ? ORDER BY o.created_at DESC", data.customerId()));
+        queries.add(query("OrderRepository.findHistoryByCustomerId",
+                "SELECT o.*, c.* FROM orders o JOIN users c ON c.id = o.customer_id "
+                        + "WHERE o.customer_id = ? ORDER BY o.created_at DESC", data.customerId()));
+        queries.add(query("OrderRepository.findCustomerPage (first page)",
+                ORDER_HISTORY, data.customerId(), null, null, null, null, null, null, null, null, null, null, PAGE + 1));
+        queries.add(query("OrderRepository.findCustomerPage (status, cursor)",
+                ORDER_HISTORY, data.customerId(), "COMPLETED", "COMPLETED", null, null, null, null,
+                cursor, cursor, cursor, data.orderId() + 100, PAGE + 1));
+        queries.add(query("OrderRepository.findByOrderNumber",
+                "SELECT o.* FROM orders o WHERE o.order_number = ?", "PLAN1"));
+        queries.add(query("OrderRepository.lockByIdIn",
+                "SELECT id FROM orders WHERE id IN " + in(orderIds) + " ORDER BY id FOR UPDATE", orderIds));
+        queries.add(query("OrderRepository.rollUpStatuses",
+                "UPDATE orders o SET o.status = (SELECT CASE WHEN SUM(s.status = 'DELIVERED') = COUNT(*) THEN 'COMPLETED' "
+                        + "ELSE 'CONFIRMED' END FROM sub_orders s WHERE s.order_id = o.id), "
+                        + "o.updated_at = CURRENT_TIMESTAMP WHERE o.id IN " + in(orderIds), orderIds));
+
+        // --- SubOrderRepository ---
+        queries.add(query("SubOrderRepository.findByOrderIdOrderByCreatedAtDesc",
+                "SELECT s.* FROM sub_orders s WHERE s.order_id = ? ORDER BY s.created_at DESC", data.orderId()));
+        queries.add(query("SubOrderRepository.findByVendorIdOrderByCreatedAtDesc",
+                "SELECT s.* FROM sub_orders s WHERE s.vendor_id = ? ORDER BY s.created_at DESC", data.vendorId()));
+        queries.add(query("SubOrderRepository.findBySubOrderNumber",
+                "SELECT s.* FROM sub_orders s WHERE s.sub_order_number = ?", "PLAN1-S"));
+        queries.add(query("SubOrderRepository.findStatusViewById",
+                "SELECT s.id, s.order_id, s.vendor_id, s.status FROM sub_orders s WHERE s.id = ?", data.subOrderId()));
+        queries.add(query("SubOrderRepository.findStatusViewsByIdIn",
+                "SELECT s.id, s.order_id, s.vendor_id, s.status FROM sub_orders s WHERE s.id IN " + in(subOrderIds),
+                subOrderIds));
+        queries.add(query("SubOrderRepository.findWithOrderAndVendorByIdIn",
+                "SELECT s.*, o.*, v.* FROM sub_orders s JOIN orders o ON o.id = s.order_id JOIN vendors v ON v.id = s.vendor_id "
+                        + "WHERE s.id IN " + in(subOrderIds), subOrderIds));
+        queries.add(query("SubOrderRepository.compareAndSetStatus",
+                "UPDATE sub_orders SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = ?",
+                "COOKING", data.subOrderId(), "PENDING"));
+        queries.add(query("SubOrderRepository.compareAndSetStatuses",
+                "UPDATE sub_orders SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id IN " + in(subOrderIds)
+                        + " AND status = ?", "COOKING", subOrderIds, "PENDING"));
+        queries.add(query("SubOrderRepository.findWithVendorByOrderIdIn",
+                "SELECT s.*, v.* FROM sub_orders s JOIN vendors v ON v.id = s.vendor_id "
+                        + "WHERE s.order_id IN " + in(orderIds) + " ORDER BY s.id", orderIds)
+                .allowFilesort("sub-orders of one page of orders, ordered by id"));
+        queries.add(query("SubOrderRepository.findHistoryByVendorId",
+                "SELECT s.*, o.*, c.*, v.* FROM sub_orders s JOIN orders o ON o.id = s.order_id "
+                        + "JOIN users c ON c.id = o.customer_id JOIN vendors v ON v.id = s.vendor_id "
+                        + "WHERE s.vendor_id = ? ORDER BY s.created_at DESC", data.vendorId()));
+        queries.add(query("SubOrderRepository.findVendorPage (first page)",
+                VENDOR_HISTORY, data.vendorId(), null, null, null, null, null, null, null, null, null, null, PAGE + 1));
+        queries.add(query("SubOrderRepository.findVendorPage (status, cursor)",
+                VENDOR_HISTORY, data.vendorId(), "PENDING", "PENDING", null, null, null, null,
+                cursor, cursor, cursor, data.subOrderId() + 100, PAGE + 1));
+
+        // --- OrderItemRepository ---
+        queries.add(query("OrderItemRepository.findBySubOrderId",
+                "SELECT oi.* FROM order_items oi WHERE oi.sub_order_id = ?", data.subOrderId()));
+        queries.add(query("OrderItemRepository.findWithProductBySubOrderIdIn",
+                "SELECT oi.*, p.* FROM order_items oi JOIN products p ON p.id = oi.product_id "
+                        + "WHERE oi.sub_order_id IN " + in(subOrderIds) + " ORDER BY oi.id", subOrderIds)
+                .allowFilesort("items of one page of sub-orders, ordered by id"));
+        queries.add(query("OrderItemRepository.findDistinctProductIdsByCustomerId",
+                "SELECT DISTINCT oi.product_id " + PURCHASES, data.customerId()));
+        queries.add(query("OrderItemRepository.findDistinctProductsByCustomerId",
+                "SELECT DISTINCT p.* " + PURCHASES.replace("WHERE", "JOIN products p ON p.id = oi.product_id WHERE"),
+                data.customerId()));
+        queries.add(query("OrderItemRepository.findFrequentlyOrderedProductIds",
+                "SELECT oi.product_id, SUM(oi.quantity) AS total_qty " + PURCHASES
+                        + "GROUP BY oi.product_id ORDER BY total_qty DESC", data.customerId())
+                .allowFilesort("ORDER BY an aggregate over one customer's purchases"));
+
+        // --- Cart, address, variant repositories ---
+        queries.add(query("CartRepository.findByUserId",
+                "SELECT c.* FROM carts c WHERE c.user_id = ?", data.customerId()));
+        queries.add(query("CartRepository.findByUserIdWithItems",
+                "SELECT DISTINCT c.*, i.*, p.* FROM carts c LEFT JOIN cart_items i ON i.cart_id = c.id "
+                        + "LEFT JOIN products p ON p.id = i.product_id WHERE c.user_id = ?", data.customerId()));
+        queries.add(query("CartItemRepository.findByCartId",
+                "SELECT i.* FROM cart_items i WHERE i.cart_id = ?", data.cartId()));
+        queries.add(query("CartItemRepository.bulkDeleteByCartId",
+                "DELETE FROM cart_items WHERE cart_id = ?", data.cartId()));
+        queries.add(query("AddressRepository.findByUserIdOrderByIsDefaultDesc",
+                "SELECT a.* FROM addresses a WHERE a.user_id = ? ORDER BY a.is_default DESC", data.customerId()));
+        queries.add(query("AddressRepository.findByUserIdAndIsDefaultTrue",
+                "SELECT a.* FROM addresses a WHERE a.user_id = ? AND a.is_default = TRUE", data.customerId()));
+        queries.add(query("VariantGroupRepository.findByProductIdOrderByDisplayOrderAsc",
+                "SELECT g.* FROM variant_groups g WHERE g.product_id = ? ORDER BY g.display_order", data.productId()));
+        queries.add(query("VariantGroupRepository.findWithVariantsByProductId",
+                "SELECT DISTINCT g.*, v.* FROM variant_groups g LEFT JOIN variants v ON v.variant_group_id = g.id "
+                        + "WHERE g.product_id = ? ORDER BY g.display_order, g.id, v.display_order, v.id", data.productId())
+                .allowFilesort("the few variants of one product's groups"));
+        queries.add(query("VariantGroupRepository.findExportRowsByProductIdIn",
+                "SELECT g.product_id, g.id, g.name, g.is_multi_select, g.is_required, v.name, v.price_adjustment, v.available "
+                        + "FROM variant_groups g LEFT JOIN variants v ON v.variant_group_id = g.id "
+                        + "WHERE g.product_id IN " + in(productIds)
+                        + " ORDER BY g.product_id, g.display_order, g.id, v.display_order, v.id", productIds)
+                .allowFilesort("the variants of one export page's products"));
+        queries.add(query("VariantRepository.findAllPriceRows",
+                "SELECT g.product_id, v.id, g.name, v.name, v.price_adjustment FROM variants v "
+                        + "JOIN variant_groups g ON g.id = v.variant_group_id WHERE v.available = TRUE")
+                .allowFullScan("v", "g"));
+        queries.add(query("VariantRepository.findPriceRowsByProductIdIn",
+                "SELECT g.product_id, v.id, g.name, v.name, v.price_adjustment FROM variants v "
+                        + "JOIN variant_groups g ON g.id = v.variant_group_id "
+                        + "WHERE v.available = TRUE AND g.product_id IN " + in(productIds), productIds));
+
+        // --- Idempotency keys, order numbers, wallet ---
+        queries.add(query("IdempotencyRecordRepository.findByUserIdAndIdempotencyKey",
+                "SELECT r.* FROM idempotency_keys r WHERE r.user_id = ? AND r.idempotency_key = ?",
+                data.customerId(), "plan-check-1"));
+        queries.add(query("IdempotencyRecordRepository.deleteOlderThan",
+                "DELETE FROM idempotency_keys WHERE created_at < ?", now.minusHours(24)));
+        queries.add(query("OrderNumberSegmentRepository.findForUpdate",
+                "SELECT s.* FROM order_number_segments s WHERE s.segment_day = ? FOR UPDATE", "20240101"));
+        queries.add(query("WalletLedgerRepository.sumBalances",
+                "SELECT x.account_id, SUM(x.amount) FROM ("
+                        + "SELECT s.account_id, s.balance AS amount FROM wallet_snapshots s "
+                        + "WHERE s.account_type = ? AND s.account_id IN " + in(vendorIds) + " UNION ALL "
+                        + "SELECT l.account_id, l.amount FROM wallet_ledger l "
+                        + "WHERE l.account_type = ? AND l.folded = FALSE AND l.account_id IN " + in(vendorIds)
+                        + ") x GROUP BY x.account_id",
+                "VENDOR", vendorIds, "VENDOR", vendorIds)
+                .allowFilesort("grouping the union of a page of accounts"));
+        queries.add(query("WalletLedgerRepository.sumBalanceByAccountType (PLATFORM)",
+                "SELECT COALESCE(SUM(x.amount), 0) FROM ("
+                        + "SELECT s.balance AS amount FROM wallet_snapshots s WHERE s.account_type = ? UNION ALL "
+                        + "SELECT l.amount FROM wallet_ledger l WHERE l.account_type = ? AND l.folded = FALSE) x",
+                "PLATFORM", "PLATFORM"));
+        queries.add(query("WalletLedgerRepository.findUnfoldedIds",
+                "SELECT e.id FROM wallet_ledger e WHERE e.folded = FALSE ORDER BY e.id LIMIT ?", 1000));
+
+        // --- ProductSalesCounter (JDBC) ---
+        queries.add(query("ProductSalesCounter.recordDelivered (journal insert)",
+                "SELECT oi.sub_order_id, oi.product_id, SUM(oi.quantity) FROM order_items oi "
+                        + "WHERE oi.sub_order_id IN " + in(subOrderIds) + " GROUP BY oi.sub_order_id, oi.product_id",
+                subOrderIds));
+        queries.add(query("ProductSalesCounter.recordDelivered (read back)",
+                "SELECT j.product_id, j.quantity FROM product_sales_journal j WHERE j.sub_order_id IN " + in(subOrderIds),
+                subOrderIds));
+        queries.add(query("ProductSalesCounter.flush (journal delete)",
+                "DELETE FROM product_sales_journal WHERE sub_order_id IN " + in(subOrderIds), subOrderIds));
+        queries.add(query("ProductSalesCounter.flush (sold count)",
+                "UPDATE products SET sold_count = COALESCE(sold_count, 0) + ?, updated_at = ? WHERE id = ?",
+                3, now, data.productId()));
+        // Runs with SKIP LOCKED, which the embedded MariaDB doesn't parse
+        queries.add(query("ProductSalesCounter.replayAbandoned",
+                "SELECT j.sub_order_id, j.product_id, j.quantity FROM product_sales_journal j "
+                        + "WHERE j.created_at < ? ORDER BY j.created_at LIMIT ? FOR UPDATE", now.minusMinutes(5), 1000));
+
+        return queries;
+    }
+
+    private static PlanQuery query(String name, String sql, Object... params) {
+        List<Object> flat = new ArrayList<>();
+        for (Object param : params) {
+            if (param instanceof List<?> list) {
+                flat.addAll(list);
+            } else if (param instanceof Object[] array) {
+                flat.addAll(Arrays.asList(array));
+            } else {
+                flat.add(param);
+            }
+        }
+        return new PlanQuery(name, sql, flat, Set.of(), null);
+    }
+
+    /**
+     * Bind values of {@link #PRODUCT_FILTERS}, where null means "no filter"
+     */
+    private static Object[] filters(String region, String category, Long vendorId, Boolean available) {
+        return new Object[] { region, region, category, category, vendorId, vendorId, available, available };
+    }
+
+    private static String in(List<?> values) {
+        return "(" + String.join(", ", values.stream().map(value -> "?").toList()) + ")";
+    }
+}
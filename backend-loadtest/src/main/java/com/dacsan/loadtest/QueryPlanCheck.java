@@ -0,0 +1,93 @@
+package com.dacsan.loadtest;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query plan regression check. Seeds a large dataset ({@link PlanCheckDataset}), runs EXPLAIN for
+ * every repository query in {@link QueryPlanCatalog} and exits with code 1 when a plan reads a
+ * whole table (type ALL) or sorts its rows (Using filesort), unless the catalog entry expects it.
+ *
+ * Without --jdbc-url the embedded database is started and migrated by the backend jar's Flyway.
+ * --jdbc-url points at a migrated scratch database instead; the dataset is added to it.
+ *
+ * Usage: mvn -q compile exec:java -Dexec.mainClass=com.dacsan.loadtest.QueryPlanCheck
+ * -Dexec.args="[--products=50000] [--jdbc-url=jdbc:mysql://... --jdbc-user=root --jdbc-password=]"
+ */
+public class QueryPlanCheck {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        int products = Integer.parseInt(options.getOrDefault("products", "50000"));
+
+        EmbeddedBackend embedded = options.containsKey("jdbc-url") ? null : EmbeddedBackend.start(
+                Path.of(options.getOrDefault("backend-jar", "../backend/target/dacsan-backend-1.0.0-exec.jar")));
+        String jdbcUrl = embedded != null ? embedded.jdbcUrl() : options.get("jdbc-url");
+
+        List<String> violations;
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                options.getOrDefault("jdbc-user", "root"), options.getOrDefault("jdbc-password", ""))) {
+            long started = System.nanoTime();
+            PlanCheckDataset data = PlanCheckDataset.seed(connection, products);
+            System.out.printf("Seeded %d products and their orders in %.1fs%n", products, (System.nanoTime() - started) / 1e9);
+            violations = check(connection, QueryPlanCatalog.queries(data));
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            System.err.println(violations.size() + " query plan regression(s):");
+            violations.forEach(violation -> System.err.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.println("No full scan or filesort beyond the expected ones");
+    }
+
+    private static List<String> check(Connection connection, List<QueryPlanCatalog.PlanQuery> queries) throws Exception {
+        List<String> violations = new ArrayList<>();
+        for (QueryPlanCatalog.PlanQuery query : queries) {
+            System.out.println();
+            System.out.println(query.name());
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query.sql())) {
+                for (int i = 0; i < query.params().size(); i++) {
+                    explain.setObject(i + 1, query.params().get(i));
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    while (plan.next()) {
+                        String table = plan.getString("table");
+                        String type = plan.getString("type");
+                        String extra = plan.getString("Extra");
+                        System.out.printf("  %-22s %-12s %-40s %8s  %s%n", table, type, plan.getString("key"),
+                                plan.getString("rows"), extra == null ? "" : extra);
+
+                        // <derivedN>/<unionN,M> are the query's own temporary results
+                        boolean baseTable = table != null && !table.startsWith("<");
+                        if (baseTable && "ALL".equals(type) && !query.fullScanAliases().contains(table)) {
+                            violations.add(query.name() + ": full scan of " + table);
+                        }
+                        if (extra != null && extra.contains("Using filesort") && query.filesortReason() == null) {
+                            violations.add(query.name() + ": filesort on " + table);
+                        }
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,42 @@
+package com.dacsan.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run with a baseline report: an endpoint regresses when its p95 latency grows, or its
+ * throughput drops, by more than the allowed percentage. Endpoints missing on either side are ignored.
+ */
+public final class RegressionCheck {
+
+    private RegressionCheck() {
+    }
+
+    public static List<String> findRegressions(JsonNode baseline, Map<String, LatencyRecorder.EndpointStats> current,
+            double maxRegressionPct) {
+        List<String> regressions = new ArrayList<>();
+        double factor = maxRegressionPct / 100.0;
+
+        current.forEach((endpoint, stats) -> {
+            JsonNode before = baseline.path("endpoints").path(endpoint);
+            if (before.isMissingNode()) {
+                return;
+            }
+
+            double p95Before = before.path("p95Ms").asDouble();
+            if (p95Before > 0 && stats.p95Ms() > p95Before * (1 + factor)) {
+                regressions.add(String.format("%s p95 %.1f ms -> %.1f ms", endpoint, p95Before, stats.p95Ms()));
+            }
+
+            double throughputBefore = before.path("throughputPerSec").asDouble();
+            if (throughputBefore > 0 && stats.throughputPerSec() < throughputBefore * (1 - factor)) {
+                regressions.add(String.format("%s throughput %.1f/s -> %.1f/s",
+                        endpoint, throughputBefore, stats.throughputPerSec()));
+            }
+        });
+        return regressions;
+    }
+}
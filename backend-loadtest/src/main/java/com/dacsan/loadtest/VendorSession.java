@@ -0,0 +1,83 @@
+package com.dacsan.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One kitchen: polls its new sub-orders and walks them through
+ * PENDING -> COOKING (bulk) -> PICKED_UP (one by one) -> DELIVERED (bulk).
+ */
+public class VendorSession implements Runnable {
+
+    private final ApiClient api;
+    private final String email;
+    private final String password;
+    private final BooleanSupplier running;
+
+    public VendorSession(ApiClient api, String email, String password, BooleanSupplier running) {
+        this.api = api;
+        this.email = email;
+        this.password = password;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        String token;
+        try {
+            token = api.post("POST /api/auth/login", "/api/auth/login",
+                    Map.of("email", email, "password", password), null).path("token").asText();
+        } catch (ApiClient.ApiException e) {
+            System.err.println("Vendor " + email + " login failed: " + e.getMessage());
+            return;
+        }
+
+        while (running.getAsBoolean()) {
+            try {
+                List<Long> pending = subOrderIds(token, "PENDING");
+                if (!pending.isEmpty()) {
+                    bulkUpdate(token, pending, "COOKING");
+                }
+
+                for (Long id : subOrderIds(token, "COOKING").stream().limit(5).toList()) {
+                    api.patch("PATCH /api/orders/sub/{id}/status", "/api/orders/sub/" + id + "/status",
+                            Map.of("status", "PICKED_UP"), token);
+                }
+
+                List<Long> pickedUp = subOrderIds(token, "PICKED_UP");
+                if (!pickedUp.isEmpty()) {
+                    bulkUpdate(token, pickedUp, "DELIVERED");
+                }
+
+                Thread.sleep(500);
+            } catch (ApiClient.ApiException e) {
+                System.err.println("Vendor " + email + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<Long> subOrderIds(String token, String status) {
+        JsonNode page = api.get("GET /api/orders?size&status", "/api/orders?size=50&status=" + status, token);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode order : page.path("items")) {
+            for (JsonNode subOrder : order.path("subOrders")) {
+                if (status.equals(subOrder.path("status").asText())) {
+                    ids.add(subOrder.path("id").asLong());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void bulkUpdate(String token, List<Long> ids, String status) {
+        api.patch("PATCH /api/orders/sub/status", "/api/orders/sub/status",
+                Map.of("subOrderIds", ids.stream().limit(100).toList(), "status", status), token);
+    }
+}
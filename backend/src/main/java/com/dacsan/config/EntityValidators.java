@@ -0,0 +1,19 @@
+package com.dacsan.config;
+
+import com.dacsan.service.CatalogVersions;
+
+import java.util.Map;
+
+/**
+ * Validators of a single entity's response for {@link HttpCacheable#entity()}, looked up before
+ * the handler runs.
+ */
+public interface EntityValidators {
+
+    /**
+     * @param uriVariables the request's path variables
+     * @return the validators if they are known without loading the entity (e.g. it is cached),
+     * otherwise null and the handler sets them itself
+     */
+    CatalogVersions.Validators lookup(Map<String, String> uriVariables);
+}
@@ -0,0 +1,35 @@
+package com.dacsan.config;
+
+import com.dacsan.service.CatalogVersions;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public GET whose response may be cached and revalidated, see
+ * {@link HttpCachingInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HttpCacheable {
+
+    /**
+     * Cache-Control policy, configured under {@code app.http-cache.policies.<name>}
+     */
+    String policy();
+
+    /**
+     * Collections the response is built from; their versions are its weak ETag and Last-Modified
+     */
+    CatalogVersions.Collection[] collections() default {};
+
+    /**
+     * Bean giving the strong validators of a single entity's response; used instead of
+     * {@link #collections()}
+     */
+    Class<? extends EntityValidators> entity() default EntityValidators.class;
+}
@@ -0,0 +1,89 @@
+package com.dacsan.config;
+
+import com.dacsan.service.CatalogVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP caching for handler methods annotated with {@link HttpCacheable}: sets the policy's
+ * Cache-Control, derives ETag and Last-Modified (collection versions or the entity's own
+ * validators) and answers a matching If-None-Match / If-Modified-Since with 304 before the
+ * controller, and so the service, runs.
+ *
+ * Policy {@code app.http-cache.policies.<name>}: {@code max-age-seconds},
+ * {@code stale-while-revalidate-seconds} (0 = off) and {@code shared} (false = private, for
+ * responses that need authentication).
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpCachingInterceptor implements HandlerInterceptor {
+
+    private static final String POLICY_PREFIX = "app.http-cache.policies.";
+
+    private final CatalogVersions catalogVersions;
+    private final ApplicationContext applicationContext;
+    private final Environment environment;
+    private final Map<String, String> cacheControls = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        HttpCacheable cacheable = handlerMethod.getMethodAnnotation(HttpCacheable.class);
+        if (cacheable == null) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControls.computeIfAbsent(cacheable.policy(), this::cacheControl));
+        CatalogVersions.Validators validators = validators(cacheable, request);
+        if (validators == null) {
+            return true;
+        }
+        // Writes ETag and Last-Modified, and status 304 when the request's validators match
+        return !new ServletWebRequest(request, response)
+                .checkNotModified(validators.etag(), validators.lastModifiedMillis());
+    }
+
+    private CatalogVersions.Validators validators(HttpCacheable cacheable, HttpServletRequest request) {
+        if (cacheable.entity() != EntityValidators.class) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> uriVariables = (Map<String, String>) request.getAttribute(
+                    HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            return applicationContext.getBean(cacheable.entity()).lookup(uriVariables != null ? uriVariables : Map.of());
+        }
+        return cacheable.collections().length > 0 ? catalogVersions.validators(cacheable.collections()) : null;
+    }
+
+    private String cacheControl(String policy) {
+        String prefix = POLICY_PREFIX + policy + ".";
+        long maxAge = environment.getRequiredProperty(prefix + "max-age-seconds", Long.class);
+        long staleWhileRevalidate = environment.getProperty(prefix + "stale-while-revalidate-seconds", Long.class, 0L);
+        boolean shared = environment.getProperty(prefix + "shared", Boolean.class, true);
+
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAge));
+        cacheControl = shared ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        if (staleWhileRevalidate > 0) {
+            cacheControl = cacheControl.staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidate));
+        }
+        return cacheControl.getHeaderValue();
+    }
+}
@@ -46,6 +46,7 @@ public class SecurityConfig {
                                 "/api/products/**",
                                 "/api/vendors/**",
                                 "/api/recommendations/**",
+                                "/api/search/**",
                                 "/api/test-debug/**",
                                 "/uploads/**",
                                 "/actuator/health",
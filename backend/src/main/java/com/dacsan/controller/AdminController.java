@@ -1,9 +1,11 @@
 package com.dacsan.controller;
 
 import com.dacsan.dto.request.UpdateProductRequest;
+import com.dacsan.dto.response.CursorPageResponse;
 import com.dacsan.dto.response.ProductResponse;
 import com.dacsan.entity.ProductCategory;
 import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductSortKey;
 import com.dacsan.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -42,11 +44,29 @@ public class AdminController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection) {
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, ProductSortKey.fromProperty(sortBy).toSort(direction));
         return ResponseEntity.ok(productService.getAllProducts(
                 region, category, vendorId, available, search, pageable));
     }
 
+    @GetMapping(value = "/products", params = "cursor")
+    @Operation(summary = "Get products page (cursor, Admin)",
+            description = "Count-free listing: pass cursor (empty for the first page) instead of page, then nextCursor "
+                    + "for the following pages. sortBy is one of createdAt, soldCount, rating, basePrice.")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsPage(
+            @RequestParam(required = false) Region region,
+            @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        return ResponseEntity.ok(productService.getProductsPage(region, category, vendorId, available, search,
+                cursor, size, ProductSortKey.fromProperty(sortBy), Sort.Direction.fromString(sortDirection)));
+    }
+
     @PatchMapping("/products/{id}")
     @Operation(summary = "Update any product (Admin)")
     public ResponseEntity<ProductResponse> updateProduct(
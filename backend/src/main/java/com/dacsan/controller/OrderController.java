@@ -1,19 +1,26 @@
 package com.dacsan.controller;
 
+import com.dacsan.dto.request.BulkUpdateSubOrderStatusRequest;
 import com.dacsan.dto.request.CreateOrderRequest;
 import com.dacsan.dto.request.UpdateSubOrderStatusRequest;
+import com.dacsan.dto.response.BulkUpdateSubOrderStatusResponse;
+import com.dacsan.dto.response.CursorPageResponse;
 import com.dacsan.dto.response.OrderResponse;
 import com.dacsan.dto.response.SubOrderResponse;
+import com.dacsan.security.SecurityUtils;
+import com.dacsan.service.IdempotencyService;
 import com.dacsan.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -24,12 +31,20 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
-    @Operation(summary = "Create order from cart", description = "Creates main order and splits into sub-orders by vendor. Clears cart after creation.")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        return ResponseEntity.ok(orderService.createOrder(request));
+    @Operation(summary = "Create order from cart", description = "Creates main order and splits into sub-orders by vendor. Clears cart after creation. Retries with the same Idempotency-Key header return the first response without creating another order.")
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.createOrder(request, null));
+        }
+        return ResponseEntity.ok(idempotencyService.execute(
+                SecurityUtils.getCurrentUserId(), idempotencyKey, OrderResponse.class,
+                () -> orderService.createOrder(request, idempotencyKey)));
     }
 
     @GetMapping
@@ -39,6 +54,18 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrders());
     }
 
+    @GetMapping(params = "size")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get orders page (cursor)", description = "Keyset-paginated order history, newest first. Pass nextCursor as cursor for the next page. Status filters sub-orders for vendors, orders for customers.")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrdersPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(orderService.getOrdersPage(cursor, size, status, from, to));
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get order by ID", description = "Get order details with all sub-orders and items")
@@ -54,4 +81,12 @@ public class OrderController {
             @Valid @RequestBody UpdateSubOrderStatusRequest request) {
         return ResponseEntity.ok(orderService.updateSubOrderStatus(subOrderId, request));
     }
+
+    @PatchMapping("/sub/status")
+    @PreAuthorize("hasRole('VENDOR')")
+    @Operation(summary = "Bulk update sub-order status", description = "Vendor moves up to 100 of their sub-orders to one status at once. Sub-orders that can't make the transition are skipped; customers get one notification each.")
+    public ResponseEntity<BulkUpdateSubOrderStatusResponse> bulkUpdateSubOrderStatus(
+            @Valid @RequestBody BulkUpdateSubOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateSubOrderStatus(request));
+    }
 }
@@ -1,10 +1,20 @@
 package com.dacsan.controller;
 
+import com.dacsan.config.HttpCacheable;
 import com.dacsan.dto.request.CreateProductRequest;
 import com.dacsan.dto.request.UpdateProductRequest;
+import com.dacsan.dto.response.CursorPageResponse;
+import com.dacsan.dto.response.FacetCountsResponse;
+import com.dacsan.dto.response.ProductImportResponse;
 import com.dacsan.dto.response.ProductResponse;
 import com.dacsan.entity.ProductCategory;
 import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductSortKey;
+import com.dacsan.service.CatalogVersions;
+import com.dacsan.service.ProductBulkService;
+import com.dacsan.service.ProductCatalogCache;
+import com.dacsan.service.ProductDetailValidators;
+import com.dacsan.service.ProductFacetService;
 import com.dacsan.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,10 +25,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -29,8 +46,13 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductFacetService productFacetService;
+    private final ProductDetailValidators productDetailValidators;
 
     @GetMapping
+    @HttpCacheable(policy = "product-list",
+            collections = {CatalogVersions.Collection.PRODUCTS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get all products with filters and pagination")
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
             @RequestParam(required = false) Region region,
@@ -43,7 +65,7 @@ public class ProductController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection) {
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, ProductSortKey.fromProperty(sortBy).toSort(direction));
 
         Page<ProductResponse> products = productService.getAllProducts(
                 region, category, vendorId, available, search, pageable);
@@ -51,19 +73,63 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(params = "cursor")
+    @HttpCacheable(policy = "product-list",
+            collections = {CatalogVersions.Collection.PRODUCTS, CatalogVersions.Collection.VENDORS})
+    @Operation(summary = "Get products page (cursor)",
+            description = "Count-free listing: pass cursor (empty for the first page) instead of page, then nextCursor "
+                    + "for the following pages. sortBy is one of createdAt, soldCount, rating, basePrice.")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsPage(
+            @RequestParam(required = false) Region region,
+            @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        return ResponseEntity.ok(productService.getProductsPage(region, category, vendorId, available, search,
+                cursor, size, ProductSortKey.fromProperty(sortBy), Sort.Direction.fromString(sortDirection)));
+    }
+
+    @GetMapping("/facets")
+    @HttpCacheable(policy = "product-list", collections = CatalogVersions.Collection.PRODUCTS)
+    @Operation(summary = "Get product counts per region and category",
+            description = "Counts for the filters beside the product list; each facet is counted with the other filters applied")
+    public ResponseEntity<FacetCountsResponse> getFacets(
+            @RequestParam(required = false) Region region,
+            @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Long vendorId) {
+        return ResponseEntity.ok(productFacetService.getFacets(region, category, available, vendorId));
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get product by ID with variants")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    @HttpCacheable(policy = "product-detail", entity = ProductDetailValidators.class)
+    @Operation(summary = "Get product by ID with variants",
+            description = "Sends an ETag and Last-Modified; a matching If-None-Match / If-Modified-Since gets 304 Not Modified")
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, WebRequest request) {
+        // Reached when the detail was not cached yet (otherwise the interceptor answered or set the validators)
+        ProductCatalogCache.ProductDetail detail = productService.getProductDetail(id);
+        CatalogVersions.Validators validators = productDetailValidators.of(detail);
+        if (request.checkNotModified(validators.etag(), validators.lastModifiedMillis())) {
+            return null; // 304 with the ETag header, already written
+        }
+        return ResponseEntity.ok(detail.product()); // ETag and Last-Modified already written
     }
 
     @GetMapping("/featured")
+    @HttpCacheable(policy = "product-highlights",
+            collections = {CatalogVersions.Collection.PRODUCTS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get featured products")
     public ResponseEntity<List<ProductResponse>> getFeaturedProducts() {
         return ResponseEntity.ok(productService.getFeaturedProducts());
     }
 
     @GetMapping("/best-sellers")
+    @HttpCacheable(policy = "product-highlights",
+            collections = {CatalogVersions.Collection.PRODUCTS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get top 10 best selling products")
     public ResponseEntity<List<ProductResponse>> getBestSellers() {
         return ResponseEntity.ok(productService.getBestSellers());
@@ -85,6 +151,35 @@ public class ProductController {
         return ResponseEntity.ok(productService.createProduct(request));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('VENDOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Bulk import products from CSV or NDJSON (Vendor only)",
+            description = "One product per NDJSON line / CSV record, in the format of /export. Rows are created in "
+                    + "chunks with the usual listing fees; rows that fail are listed with their line and the rest "
+                    + "are still imported.")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkService.importProducts(body, ProductBulkService.Format.of(contentType)));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('VENDOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Export own products as CSV or NDJSON (Vendor only)",
+            description = "Streamed; the file can be edited and sent back to /import")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        ProductBulkService.Format exportFormat = ProductBulkService.Format.of(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(productBulkService.exportProducts(exportFormat));
+    }
+
     @PatchMapping("/{id}")
     @PreAuthorize("hasRole('VENDOR')")
     @SecurityRequirement(name = "bearerAuth")
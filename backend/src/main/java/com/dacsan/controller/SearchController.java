@@ -0,0 +1,29 @@
+package com.dacsan.controller;
+
+import com.dacsan.dto.response.SuggestionResponse;
+import com.dacsan.service.SearchSuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Search box endpoints")
+public class SearchController {
+
+    private final SearchSuggestService searchSuggestService;
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Typeahead suggestions",
+            description = "Dishes and stores whose name has a word starting with q (accents optional), most popular first")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(searchSuggestService.suggest(q, limit));
+    }
+}
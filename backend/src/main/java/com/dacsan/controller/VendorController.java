@@ -1,10 +1,12 @@
 package com.dacsan.controller;
 
+import com.dacsan.config.HttpCacheable;
 import com.dacsan.dto.response.VendorResponse;
 import com.dacsan.dto.response.VendorStatsResponse;
 import com.dacsan.entity.Region;
 import com.dacsan.entity.User;
 import com.dacsan.security.SecurityUtils;
+import com.dacsan.service.CatalogVersions;
 import com.dacsan.service.VendorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -51,6 +53,7 @@ public class VendorController {
     }
 
     @GetMapping
+    @HttpCacheable(policy = "vendors", collections = CatalogVersions.Collection.VENDORS)
     @Operation(summary = "Get all verified vendors")
     public ResponseEntity<List<VendorResponse>> getAllVendors(
             @RequestParam(required = false) Region region) {
@@ -61,6 +64,7 @@ public class VendorController {
     }
 
     @GetMapping("/{id}")
+    @HttpCacheable(policy = "vendors", collections = CatalogVersions.Collection.VENDORS)
     @Operation(summary = "Get vendor by ID")
     public ResponseEntity<VendorResponse> getVendorById(@PathVariable Long id) {
         return ResponseEntity.ok(vendorService.getVendorById(id));
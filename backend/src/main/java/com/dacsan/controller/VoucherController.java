@@ -1,5 +1,6 @@
 package com.dacsan.controller;
 
+import com.dacsan.config.HttpCacheable;
 import com.dacsan.dto.request.CreateVoucherRequest;
 import com.dacsan.dto.request.ValidateVoucherRequest;
 import com.dacsan.dto.response.VoucherResponse;
@@ -7,6 +8,7 @@ import com.dacsan.entity.User;
 import com.dacsan.entity.UserRole;
 import com.dacsan.entity.Vendor;
 import com.dacsan.repository.VendorRepository;
+import com.dacsan.service.CatalogVersions;
 import com.dacsan.service.VoucherService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -50,12 +52,16 @@ public class VoucherController {
     }
 
     @GetMapping
+    @HttpCacheable(policy = "vouchers",
+            collections = {CatalogVersions.Collection.VOUCHERS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get all active vouchers (public)")
     public ResponseEntity<List<VoucherResponse>> getAllActiveVouchers() {
         return ResponseEntity.ok(voucherService.getAllActiveVouchers());
     }
 
     @GetMapping("/vendor/{vendorId}")
+    @HttpCacheable(policy = "vouchers",
+            collections = {CatalogVersions.Collection.VOUCHERS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get vouchers for a specific vendor (public)")
     public ResponseEntity<List<VoucherResponse>> getVouchersByVendor(@PathVariable Long vendorId) {
         return ResponseEntity.ok(voucherService.getVouchersByVendor(vendorId));
@@ -71,6 +77,8 @@ public class VoucherController {
     }
 
     @GetMapping("/system")
+    @HttpCacheable(policy = "vouchers",
+            collections = {CatalogVersions.Collection.VOUCHERS, CatalogVersions.Collection.VENDORS})
     @Operation(summary = "Get system-wide vouchers (public)")
     public ResponseEntity<List<VoucherResponse>> getSystemVouchers() {
         return ResponseEntity.ok(voucherService.getSystemVouchers());
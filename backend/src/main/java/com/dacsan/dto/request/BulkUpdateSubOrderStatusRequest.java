@@ -0,0 +1,26 @@
+package com.dacsan.dto.request;
+
+import com.dacsan.entity.SubOrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateSubOrderStatusRequest {
+
+    @NotEmpty(message = "Sub-order ids are required")
+    @Size(max = 100, message = "At most 100 sub-orders per request")
+    private List<@NotNull Long> subOrderIds;
+
+    @NotNull(message = "Status is required")
+    private SubOrderStatus status;
+}
@@ -0,0 +1,92 @@
+package com.dacsan.dto.request;
+
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One product of a bulk import (one NDJSON line or CSV record), and of the matching export.
+ * Same fields as {@link CreateProductRequest}, plus the product's variant groups.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    private String description;
+
+    @NotNull(message = "Base price is required")
+    @DecimalMin(value = "0.0", message = "Price must be positive")
+    private BigDecimal basePrice;
+
+    @NotNull(message = "Region is required")
+    private Region region;
+
+    @NotNull(message = "Category is required")
+    private ProductCategory category;
+
+    @Builder.Default
+    private List<@NotNull(message = "Image URL must not be null") String> images = new ArrayList<>();
+
+    @Builder.Default
+    private Boolean available = true;
+
+    @Builder.Default
+    private Boolean featured = false;
+
+    // Constraints on the elements too: a null in a JSON array would otherwise reach the import
+    @Builder.Default
+    private List<@NotNull(message = "Variant group must not be null") @Valid VariantGroupRow> variantGroups = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VariantGroupRow {
+
+        @NotBlank(message = "Variant group name is required")
+        private String name;
+
+        @Builder.Default
+        private Boolean multiSelect = false;
+
+        @Builder.Default
+        private Boolean required = false;
+
+        @NotEmpty(message = "Variant group needs at least one variant")
+        @Builder.Default
+        private List<@NotNull(message = "Variant must not be null") @Valid VariantRow> variants = new ArrayList<>();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VariantRow {
+
+        @NotBlank(message = "Variant name is required")
+        private String name;
+
+        @Builder.Default
+        private BigDecimal priceAdjustment = BigDecimal.ZERO;
+
+        @Builder.Default
+        private Boolean available = true;
+    }
+}
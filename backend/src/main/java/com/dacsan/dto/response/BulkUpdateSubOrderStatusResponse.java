@@ -0,0 +1,23 @@
+package com.dacsan.dto.response;
+
+import com.dacsan.entity.SubOrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk status update. Sub-orders whose current status cannot move to the
+ * target status (e.g. already cancelled) are skipped and listed in skippedIds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateSubOrderStatusResponse {
+    private SubOrderStatus status;
+    private List<Long> updatedIds;
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,22 @@
+package com.dacsan.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the cursor
+ * parameter to get the following page; there is no total count.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package com.dacsan.dto.response;
+
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Product counts beside the product list. Each facet is counted with the other filters applied
+ * but not its own, so selecting a region still shows the counts of the other regions.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountsResponse {
+    private long total; // Products matching every filter
+    private Map<Region, Long> regions;
+    private Map<ProductCategory, Long> categories;
+}
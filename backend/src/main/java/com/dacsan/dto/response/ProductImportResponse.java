@@ -0,0 +1,32 @@
+package com.dacsan.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of a bulk product import. Rows are imported independently: a row that can't be
+ * parsed, fails validation or can't pay its listing fee is listed in errors and the others are
+ * still created. Only the first errors are listed (errorsTruncated = true when there were more).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+    private int created;
+    private int failed;
+    private BigDecimal listingFeeTotal;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    /**
+     * @param line line of the input the row starts on (1-based, the CSV header is line 1)
+     */
+    public record RowError(int line, String message) {
+    }
+}
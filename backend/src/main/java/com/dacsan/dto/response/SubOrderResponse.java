@@ -21,6 +21,7 @@ public class SubOrderResponse {
     private Long vendorId;
     private String vendorName;
     private BigDecimal subtotal;
+    private BigDecimal shippingFee;
     private SubOrderStatus status;
     private List<OrderItemResponse> items = new ArrayList<>();
     private LocalDateTime createdAt;
@@ -0,0 +1,23 @@
+package com.dacsan.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    public enum Type {
+        PRODUCT, // Món ăn
+        STORE // Cửa hàng
+    }
+
+    private Type type;
+    private Long id;
+    private String text;
+    private Long popularity; // soldCount of the product, or of all products of the store
+}
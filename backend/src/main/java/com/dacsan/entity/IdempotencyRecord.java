@@ -0,0 +1,35 @@
+package com.dacsan.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of a request sent with an Idempotency-Key header
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String responseJson; // Null while the first request is still running
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
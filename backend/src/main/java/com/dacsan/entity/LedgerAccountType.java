@@ -0,0 +1,6 @@
+package com.dacsan.entity;
+
+public enum LedgerAccountType {
+    VENDOR, // account_id = vendor id
+    PLATFORM // account_id = commission stripe
+}
@@ -0,0 +1,10 @@
+package com.dacsan.entity;
+
+public enum LedgerEntryType {
+    OPENING_BALANCE,
+    ORDER_EARNING,
+    COMMISSION,
+    LISTING_FEE,
+    TOPUP,
+    TOPUP_BONUS
+}
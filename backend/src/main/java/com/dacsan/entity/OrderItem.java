@@ -19,8 +19,11 @@ import java.util.List;
 @Builder
 public class OrderItem {
 
+    // Pooled block allocation (see V11) so checkout inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_gen")
+    @TableGenerator(name = "order_item_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
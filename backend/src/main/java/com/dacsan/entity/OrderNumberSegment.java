@@ -0,0 +1,24 @@
+package com.dacsan.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-day counter used to hand out order numbers in blocks
+ */
+@Entity
+@Table(name = "order_number_segments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderNumberSegment {
+
+    @Id
+    @Column(length = 8)
+    private String segmentDay; // Format: yyyyMMdd
+
+    @Column(nullable = false)
+    private Long nextValue; // First value not yet reserved by any node
+}
@@ -21,8 +21,11 @@ import java.util.List;
 @Builder
 public class Product {
 
+    // Pooled block allocation (see V20) so bulk import inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id_gen")
+    @TableGenerator(name = "product_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "products", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -57,13 +60,18 @@ public class Product {
     @Column(nullable = false)
     private Boolean featured = false;
 
-    @Column(columnDefinition = "INTEGER DEFAULT 0")
+    // Only ever incremented in SQL by ProductSalesCounter; left out of entity UPDATEs so saving
+    // a product loaded earlier can't overwrite units counted meanwhile
+    @Builder.Default
+    @Column(nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
     private Integer soldCount = 0;
 
-    @Column(columnDefinition = "DECIMAL(3,2) DEFAULT 0.0")
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "DECIMAL(3,2) DEFAULT 0.0")
     private Double rating = 0.0;
 
-    @Column(columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
     private Integer reviewCount = 0;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -22,8 +22,11 @@ import java.util.List;
 @Builder
 public class SubOrder {
 
+    // Pooled block allocation (see V11) so checkout inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sub_order_id_gen")
+    @TableGenerator(name = "sub_order_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "sub_orders", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -41,6 +44,10 @@ public class SubOrder {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal subtotal;
 
+    @Column(nullable = false, precision = 10, scale = 2)
+    @Builder.Default
+    private BigDecimal shippingFee = BigDecimal.ZERO; // Phí giao của riêng vendor này, xem ShippingService
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SubOrderStatus status = SubOrderStatus.PENDING;
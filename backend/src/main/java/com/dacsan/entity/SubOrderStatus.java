@@ -1,10 +1,31 @@
 package com.dacsan.entity;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum SubOrderStatus {
     PENDING, // Chờ bếp xác nhận
     COOKING, // Đang nấu
     READY, // Đã nấu xong
     PICKED_UP, // Đã nấu xong
     DELIVERED, // Đã giao
-    CANCELLED // Đã hủy
+    CANCELLED; // Đã hủy
+
+    // Bảng chuyển trạng thái hợp lệ. COOKING -> PICKED_UP là luồng tự động sau khi đếm ngược ở dashboard
+    private static final Map<SubOrderStatus, Set<SubOrderStatus>> TRANSITIONS = new EnumMap<>(SubOrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(COOKING, CANCELLED));
+        TRANSITIONS.put(COOKING, EnumSet.of(READY, PICKED_UP, CANCELLED));
+        TRANSITIONS.put(READY, EnumSet.of(PICKED_UP, CANCELLED));
+        TRANSITIONS.put(PICKED_UP, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(SubOrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(SubOrderStatus.class));
+    }
+
+    public boolean canTransitionTo(SubOrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
 }
@@ -48,6 +48,7 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Legacy column, no longer written: balances come from wallet_ledger (see WalletService)
     @Column(precision = 19, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
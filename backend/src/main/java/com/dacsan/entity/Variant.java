@@ -15,8 +15,11 @@ import java.math.BigDecimal;
 @Builder
 public class Variant {
 
+    // Pooled block allocation (see V20) so bulk import inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "variant_id_gen")
+    @TableGenerator(name = "variant_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "variants", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
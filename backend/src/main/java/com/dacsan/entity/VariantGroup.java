@@ -16,8 +16,11 @@ import java.util.List;
 @Builder
 public class VariantGroup {
 
+    // Pooled block allocation (see V20) so bulk import inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "variant_group_id_gen")
+    @TableGenerator(name = "variant_group_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "variant_groups", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
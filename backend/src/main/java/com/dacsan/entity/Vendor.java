@@ -58,6 +58,7 @@ public class Vendor {
     @Column(nullable = false)
     private Boolean verified = false; // Admin approval required
 
+    // Legacy column, no longer written: balances come from wallet_ledger (see WalletService)
     @Column(precision = 19, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
@@ -0,0 +1,52 @@
+package com.dacsan.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One immutable wallet movement. Credits are positive, debits negative.
+ */
+@Entity
+@Table(name = "wallet_ledger")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private LedgerAccountType accountType;
+
+    @Column(nullable = false, updatable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private LedgerEntryType entryType;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(updatable = false, length = 100)
+    private String reference; // Sub-order number, product id, ...
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Set by the snapshot roll-up, in the transaction that adds the entry to its account's snapshot
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean folded = false;
+}
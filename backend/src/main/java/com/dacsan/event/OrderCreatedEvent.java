@@ -0,0 +1,15 @@
+package com.dacsan.event;
+
+import com.dacsan.dto.notification.NewOrderNotification;
+
+import java.util.Map;
+
+/**
+ * Published inside the checkout transaction; vendors are only notified once it commits.
+ * Carries ready-to-send payloads so the listener never touches the database.
+ *
+ * @param orderNumber           The created order
+ * @param notificationsByVendor One notification per vendor, keyed by vendor id
+ */
+public record OrderCreatedEvent(String orderNumber, Map<Long, NewOrderNotification> notificationsByVendor) {
+}
@@ -0,0 +1,10 @@
+package com.dacsan.event;
+
+/**
+ * Published when a product (or anything priced with it) is created, updated or deleted.
+ * Listeners refresh their in-memory views of that product after the change commits.
+ *
+ * @param productId The changed product
+ */
+public record ProductChangedEvent(Long productId) {
+}
@@ -0,0 +1,14 @@
+package com.dacsan.event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when sub-orders are delivered and their units journaled for products.sold_count.
+ *
+ * @param subOrderIds    The delivered sub-orders
+ * @param unitsByProduct Units delivered per product id
+ * @param journalRows    product_sales_journal rows written for them
+ */
+public record ProductsSoldEvent(List<Long> subOrderIds, Map<Long, Long> unitsByProduct, int journalRows) {
+}
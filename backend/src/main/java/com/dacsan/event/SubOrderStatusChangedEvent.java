@@ -0,0 +1,13 @@
+package com.dacsan.event;
+
+import com.dacsan.dto.notification.OrderStatusUpdateNotification;
+
+import java.util.Map;
+
+/**
+ * Published inside a bulk status update; customers are only notified once it commits.
+ *
+ * @param notificationsByCustomer One coalesced notification per customer, keyed by user id
+ */
+public record SubOrderStatusChangedEvent(Map<Long, OrderStatusUpdateNotification> notificationsByCustomer) {
+}
@@ -0,0 +1,10 @@
+package com.dacsan.event;
+
+/**
+ * Published when a vendor's store name or visibility (active/verified) changes.
+ * Listeners refresh their in-memory views of that vendor after the change commits.
+ *
+ * @param vendorId The changed vendor
+ */
+public record VendorChangedEvent(Long vendorId) {
+}
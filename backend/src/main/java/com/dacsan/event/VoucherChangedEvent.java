@@ -0,0 +1,10 @@
+package com.dacsan.event;
+
+/**
+ * Published when a voucher is created, updated, deleted or used.
+ * Listeners refresh their in-memory views of vouchers after the change commits.
+ *
+ * @param voucherId The changed voucher
+ */
+public record VoucherChangedEvent(Long voucherId) {
+}
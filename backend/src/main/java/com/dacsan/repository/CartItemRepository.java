@@ -2,6 +2,9 @@ package com.dacsan.repository;
 
 import com.dacsan.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +14,12 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCartId(Long cartId);
 
     void deleteByCartId(Long cartId);
+
+    /**
+     * Xoá toàn bộ item trong giỏ bằng một câu DELETE duy nhất (không load entity).
+     * Flush trước để các INSERT đang chờ trong batch được ghi xuống DB.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int bulkDeleteByCartId(@Param("cartId") Long cartId);
 }
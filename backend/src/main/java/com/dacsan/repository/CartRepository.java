@@ -2,6 +2,8 @@ package com.dacsan.repository;
 
 import com.dacsan.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,10 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    @Query("SELECT DISTINCT c FROM Cart c " +
+            "LEFT JOIN FETCH c.items i " +
+            "LEFT JOIN FETCH i.product " +
+            "WHERE c.user.id = :userId")
+    Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
 }
@@ -0,0 +1,35 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Claim a key. Blocks while another transaction holds the same key and fails with a
+     * duplicate-key error once that transaction has committed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, created_at) " +
+            "VALUES (:userId, :key, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseJson = :responseJson " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :key")
+    int saveResponse(@Param("userId") Long userId, @Param("key") String key,
+            @Param("responseJson") String responseJson);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,12 +6,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findBySubOrderId(Long subOrderId);
 
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.product " +
+            "WHERE oi.subOrder.id IN :subOrderIds ORDER BY oi.id")
+    List<OrderItem> findWithProductBySubOrderIdIn(@Param("subOrderIds") Collection<Long> subOrderIds);
+
     @Query("SELECT DISTINCT oi.product.id FROM OrderItem oi " +
             "WHERE oi.subOrder.order.customer.id = :customerId")
     List<Long> findDistinctProductIdsByCustomerId(@Param("customerId") Long customerId);
@@ -0,0 +1,25 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.OrderNumberSegment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderNumberSegmentRepository extends JpaRepository<OrderNumberSegment, String> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO order_number_segments (segment_day, next_value) VALUES (:day, 1)",
+            nativeQuery = true)
+    int createIfAbsent(@Param("day") String day);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderNumberSegment s WHERE s.segmentDay = :day")
+    Optional<OrderNumberSegment> findForUpdate(@Param("day") String day);
+}
@@ -1,9 +1,16 @@
 package com.dacsan.repository;
 
 import com.dacsan.entity.Order;
+import com.dacsan.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +18,54 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
 
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer " +
+            "WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC")
+    List<Order> findHistoryByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Keyset page of a customer's orders, newest first, ordered by (createdAt, id).
+     * Backed by idx_orders_customer_created / idx_orders_customer_status_created (V13).
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer WHERE o.customer.id = :customerId " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+            "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findCustomerPage(
+            @Param("customerId") Long customerId,
+            @Param("status") OrderStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    /**
+     * Row locks on the parent orders, always taken in id order and before touching any of
+     * their sub-orders, so concurrent vendors serialize on the same rows and never deadlock.
+     */
+    @Query(value = "SELECT id FROM orders WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Derive the order status from its sub-orders in one statement
+     * (all delivered > all cancelled > any picked up > any ready > any cooking > confirmed)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE orders o SET o.status = (" +
+            "SELECT CASE " +
+            "WHEN SUM(s.status = 'DELIVERED') = COUNT(*) THEN 'COMPLETED' " +
+            "WHEN SUM(s.status = 'CANCELLED') = COUNT(*) THEN 'CANCELLED' " +
+            "WHEN SUM(s.status = 'PICKED_UP') > 0 THEN 'DELIVERING' " +
+            "WHEN SUM(s.status = 'READY') > 0 THEN 'READY' " +
+            "WHEN SUM(s.status = 'COOKING') > 0 THEN 'PREPARING' " +
+            "ELSE 'CONFIRMED' END " +
+            "FROM sub_orders s WHERE s.order_id = o.id), " +
+            "o.updated_at = CURRENT_TIMESTAMP " +
+            "WHERE o.id IN :ids", nativeQuery = true)
+    int rollUpStatuses(@Param("ids") Collection<Long> ids);
 }
@@ -5,16 +5,24 @@ import com.dacsan.entity.ProductCategory;
 import com.dacsan.entity.Region;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
+    // Listing queries fetch the vendor (and its eager user) in the same select; images are
+    // batch-loaded with findImagesByProductIdIn, so a page costs a fixed number of queries.
+
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     Page<Product> findByAvailableTrue(Pageable pageable);
 
     Page<Product> findByRegion(Region region, Pageable pageable);
@@ -25,26 +33,54 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByRegionAndCategory(Region region, ProductCategory category, Pageable pageable);
 
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     @Query("SELECT p FROM Product p WHERE " +
             "(:region IS NULL OR p.region = :region) AND " +
             "(:category IS NULL OR p.category = :category) AND " +
             "(:vendorId IS NULL OR p.vendor.id = :vendorId) AND " +
-            "(:available IS NULL OR p.available = :available) AND " +
-            "(:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')))")
+            "(:available IS NULL OR p.available = :available)")
     Page<Product> findByFilters(
             @Param("region") Region region,
             @Param("category") ProductCategory category,
             @Param("vendorId") Long vendorId,
             @Param("available") Boolean available,
-            @Param("search") String search,
             Pageable pageable);
 
+    /**
+     * Search index rows: id, name, description, vendor id, vendor store name, region, category,
+     * available, soldCount
+     */
+    @Query("SELECT p.id, p.name, p.description, v.id, v.storeName, p.region, p.category, p.available, p.soldCount " +
+            "FROM Product p JOIN p.vendor v")
+    List<Object[]> findAllSearchRows();
+
+    @Query("SELECT p.id, p.name, p.description, v.id, v.storeName, p.region, p.category, p.available, p.soldCount " +
+            "FROM Product p JOIN p.vendor v WHERE p.id IN :ids")
+    List<Object[]> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.vendor v JOIN FETCH v.user WHERE p.id IN :ids")
+    List<Product> findWithVendorByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Product detail, first of two queries (the variant groups come from VariantGroupRepository)
+    @Query("SELECT DISTINCT p FROM Product p JOIN FETCH p.vendor v JOIN FETCH v.user " +
+            "LEFT JOIN FETCH p.images WHERE p.id = :id")
+    Optional<Product> findDetailById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     List<Product> findByFeaturedTrueAndAvailableTrue();
 
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     List<Product> findTop10ByAvailableTrueOrderBySoldCountDesc();
 
+    /**
+     * Trả về list [productId (Long), imageUrl (String)] cho nhiều sản phẩm trong một query.
+     */
+    @Query("SELECT p.id, img FROM Product p JOIN p.images img WHERE p.id IN :productIds")
+    List<Object[]> findImagesByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     // --- Recommendation queries ---
 
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     @Query("SELECT p FROM Product p WHERE p.available = true AND p.id <> :productId " +
             "AND (p.category = :category OR p.region = :region OR p.vendor.id = :vendorId) " +
             "ORDER BY CASE " +
@@ -59,18 +95,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("vendorId") Long vendorId,
             Pageable pageable);
 
-    /**
-     * Tìm sản phẩm có tên chứa keyword (ví dụ: "Phở" sẽ match "Phở Hà Nội", "Phở Nam Định"...)
-     * Dùng cho gợi ý theo tên tương tự.
-     */
-    @Query("SELECT p FROM Product p WHERE p.available = true AND p.id <> :excludeId " +
-            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "ORDER BY p.soldCount DESC, p.rating DESC")
-    List<Product> findByNameContaining(
-            @Param("excludeId") Long excludeId,
-            @Param("keyword") String keyword,
-            Pageable pageable);
-
+    @EntityGraph(attributePaths = { "vendor", "vendor.user" })
     @Query("SELECT p FROM Product p WHERE p.available = true " +
             "AND p.id NOT IN :purchasedProductIds " +
             "AND (p.category IN :categories OR p.region IN :regions) " +
@@ -80,4 +105,56 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("categories") List<ProductCategory> categories,
             @Param("regions") List<Region> regions,
             Pageable pageable);
+
+    /**
+     * Price rows: product id, base price
+     */
+    @Query("SELECT p.id, p.basePrice FROM Product p")
+    List<Object[]> findAllPriceRows();
+
+    @Query("SELECT p.id, p.basePrice FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findPriceRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Export rows of a vendor's products, keyset-paged in (createdAt, id) order on
+     * idx_products_vendor_created: id, name, description, base price, region, category,
+     * available, featured, createdAt
+     */
+    @Query("SELECT p.id, p.name, p.description, p.basePrice, p.region, p.category, p.available, p.featured, p.createdAt " +
+            "FROM Product p WHERE p.vendor.id = :vendorId " +
+            "AND (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id > :afterId)) " +
+            "ORDER BY p.createdAt, p.id")
+    List<Object[]> findExportRows(
+            @Param("vendorId") Long vendorId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Facet rows: product id, vendor id, region, category, available
+     */
+    @Query("SELECT p.id, p.vendor.id, p.region, p.category, p.available FROM Product p")
+    List<Object[]> findAllFacetRows();
+
+    @Query("SELECT p.id, p.vendor.id, p.region, p.category, p.available FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Product counts per vendor id, region, category, available (facet reconciliation)
+     */
+    @Query("SELECT p.vendor.id, p.region, p.category, p.available, COUNT(p) FROM Product p " +
+            "GROUP BY p.vendor.id, p.region, p.category, p.available")
+    List<Object[]> countByFacets();
+
+    /**
+     * Every product id (search index reconciliation: deletes on other nodes leave no updated_at)
+     */
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM Product p WHERE p.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.dacsan.repository.TableStamp(COUNT(p), MAX(p.updatedAt)) FROM Product p")
+    TableStamp findStamp();
 }
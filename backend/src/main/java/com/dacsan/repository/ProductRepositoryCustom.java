@@ -0,0 +1,20 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page of products (vendor fetched) ordered by {@code sortKey}, id in {@code direction},
+     * starting after the row ({@code afterValue}, {@code afterId}); both null for the first page.
+     * Filters are optional (null = any). No COUNT query is run.
+     */
+    List<Product> findKeysetPage(Region region, ProductCategory category, Long vendorId, Boolean available,
+                                 ProductSortKey sortKey, Sort.Direction direction,
+                                 Comparable<?> afterValue, Long afterId, int limit);
+}
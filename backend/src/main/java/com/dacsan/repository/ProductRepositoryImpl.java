@@ -0,0 +1,74 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria queries for ProductRepository. The sort column comes from {@link ProductSortKey},
+ * never from request text, so one query shape serves every whitelisted key and direction.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public List<Product> findKeysetPage(Region region, ProductCategory category, Long vendorId, Boolean available,
+                                        ProductSortKey sortKey, Sort.Direction direction,
+                                        Comparable<?> afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        // Left joins like the listing entity graphs: an inner join lets MySQL start from the small
+        // vendors table and sort every product, instead of reading the (key, id) index in order
+        product.fetch("vendor", JoinType.LEFT).fetch("user", JoinType.LEFT);
+
+        List<Predicate> where = new ArrayList<>();
+        if (region != null) {
+            where.add(cb.equal(product.get("region"), region));
+        }
+        if (category != null) {
+            where.add(cb.equal(product.get("category"), category));
+        }
+        if (vendorId != null) {
+            where.add(cb.equal(product.get("vendor").get("id"), vendorId));
+        }
+        if (available != null) {
+            where.add(cb.equal(product.get("available"), available));
+        }
+
+        Expression<Comparable> key = product.get(sortKey.getProperty());
+        Expression<Long> id = product.get("id");
+        boolean descending = direction.isDescending();
+        if (afterValue != null && afterId != null) {
+            // (key, id) strictly after the cursor row in sort order
+            Comparable value = afterValue;
+            where.add(descending
+                    ? cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, afterId)))
+                    : cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, afterId))));
+        }
+
+        query.select(product)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(descending
+                        ? List.of(cb.desc(key), cb.desc(id))
+                        : List.of(cb.asc(key), cb.asc(id)));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.Product;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sort keys accepted by product listings. Each one has a (column, id) index, and id breaks
+ * ties so keyset pages are stable; any other sortBy is rejected instead of becoming an
+ * unindexed ORDER BY.
+ */
+public enum ProductSortKey {
+    CREATED_AT("createdAt", LocalDateTime::parse, Product::getCreatedAt),
+    SOLD_COUNT("soldCount", Integer::valueOf, Product::getSoldCount),
+    RATING("rating", Double::valueOf, Product::getRating),
+    BASE_PRICE("basePrice", BigDecimal::new, Product::getBasePrice);
+
+    private final String property;
+    private final Function<String, Comparable<?>> parser;
+    private final Function<Product, Object> getter;
+
+    ProductSortKey(String property, Function<String, Comparable<?>> parser, Function<Product, Object> getter) {
+        this.property = property;
+        this.parser = parser;
+        this.getter = getter;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static ProductSortKey fromProperty(String sortBy) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equals(sortBy))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sortBy '" + sortBy + "', use one of "
+                        + Arrays.stream(values()).map(key -> key.property).collect(Collectors.joining(", "))));
+    }
+
+    /**
+     * Page sort: this key then id, both in {@code direction}
+     */
+    public Sort toSort(Sort.Direction direction) {
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Cursor form of a product's sort value
+     */
+    public String format(Product product) {
+        Object value = getter.apply(product);
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value wasn't produced by {@link #format}
+     */
+    public Comparable<?> parse(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
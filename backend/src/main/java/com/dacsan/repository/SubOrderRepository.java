@@ -1,9 +1,16 @@
 package com.dacsan.repository;
 
 import com.dacsan.entity.SubOrder;
+import com.dacsan.entity.SubOrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +21,75 @@ public interface SubOrderRepository extends JpaRepository<SubOrder, Long> {
     List<SubOrder> findByVendorIdOrderByCreatedAtDesc(Long vendorId);
 
     Optional<SubOrder> findBySubOrderNumber(String subOrderNumber);
+
+    /**
+     * Owner and current status only, so transitions can be validated without loading the entity
+     */
+    interface StatusView {
+        Long getId();
+
+        Long getOrderId();
+
+        Long getVendorId();
+
+        SubOrderStatus getStatus();
+    }
+
+    @Query("SELECT s.id AS id, s.order.id AS orderId, s.vendor.id AS vendorId, s.status AS status " +
+            "FROM SubOrder s WHERE s.id = :id")
+    Optional<StatusView> findStatusViewById(@Param("id") Long id);
+
+    @Query("SELECT s.id AS id, s.order.id AS orderId, s.vendor.id AS vendorId, s.status AS status " +
+            "FROM SubOrder s WHERE s.id IN :ids")
+    List<StatusView> findStatusViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM SubOrder s JOIN FETCH s.order JOIN FETCH s.vendor WHERE s.id IN :ids")
+    List<SubOrder> findWithOrderAndVendorByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Compare-and-set: only moves the sub-order if it is still in the expected status.
+     * Returns 0 when another request changed it first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SubOrder s SET s.status = :next, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+            @Param("expected") SubOrderStatus expected,
+            @Param("next") SubOrderStatus next);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SubOrder s SET s.status = :next, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id IN :ids AND s.status = :expected")
+    int compareAndSetStatuses(@Param("ids") Collection<Long> ids,
+            @Param("expected") SubOrderStatus expected,
+            @Param("next") SubOrderStatus next);
+
+    @Query("SELECT s FROM SubOrder s JOIN FETCH s.vendor " +
+            "WHERE s.order.id IN :orderIds ORDER BY s.id")
+    List<SubOrder> findWithVendorByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT s FROM SubOrder s JOIN FETCH s.order o JOIN FETCH o.customer JOIN FETCH s.vendor " +
+            "WHERE s.vendor.id = :vendorId ORDER BY s.createdAt DESC")
+    List<SubOrder> findHistoryByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Keyset page of a vendor's sub-orders, newest first, ordered by (createdAt, id).
+     * Backed by idx_sub_orders_vendor_created / idx_sub_orders_vendor_status_created (V13).
+     */
+    @Query("SELECT s FROM SubOrder s JOIN FETCH s.order o JOIN FETCH o.customer JOIN FETCH s.vendor " +
+            "WHERE s.vendor.id = :vendorId " +
+            "AND (:status IS NULL OR s.status = :status) " +
+            "AND (:from IS NULL OR s.createdAt >= :from) " +
+            "AND (:to IS NULL OR s.createdAt < :to) " +
+            "AND (:cursorCreatedAt IS NULL OR s.createdAt < :cursorCreatedAt " +
+            "     OR (s.createdAt = :cursorCreatedAt AND s.id < :cursorId)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC")
+    List<SubOrder> findVendorPage(
+            @Param("vendorId") Long vendorId,
+            @Param("status") SubOrderStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 }
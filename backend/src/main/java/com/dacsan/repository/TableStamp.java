@@ -0,0 +1,13 @@
+package com.dacsan.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap version of a table's content: the row count moves on inserts and deletes, the latest
+ * updatedAt on updates
+ *
+ * @param rows          row count
+ * @param lastUpdatedAt latest updatedAt, null for an empty table
+ */
+public record TableStamp(Long rows, LocalDateTime lastUpdatedAt) {
+}
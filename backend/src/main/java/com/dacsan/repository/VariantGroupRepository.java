@@ -2,11 +2,27 @@ package com.dacsan.repository;
 
 import com.dacsan.entity.VariantGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface VariantGroupRepository extends JpaRepository<VariantGroup, Long> {
     List<VariantGroup> findByProductIdOrderByDisplayOrderAsc(Long productId);
+
+    @Query("SELECT DISTINCT g FROM VariantGroup g LEFT JOIN FETCH g.variants v " +
+            "WHERE g.product.id = :productId ORDER BY g.displayOrder, g.id, v.displayOrder, v.id")
+    List<VariantGroup> findWithVariantsByProductId(@Param("productId") Long productId);
+
+    /**
+     * Export rows: product id, group id, group name, multi-select, required, then the variant's
+     * name, price adjustment and available (null for a group without variants)
+     */
+    @Query("SELECT g.product.id, g.id, g.name, g.isMultiSelect, g.isRequired, v.name, v.priceAdjustment, v.available " +
+            "FROM VariantGroup g LEFT JOIN g.variants v WHERE g.product.id IN :productIds " +
+            "ORDER BY g.product.id, g.displayOrder, g.id, v.displayOrder, v.id")
+    List<Object[]> findExportRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -2,8 +2,24 @@ package com.dacsan.repository;
 
 import com.dacsan.entity.Variant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface VariantRepository extends JpaRepository<Variant, Long> {
+
+    /**
+     * Price rows of available variants: product id, variant id, group name, variant name, price adjustment
+     */
+    @Query("SELECT g.product.id, v.id, g.name, v.name, v.priceAdjustment FROM Variant v JOIN v.variantGroup g " +
+            "WHERE v.available = true")
+    List<Object[]> findAllPriceRows();
+
+    @Query("SELECT g.product.id, v.id, g.name, v.name, v.priceAdjustment FROM Variant v JOIN v.variantGroup g " +
+            "WHERE v.available = true AND g.product.id IN :productIds")
+    List<Object[]> findPriceRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
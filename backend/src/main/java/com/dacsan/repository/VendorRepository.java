@@ -1,9 +1,16 @@
 package com.dacsan.repository;
 
 import com.dacsan.entity.Vendor;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,30 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
     Optional<Vendor> findByUserId(Long userId);
 
     boolean existsByUserId(Long userId);
+
+    /**
+     * Lock the vendor row so wallet debits of the same vendor are checked one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vendor v WHERE v.user.id = :userId")
+    Optional<Vendor> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Suggestion rows: id, store name, active, verified, total soldCount of its products
+     */
+    @Query("SELECT v.id, v.storeName, v.active, v.verified, COALESCE(SUM(p.soldCount), 0) " +
+            "FROM Vendor v LEFT JOIN Product p ON p.vendor = v " +
+            "GROUP BY v.id, v.storeName, v.active, v.verified")
+    List<Object[]> findAllSuggestionRows();
+
+    @Query("SELECT v.id, v.storeName, v.active, v.verified, COALESCE(SUM(p.soldCount), 0) " +
+            "FROM Vendor v LEFT JOIN Product p ON p.vendor = v WHERE v.id IN :ids " +
+            "GROUP BY v.id, v.storeName, v.active, v.verified")
+    List<Object[]> findSuggestionRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.id FROM Vendor v WHERE v.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.dacsan.repository.TableStamp(COUNT(v), MAX(v.updatedAt)) FROM Vendor v")
+    TableStamp findStamp();
 }
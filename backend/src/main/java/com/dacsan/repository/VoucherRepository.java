@@ -2,8 +2,11 @@ package com.dacsan.repository;
 
 import com.dacsan.entity.Voucher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +19,17 @@ public interface VoucherRepository extends JpaRepository<Voucher, Long> {
     List<Voucher> findByVendorIsNull();
 
     List<Voucher> findByActiveTrue();
+
+    @Query("SELECT new com.dacsan.repository.TableStamp(COUNT(v), MAX(v.updatedAt)) FROM Voucher v")
+    TableStamp findStamp();
+
+    /**
+     * Vouchers past their start date; with {@link #countEndedBy} it grows whenever a voucher
+     * becomes or stops being currently valid, which changes the active list without any write
+     */
+    @Query("SELECT COUNT(v) FROM Voucher v WHERE v.startDate <= :now")
+    long countStartedBy(@Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(v) FROM Voucher v WHERE v.endDate <= :now")
+    long countEndedBy(@Param("now") LocalDateTime now);
 }
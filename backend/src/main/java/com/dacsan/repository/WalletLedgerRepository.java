@@ -0,0 +1,67 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.WalletLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WalletLedgerRepository extends JpaRepository<WalletLedgerEntry, Long> {
+
+    /**
+     * Trả về list [accountId (Number), balance (BigDecimal)]: snapshot + các bút toán chưa gộp.
+     * Tài khoản chưa có bút toán nào sẽ không có trong kết quả.
+     */
+    @Query(value = "SELECT x.account_id, SUM(x.amount) FROM (" +
+            "  SELECT s.account_id, s.balance AS amount FROM wallet_snapshots s " +
+            "  WHERE s.account_type = :accountType AND s.account_id IN (:accountIds) " +
+            "  UNION ALL " +
+            "  SELECT l.account_id, l.amount FROM wallet_ledger l " +
+            "  WHERE l.account_type = :accountType AND l.folded = FALSE AND l.account_id IN (:accountIds)" +
+            ") x GROUP BY x.account_id", nativeQuery = true)
+    List<Object[]> sumBalances(@Param("accountType") String accountType,
+            @Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Tổng số dư của mọi tài khoản cùng loại (dùng cho ví nền tảng chia nhiều stripe).
+     */
+    @Query(value = "SELECT COALESCE(SUM(x.amount), 0) FROM (" +
+            "  SELECT s.balance AS amount FROM wallet_snapshots s WHERE s.account_type = :accountType " +
+            "  UNION ALL " +
+            "  SELECT l.amount FROM wallet_ledger l WHERE l.account_type = :accountType AND l.folded = FALSE" +
+            ") x", nativeQuery = true)
+    BigDecimal sumBalanceByAccountType(@Param("accountType") String accountType);
+
+    /**
+     * Bút toán đã commit mà chưa gộp vào snapshot, cũ nhất trước (đọc không khóa: bút toán của
+     * transaction chưa commit không có ở đây, nó sẽ được gộp ở lần sau)
+     */
+    @Query("SELECT e.id FROM WalletLedgerEntry e WHERE e.folded = false ORDER BY e.id")
+    List<Long> findUnfoldedIds(Pageable pageable);
+
+    /**
+     * Đánh dấu đã gộp; trả về số dòng thực sự đổi (ít hơn số id nếu một lần gộp khác đã lấy trước)
+     */
+    @Modifying
+    @Query(value = "UPDATE wallet_ledger SET folded = TRUE WHERE id IN (:ids) AND folded = FALSE", nativeQuery = true)
+    int markFolded(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cộng các bút toán vào snapshot của từng tài khoản (một câu lệnh).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wallet_snapshots (account_type, account_id, balance, updated_at) " +
+            "SELECT l.account_type, l.account_id, SUM(l.amount), CURRENT_TIMESTAMP " +
+            "FROM wallet_ledger l WHERE l.id IN (:ids) " +
+            "GROUP BY l.account_type, l.account_id " +
+            "ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), " +
+            "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int addToSnapshots(@Param("ids") Collection<Long> ids);
+}
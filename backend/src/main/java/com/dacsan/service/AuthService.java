@@ -33,6 +33,7 @@ public class AuthService {
         private final AuthenticationManager authenticationManager;
         private final com.dacsan.repository.PasswordResetTokenRepository tokenRepository;
         private final EmailService emailService;
+        private final WalletService walletService;
 
         @Transactional
         public AuthResponse register(RegisterRequest request) {
@@ -168,7 +169,9 @@ public class AuthService {
                                 .active(user.getActive())
                                 .createdAt(user.getCreatedAt())
                                 .vendorId(vendorId)
-                                .balance(user.getBalance())
+                                .balance(user.getRole() == UserRole.ADMIN
+                                                ? walletService.getPlatformBalance()
+                                                : user.getBalance())
                                 .build();
         }
 
@@ -32,6 +32,7 @@ public class CartService {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final ProductService productService;
+    private final PriceCatalogService priceCatalogService;
 
     @Transactional(readOnly = true)
     public CartResponse getCart() {
@@ -52,19 +53,20 @@ public class CartService {
             throw new IllegalArgumentException("Product is not available");
         }
 
-        // Calculate item price (base + variant adjustments)
-        BigDecimal basePrice = product.getBasePrice();
-        BigDecimal variantAdjustment = request.getSelectedVariants().stream()
-                .map(CartItem.SelectedVariant::getPriceAdjustment)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal itemPrice = basePrice.add(variantAdjustment);
+        // Calculate item price (base + variant adjustments) from the price catalog;
+        // rejects variant ids that don't belong to this product
+        PriceCatalogService.PricedLine line = priceCatalogService.priceLine(product.getId(), request.getSelectedVariants());
+        BigDecimal itemPrice = line.unitPrice();
 
-        // Create cart item
+        // Create cart item, storing the server-side variant names and prices
         CartItem cartItem = CartItem.builder()
                 .cart(cart)
                 .product(product)
                 .quantity(request.getQuantity())
-                .selectedVariants(request.getSelectedVariants())
+                .selectedVariants(line.variants().stream()
+                        .map(variant -> new CartItem.SelectedVariant(variant.variantId(), variant.groupName(),
+                                variant.variantName(), variant.priceAdjustment()))
+                        .collect(Collectors.toList()))
                 .build();
 
         cartItem = cartItemRepository.save(cartItem);
@@ -112,7 +114,7 @@ public class CartService {
     @Transactional
     public void clearCart() {
         Cart cart = getOrCreateCart();
-        cartItemRepository.deleteByCartId(cart.getId());
+        cartItemRepository.bulkDeleteByCartId(cart.getId());
         log.info("Cleared cart for user {}", SecurityUtils.getCurrentUser().getId());
     }
 
@@ -159,12 +161,16 @@ public class CartService {
         Product product = cartItem.getProduct();
         ProductResponse productResponse = productService.buildProductResponse(product);
 
-        // Calculate item price
-        BigDecimal basePrice = product.getBasePrice();
-        BigDecimal variantAdjustment = cartItem.getSelectedVariants().stream()
-                .map(CartItem.SelectedVariant::getPriceAdjustment)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal itemPrice = basePrice.add(variantAdjustment);
+        // Calculate item price from the price catalog, never from the stored adjustments
+        BigDecimal itemPrice;
+        try {
+            itemPrice = priceCatalogService.priceLine(product.getId(), cartItem.getSelectedVariants()).unitPrice();
+        } catch (IllegalArgumentException e) {
+            // A selected variant was removed after adding to cart; checkout will reject it,
+            // but the cart must still render so the item can be removed
+            log.warn("Cart item {}: {}", cartItem.getId(), e.getMessage());
+            itemPrice = priceCatalogService.getProductPrice(product.getId()).basePrice();
+        }
         BigDecimal subtotal = itemPrice.multiply(BigDecimal.valueOf(cartItem.getQuantity()));
 
         return CartItemResponse.builder()
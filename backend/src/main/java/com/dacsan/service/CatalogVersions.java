@@ -0,0 +1,166 @@
+package com.dacsan.service;
+
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.event.VendorChangedEvent;
+import com.dacsan.event.VoucherChangedEvent;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.TableStamp;
+import com.dacsan.repository.VendorRepository;
+import com.dacsan.repository.VoucherRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versions of the collections behind the public catalog GETs, from which their ETag and
+ * Last-Modified are derived (see {@code HttpCachingInterceptor}).
+ *
+ * A version is a stamp read from the database: row count (moves on deletes) and latest
+ * updated_at, plus whatever else the responses show (vouchers: how many start/end dates have
+ * passed, since the active list changes with the clock). The same database state gives the
+ * same ETag on every node. Stamps are re-read after a local change commits and polled for
+ * changes made on other nodes.
+ *
+ * The in-memory views the responses come from (catalog cache, search index) catch up with a
+ * change through their own event or poll, so for a settle window after a stamp moves its
+ * collection has no validators: a response built before a view caught up must not be confirmed
+ * by a later 304. Last-Modified is when this node saw the stamp move; ETag takes precedence for
+ * clients that send both.
+ */
+@Service
+@Slf4j
+public class CatalogVersions {
+
+    public enum Collection {
+        PRODUCTS,
+        VENDORS,
+        VOUCHERS
+    }
+
+    /**
+     * Response validators
+     *
+     * @param etag         quoted entity tag, W/ prefixed when weak
+     * @param lastModified null when unknown
+     */
+    public record Validators(String etag, Instant lastModified) {
+
+        public long lastModifiedMillis() {
+            return lastModified != null ? lastModified.toEpochMilli() : -1;
+        }
+    }
+
+    /**
+     * @param stamp     database state the collection's responses are built from
+     * @param changedAt when this node first saw the stamp
+     */
+    private record Version(String stamp, Instant changedAt) {
+    }
+
+    private final ProductRepository productRepository;
+    private final VendorRepository vendorRepository;
+    private final VoucherRepository voucherRepository;
+    private final Duration settle;
+    private final Map<Collection, Version> versions = new ConcurrentHashMap<>();
+
+    public CatalogVersions(ProductRepository productRepository,
+            VendorRepository vendorRepository,
+            VoucherRepository voucherRepository,
+            @Value("${app.http-cache.settle-ms:10000}") long settleMillis) {
+        this.productRepository = productRepository;
+        this.vendorRepository = vendorRepository;
+        this.voucherRepository = voucherRepository;
+        this.settle = Duration.ofMillis(settleMillis);
+    }
+
+    /**
+     * Weak validators of a response built from the given collections, or null while any of them
+     * is not loaded yet or still settling
+     */
+    public Validators validators(Collection... collections) {
+        Instant now = Instant.now();
+        StringBuilder etag = new StringBuilder("W/\"");
+        Instant lastModified = Instant.EPOCH;
+        for (Collection collection : collections) {
+            Version version = versions.get(collection);
+            if (version == null || version.changedAt().plus(settle).isAfter(now)) {
+                return null;
+            }
+            etag.append(Character.toLowerCase(collection.name().charAt(0))).append(version.stamp()).append('.');
+            if (version.changedAt().isAfter(lastModified)) {
+                lastModified = version.changedAt();
+            }
+        }
+        etag.setCharAt(etag.length() - 1, '"');
+        return new Validators(etag.toString(), lastModified);
+    }
+
+    /**
+     * When this node last saw the collection change, null before it is loaded
+     */
+    public Instant changedAt(Collection collection) {
+        Version version = versions.get(collection);
+        return version != null ? version.changedAt() : null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(Collection.PRODUCTS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVendorChanged(VendorChangedEvent event) {
+        refresh(Collection.VENDORS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVoucherChanged(VoucherChangedEvent event) {
+        refresh(Collection.VOUCHERS);
+    }
+
+    /**
+     * Load the stamps, then pick up changes made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.http-cache.poll-interval-ms:5000}")
+    public void pollChanges() {
+        for (Collection collection : Collection.values()) {
+            refresh(collection);
+        }
+    }
+
+    private void refresh(Collection collection) {
+        String stamp = switch (collection) {
+            case PRODUCTS -> stampOf(productRepository.findStamp());
+            case VENDORS -> stampOf(vendorRepository.findStamp());
+            case VOUCHERS -> {
+                LocalDateTime now = LocalDateTime.now();
+                yield stampOf(voucherRepository.findStamp()) + "-"
+                        + hex(voucherRepository.countStartedBy(now) + voucherRepository.countEndedBy(now));
+            }
+        };
+        // A concurrent refresh may store an older stamp last; it restarts the settle window and
+        // the next poll moves it forward again
+        Version updated = versions.compute(collection, (key, current) ->
+                current != null && current.stamp().equals(stamp) ? current : new Version(stamp, Instant.now()));
+        log.trace("Catalog version {} = {}", collection, updated.stamp());
+    }
+
+    private static String stampOf(TableStamp stamp) {
+        long lastUpdated = stamp.lastUpdatedAt() != null ? stamp.lastUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0;
+        return hex(stamp.rows()) + "-" + hex(lastUpdated);
+    }
+
+    private static String hex(Long value) {
+        return value != null ? Long.toHexString(value) : "0";
+    }
+}
@@ -0,0 +1,181 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.IdempotencyRecord;
+import com.dacsan.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Replay cache for requests sent with an Idempotency-Key header (per user).
+ *
+ * Lookup order: bounded in-memory cache, then the idempotency_keys table. A duplicate
+ * arriving while the first request is still running on this node waits for its result;
+ * on another node it blocks on the key's row, which the first request inserts inside
+ * its own transaction (see {@link #claim}).
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<String, String> responses;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${app.idempotency.retention-hours:24}") long retentionHours) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Run {@code action} once per (user, key). Replays return the stored response without
+     * running it again; the action must call {@link #claim} and {@link #complete} inside
+     * its transaction.
+     */
+    public <T> T execute(Long userId, String key, Class<T> type, Supplier<T> action) {
+        validateKey(key);
+        String cacheKey = userId + ":" + key;
+
+        T replay = findStoredResponse(userId, key, cacheKey, type);
+        if (replay != null) {
+            log.info("Idempotent replay for user {} key {}", userId, key);
+            return replay;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            log.info("Waiting for in-flight request for user {} key {}", userId, key);
+            return type.cast(await(running));
+        }
+
+        try {
+            T result;
+            try {
+                result = action.get();
+            } catch (DataIntegrityViolationException e) {
+                // Another node committed the same key first: serve its response
+                result = findStoredResponse(userId, key, cacheKey, type);
+                if (result == null) {
+                    throw e;
+                }
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    /**
+     * Insert the key's row in the caller's transaction
+     */
+    public void claim(Long userId, String key) {
+        recordRepository.claim(userId, key);
+    }
+
+    /**
+     * Store the response in the caller's transaction; it becomes visible on commit, and is
+     * cached only then so a rolled-back request is never replayed
+     */
+    public void complete(Long userId, String key, Object response) {
+        String json = serialize(response);
+        recordRepository.saveResponse(userId, key, json);
+
+        String cacheKey = userId + ":" + key;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responses.put(cacheKey, json);
+                }
+            });
+        } else {
+            responses.put(cacheKey, json);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = recordRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private <T> T findStoredResponse(Long userId, String key, String cacheKey, Class<T> type) {
+        String json = responses.getIfPresent(cacheKey);
+        if (json == null) {
+            json = recordRepository.findByUserIdAndIdempotencyKey(userId, key)
+                    .map(IdempotencyRecord::getResponseJson)
+                    .orElse(null);
+            if (json == null) {
+                return null;
+            }
+            responses.put(cacheKey, json);
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize idempotent response", e);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+    }
+}
@@ -2,8 +2,6 @@ package com.dacsan.service;
 
 import com.dacsan.dto.notification.NewOrderNotification;
 import com.dacsan.dto.notification.OrderStatusUpdateNotification;
-import com.dacsan.dto.response.OrderResponse;
-import com.dacsan.dto.response.SubOrderResponse;
 import com.dacsan.entity.SubOrder;
 import com.dacsan.entity.SubOrderStatus;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +10,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Service for sending real-time notifications via WebSocket
@@ -26,27 +26,15 @@ public class NotificationService {
     /**
      * Notify vendor when a new order is created
      * 
-     * @param vendorId The vendor to notify
-     * @param order    The complete order
-     * @param subOrder The sub-order for this specific vendor
+     * @param vendorId     The vendor to notify
+     * @param notification Payload for this vendor's sub-order, built at checkout
      */
-    public void notifyVendorNewOrder(Long vendorId, OrderResponse order, SubOrderResponse subOrder) {
+    public void notifyVendorNewOrder(Long vendorId, NewOrderNotification notification) {
         String destination = "/topic/vendor/" + vendorId + "/orders";
 
-        NewOrderNotification notification = NewOrderNotification.builder()
-                .orderNumber(order.getOrderNumber())
-                .subOrderNumber(subOrder.getSubOrderNumber())
-                .subtotal(subOrder.getSubtotal())
-                .itemCount(subOrder.getItems().size())
-                .customerName(order.getCustomerName())
-                .deliveryAddress(order.getDeliveryAddress())
-                .timestamp(LocalDateTime.now())
-                .message("Bạn có đơn hàng mới!")
-                .build();
-
         messagingTemplate.convertAndSend(destination, notification);
         log.info("🔔 Sent new order notification to vendor {}: {} ({})",
-                vendorId, subOrder.getSubOrderNumber(), destination);
+                vendorId, notification.getSubOrderNumber(), destination);
     }
 
     /**
@@ -80,6 +68,45 @@ public class NotificationService {
                 destination);
     }
 
+    /**
+     * Build one status update covering several sub-orders of the same customer, so a bulk
+     * update reaches the customer as a single push instead of one per sub-order
+     *
+     * @param subOrders The updated sub-orders, all with the same new status
+     * @param oldStatus The previous status, or null if they differed
+     */
+    public OrderStatusUpdateNotification buildCustomerOrderUpdate(List<SubOrder> subOrders,
+            SubOrderStatus oldStatus) {
+        SubOrderStatus newStatus = subOrders.get(0).getStatus();
+        return OrderStatusUpdateNotification.builder()
+                .orderNumber(subOrders.stream().map(sub -> sub.getOrder().getOrderNumber())
+                        .distinct().collect(Collectors.joining(", ")))
+                .subOrderNumber(subOrders.stream().map(SubOrder::getSubOrderNumber)
+                        .collect(Collectors.joining(", ")))
+                .vendorName(subOrders.stream().map(sub -> sub.getVendor().getStoreName())
+                        .distinct().collect(Collectors.joining(", ")))
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .message(getStatusMessage(newStatus))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Send a pre-built status update to a customer
+     */
+    public void sendCustomerOrderUpdate(Long customerId, OrderStatusUpdateNotification notification) {
+        String destination = "/topic/customer/" + customerId + "/order-updates";
+
+        messagingTemplate.convertAndSend(destination, notification);
+        log.info("🔔 Sent status update to customer {}: {} {} -> {} ({})",
+                customerId,
+                notification.getSubOrderNumber(),
+                notification.getOldStatus(),
+                notification.getNewStatus(),
+                destination);
+    }
+
     /**
      * Get user-friendly message for each status
      */
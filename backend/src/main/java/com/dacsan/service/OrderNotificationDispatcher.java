@@ -0,0 +1,103 @@
+package com.dacsan.service;
+
+import com.dacsan.event.OrderCreatedEvent;
+import com.dacsan.event.SubOrderStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends order notifications once the checkout (or bulk status) transaction has committed,
+ * so nobody hears about a change that rolled back and no DB connection is held while sending.
+ *
+ * Sends run on virtual threads, at most {@code concurrency} at a time, with a bounded
+ * queue in front. When the queue is full the notification is dropped and counted
+ * rather than blocking the request thread that committed the order. The pool is private
+ * to the dispatcher: published as an Executor bean it would replace Boot's
+ * applicationTaskExecutor, which also runs MVC async requests such as the product export.
+ */
+@Component
+@Slf4j
+public class OrderNotificationDispatcher {
+
+    private final NotificationService notificationService;
+    private final ThreadPoolExecutor notificationExecutor;
+    private final Timer dispatchLatency;
+
+    public OrderNotificationDispatcher(NotificationService notificationService,
+            @Value("${app.notifications.concurrency:8}") int concurrency,
+            @Value("${app.notifications.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+
+        Counter rejected = Counter.builder("notifications.dispatch.rejected")
+                .description("Notifications dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        this.notificationExecutor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("notify-", 0).factory(),
+                (task, pool) -> {
+                    rejected.increment();
+                    log.warn("Notification queue full ({} pending), dropping notification", pool.getQueue().size());
+                });
+        Gauge.builder("notifications.dispatch.queue.depth", notificationExecutor, pool -> pool.getQueue().size())
+                .description("Notifications waiting to be sent")
+                .register(meterRegistry);
+
+        this.dispatchLatency = Timer.builder("notifications.dispatch.latency")
+                .description("Time from commit to notification sent")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notificationExecutor.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        long committedAt = System.nanoTime();
+        log.info("Dispatching {} vendor notifications for order {}",
+                event.notificationsByVendor().size(), event.orderNumber());
+
+        event.notificationsByVendor().forEach((vendorId, notification) -> notificationExecutor.execute(() -> {
+            try {
+                notificationService.notifyVendorNewOrder(vendorId, notification);
+            } catch (Exception e) {
+                // One vendor notification failure shouldn't affect the others
+                log.error("Error notifying vendor {}: {}", vendorId, e.getMessage(), e);
+            } finally {
+                dispatchLatency.record(System.nanoTime() - committedAt, TimeUnit.NANOSECONDS);
+            }
+        }));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubOrderStatusChanged(SubOrderStatusChangedEvent event) {
+        long committedAt = System.nanoTime();
+
+        event.notificationsByCustomer().forEach((customerId, notification) -> notificationExecutor.execute(() -> {
+            try {
+                notificationService.sendCustomerOrderUpdate(customerId, notification);
+            } catch (Exception e) {
+                log.error("Error notifying customer {}: {}", customerId, e.getMessage(), e);
+            } finally {
+                dispatchLatency.record(System.nanoTime() - committedAt, TimeUnit.NANOSECONDS);
+            }
+        }));
+    }
+}
@@ -0,0 +1,181 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.OrderNumberSegment;
+import com.dacsan.repository.OrderNumberSegmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates order numbers (ORD{yyyyMMdd}{seq}) without scanning the orders table.
+ *
+ * Each node reserves a block of sequence values from the day's row in
+ * order_number_segments (row lock) and hands them out from memory with an atomic cursor.
+ * Blocks never overlap across nodes; numbers left unused when a node restarts or a
+ * checkout rolls back simply become gaps.
+ *
+ * Blocks are reserved ahead on a background thread, in a transaction of its own, once half
+ * of the current block is used, so a checkout normally never waits for order_number_segments
+ * nor needs a second connection while it holds its own. If the next block is still not there
+ * when the current one runs out, checkouts wait for it at most reserve-timeout-ms and then fail
+ * instead of queueing up on the connection pool.
+ */
+@Service
+@Slf4j
+public class OrderNumberService {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * A block being reserved (or reserved and not yet in use) for a day
+     */
+    private record Reservation(String day, CompletableFuture<Block> block) {
+    }
+
+    private final OrderNumberSegmentRepository segmentRepository;
+    private final TransactionTemplate reserveTransaction;
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("order-number-reserver").daemon().factory());
+
+    @Value("${app.order-number.block-size:20}")
+    private int blockSize;
+
+    @Value("${app.order-number.reserve-timeout-ms:2000}")
+    private long reserveTimeoutMs;
+
+    private volatile Block current;
+    private Reservation next; // Guarded by this; never held while reserving
+
+    public OrderNumberService(OrderNumberSegmentRepository segmentRepository,
+            PlatformTransactionManager transactionManager) {
+        this.segmentRepository = segmentRepository;
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reserveFirstBlock() {
+        reserveAhead(today());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reserver.shutdownNow();
+    }
+
+    public String nextOrderNumber() {
+        String day = today();
+        while (true) {
+            Block block = current;
+            if (block != null && block.day.equals(day)) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    if (value == block.reserveNextAt) {
+                        reserveAhead(day);
+                    }
+                    return String.format("ORD%s%05d", day, value);
+                }
+            }
+            advance(block, day);
+        }
+    }
+
+    /**
+     * Suffix for the n-th sub-order of an order: A..Z, then AA, AB, ... (no upper limit)
+     */
+    public static String subOrderSuffix(int index) {
+        StringBuilder suffix = new StringBuilder();
+        int n = index;
+        do {
+            suffix.insert(0, (char) ('A' + n % 26));
+            n = n / 26 - 1;
+        } while (n >= 0);
+        return suffix.toString();
+    }
+
+    /**
+     * Replace the exhausted (or yesterday's) block with the reserved one, waiting for it if needed
+     */
+    private void advance(Block exhausted, String day) {
+        if (current != exhausted) {
+            return; // Another thread already moved on
+        }
+        Reservation reservation = reserveAhead(day);
+        Block fresh;
+        try {
+            fresh = reservation.block().get(reserveTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Order numbers are temporarily unavailable, please try again");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not reserve order numbers for " + day, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reserving order numbers", e);
+        }
+
+        synchronized (this) {
+            if (current == exhausted) {
+                current = fresh;
+                if (next == reservation) {
+                    next = null; // Taken; the next one is reserved when half of this block is used
+                }
+            }
+        }
+    }
+
+    /**
+     * The day's pending reservation, starting one unless it is already under way
+     */
+    private synchronized Reservation reserveAhead(String day) {
+        if (next == null || !next.day().equals(day) || next.block().isCompletedExceptionally()) {
+            next = new Reservation(day, CompletableFuture.supplyAsync(
+                    () -> reserveTransaction.execute(status -> reserveBlock(day)), reserver));
+        }
+        return next;
+    }
+
+    private Block reserveBlock(String day) {
+        segmentRepository.createIfAbsent(day);
+        OrderNumberSegment segment = segmentRepository.findForUpdate(day)
+                .orElseThrow(() -> new IllegalStateException("Order number segment missing for " + day));
+
+        long start = segment.getNextValue();
+        segment.setNextValue(start + blockSize);
+        segmentRepository.save(segment);
+
+        log.info("Reserved order numbers {}..{} for {}", start, start + blockSize - 1, day);
+        return new Block(day, start, start + blockSize);
+    }
+
+    private static String today() {
+        return LocalDate.now().format(DAY_FORMAT);
+    }
+
+    private static final class Block {
+        private final String day;
+        private final AtomicLong cursor;
+        private final long end;
+        private final long reserveNextAt;
+
+        private Block(String day, long start, long end) {
+            this.day = day;
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.reserveNextAt = start + (end - start) / 2;
+        }
+    }
+}
@@ -1,25 +1,36 @@
 package com.dacsan.service;
 
+import com.dacsan.dto.notification.NewOrderNotification;
+import com.dacsan.dto.notification.OrderStatusUpdateNotification;
+import com.dacsan.dto.request.BulkUpdateSubOrderStatusRequest;
 import com.dacsan.dto.request.CreateOrderRequest;
 import com.dacsan.dto.request.UpdateSubOrderStatusRequest;
+import com.dacsan.dto.response.BulkUpdateSubOrderStatusResponse;
+import com.dacsan.dto.response.CursorPageResponse;
 import com.dacsan.dto.response.OrderItemResponse;
 import com.dacsan.dto.response.OrderResponse;
 import com.dacsan.dto.response.SubOrderResponse;
 import com.dacsan.entity.*;
+import com.dacsan.event.OrderCreatedEvent;
+import com.dacsan.event.SubOrderStatusChangedEvent;
 import com.dacsan.exception.NotFoundException;
 import com.dacsan.repository.*;
-import com.dacsan.repository.UserRepository;
 import com.dacsan.security.SecurityUtils;
+import com.dacsan.util.KeysetCursor;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,20 +42,34 @@ public class OrderService {
         private final OrderRepository orderRepository;
         private final SubOrderRepository subOrderRepository;
         private final OrderItemRepository orderItemRepository;
+        private final ProductRepository productRepository;
         private final AddressRepository addressRepository;
         private final CartRepository cartRepository;
         private final CartItemRepository cartItemRepository;
         private final VendorRepository vendorRepository;
-        private final UserRepository userRepository;
         private final ObjectMapper objectMapper;
         private final NotificationService notificationService; // WebSocket notifications
+        private final OrderNumberService orderNumberService;
+        private final ApplicationEventPublisher eventPublisher;
+        private final IdempotencyService idempotencyService;
+        private final WalletService walletService;
+        private final PriceCatalogService priceCatalogService;
+        private final ShippingService shippingService;
+        private final ProductSalesCounter productSalesCounter;
+
+        private static final int MAX_PAGE_SIZE = 100;
 
         @Transactional
-        public OrderResponse createOrder(CreateOrderRequest request) {
+        public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
                 User currentUser = SecurityUtils.getCurrentUser();
 
-                // 1. Get user's cart
-                Cart cart = cartRepository.findByUserId(currentUser.getId())
+                // Claim the Idempotency-Key first: a concurrent duplicate waits here until we commit
+                if (idempotencyKey != null) {
+                        idempotencyService.claim(currentUser.getId(), idempotencyKey);
+                }
+
+                // 1. Get user's cart (items + products in one query)
+                Cart cart = cartRepository.findByUserIdWithItems(currentUser.getId())
                                 .orElseThrow(() -> new IllegalArgumentException("Cart not found"));
 
                 if (cart.getItems().isEmpty()) {
@@ -60,23 +85,37 @@ public class OrderService {
                         throw new IllegalArgumentException("Address does not belong to current user");
                 }
 
-                // 3. Group cart items by vendor ⭐ KEY LOGIC
-                Map<Long, List<CartItem>> itemsByVendor = cart.getItems().stream()
-                                .collect(Collectors.groupingBy(item -> item.getProduct().getVendor().getId()));
+                // 3. Price every line from the price catalog (server-side variant prices) and
+                // group cart items by vendor ⭐ KEY LOGIC, in a single pass
+                Map<Long, List<CartItem>> itemsByVendor = new LinkedHashMap<>();
+                Map<Long, BigDecimal> subtotalsByVendor = new HashMap<>();
+                Map<CartItem, PriceCatalogService.PricedLine> pricedLines = new IdentityHashMap<>();
+                BigDecimal totalAmount = BigDecimal.ZERO;
+                for (CartItem item : cart.getItems()) {
+                        Long vendorId = item.getProduct().getVendor().getId();
+                        PriceCatalogService.PricedLine line = priceCatalogService.priceLine(
+                                        item.getProduct().getId(), item.getSelectedVariants());
+                        BigDecimal lineTotal = line.unitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+
+                        itemsByVendor.computeIfAbsent(vendorId, id -> new ArrayList<>()).add(item);
+                        subtotalsByVendor.merge(vendorId, lineTotal, BigDecimal::add);
+                        pricedLines.put(item, line);
+                        totalAmount = totalAmount.add(lineTotal);
+                }
 
-                log.info("Creating order for user {} with {} vendors",
-                                currentUser.getId(), itemsByVendor.size());
+                log.info("Creating order for user {} with {} vendors (price catalog version {})",
+                                currentUser.getId(), itemsByVendor.size(), priceCatalogService.getVersion());
 
-                // 4. Calculate total
-                BigDecimal totalAmount = calculateTotalAmount(cart.getItems());
+                // Load all vendors of the cart in one query instead of one findById per vendor
+                Map<Long, Vendor> vendorsById = vendorRepository.findAllById(itemsByVendor.keySet()).stream()
+                                .collect(Collectors.toMap(Vendor::getId, vendor -> vendor));
 
-                // 5. Create main order
-                String orderNumber = generateOrderNumber();
+                // 4. Create main order
+                String orderNumber = orderNumberService.nextOrderNumber();
                 Order order = Order.builder()
                                 .orderNumber(orderNumber)
                                 .customer(currentUser)
                                 .totalAmount(totalAmount)
-                                .shippingFee(calculateShippingFee(address, totalAmount))
                                 .status(OrderStatus.PENDING)
                                 .paymentMethod(request.getPaymentMethod())
                                 .deliveryName(address.getRecipientName())
@@ -87,26 +126,37 @@ public class OrderService {
                                                 address.getDistrict(),
                                                 address.getCity()))
                                 .notes(request.getNotes())
+                                .subOrders(new ArrayList<>())
                                 .build();
 
-                order = orderRepository.save(order);
-                log.info("Created order {} for customer {}", orderNumber, currentUser.getId());
-
-                // 6. Create sub-orders for each vendor ⭐ VENDOR SPLITTING LOGIC
-                List<SubOrder> subOrders = new ArrayList<>();
+                // 5. Create sub-orders for each vendor ⭐ VENDOR SPLITTING LOGIC
+                // Sub-orders and items are attached to the order graph and persisted by cascade,
+                // so their INSERTs go out as JDBC batches (pooled IDs, see V11) at flush time.
+                List<SubOrder> subOrders = order.getSubOrders();
                 int vendorIndex = 0;
 
+                // Shipping is quoted per vendor, from the vendor's region to the customer's zone
+                ShippingService.Zone deliveryZone = shippingService.resolveZone(address.getCity());
+                boolean freeShipping = shippingService.isFreeOrder(totalAmount);
+                BigDecimal totalShippingFee = BigDecimal.ZERO;
+
                 for (Map.Entry<Long, List<CartItem>> entry : itemsByVendor.entrySet()) {
                         Long vendorId = entry.getKey();
                         List<CartItem> vendorItems = entry.getValue();
 
-                        Vendor vendor = vendorRepository.findById(vendorId)
-                                        .orElseThrow(() -> new NotFoundException("Vendor not found: " + vendorId));
+                        Vendor vendor = vendorsById.get(vendorId);
+                        if (vendor == null) {
+                                throw new NotFoundException("Vendor not found: " + vendorId);
+                        }
 
-                        BigDecimal subtotal = calculateSubtotal(vendorItems);
+                        BigDecimal subtotal = subtotalsByVendor.get(vendorId);
+                        BigDecimal shippingFee = freeShipping
+                                        ? BigDecimal.ZERO
+                                        : shippingService.quoteSubOrder(vendor.getRegion(), deliveryZone, subtotal);
+                        totalShippingFee = totalShippingFee.add(shippingFee);
 
                         // Generate sub-order number with vendor suffix
-                        char vendorSuffix = (char) ('A' + vendorIndex);
+                        String vendorSuffix = OrderNumberService.subOrderSuffix(vendorIndex);
                         String subOrderNumber = orderNumber + "-" + vendorSuffix;
 
                         SubOrder subOrder = SubOrder.builder()
@@ -114,65 +164,70 @@ public class OrderService {
                                         .order(order)
                                         .vendor(vendor)
                                         .subtotal(subtotal)
+                                        .shippingFee(shippingFee)
                                         .status(SubOrderStatus.PENDING)
+                                        .items(new ArrayList<>())
                                         .build();
 
-                        subOrder = subOrderRepository.save(subOrder);
-
-                        log.info("Created sub-order {} for vendor {} ({})",
-                                        subOrderNumber, vendor.getId(), vendor.getStoreName());
-
                         // Create order items for this sub-order
                         for (CartItem cartItem : vendorItems) {
-                                BigDecimal itemPrice = calculateItemPrice(cartItem);
+                                PriceCatalogService.PricedLine line = pricedLines.get(cartItem);
 
-                                OrderItem orderItem = OrderItem.builder()
+                                subOrder.getItems().add(OrderItem.builder()
                                                 .subOrder(subOrder)
                                                 .product(cartItem.getProduct())
                                                 .quantity(cartItem.getQuantity())
-                                                .price(itemPrice)
-                                                .selectedVariantsJson(cartItem.getSelectedVariantsJson())
-                                                .build();
-
-                                orderItemRepository.save(orderItem);
+                                                .price(line.unitPrice())
+                                                .selectedVariants(line.variants().stream()
+                                                                .map(variant -> new OrderItem.SelectedVariant(
+                                                                                variant.groupName(),
+                                                                                variant.variantName(),
+                                                                                variant.priceAdjustment()))
+                                                                .collect(Collectors.toList()))
+                                                .build());
                         }
 
                         subOrders.add(subOrder);
                         vendorIndex++;
+
+                        log.info("Prepared sub-order {} for vendor {} ({})",
+                                        subOrderNumber, vendor.getId(), vendor.getStoreName());
                 }
 
-                log.info("Created {} sub-orders for order {}", subOrders.size(), orderNumber);
+                order.setShippingFee(totalShippingFee);
+                log.info("Shipping to {} ({}): {} for {} vendors",
+                                address.getCity(), deliveryZone.province(), totalShippingFee, subOrders.size());
+
+                order = orderRepository.save(order);
+                log.info("Created order {} with {} sub-orders for customer {}",
+                                orderNumber, subOrders.size(), currentUser.getId());
 
-                // 7. Clear cart - use orphanRemoval mechanism
-                cart.getItems().clear();
-                cartRepository.save(cart);
-                log.info("Cleared cart for user {}", currentUser.getId());
+                // 6. Clear cart with a single bulk DELETE (also flushes the batched inserts above)
+                int removedItems = cartItemRepository.bulkDeleteByCartId(cart.getId());
+                log.info("Cleared {} cart items for user {}", removedItems, currentUser.getId());
 
-                // 8. Send WebSocket notifications to vendors
-                log.info("Preparing vendor notifications for order {}", order.getOrderNumber());
+                // 7. Queue vendor notifications; they are sent only after the transaction commits
+                Map<Long, NewOrderNotification> notifications = new LinkedHashMap<>();
                 for (SubOrder subOrder : subOrders) {
-                        try {
-                                log.info("Notifying vendor {} for sub-order {}", subOrder.getVendor().getId(),
-                                                subOrder.getSubOrderNumber());
-                                SubOrderResponse subOrderResponse = buildSubOrderResponse(subOrder);
-                                // Filter OrderResponse to only show this vendor's sub-order in notification
-                                OrderResponse filteredResponse = buildOrderResponse(order, List.of(subOrder));
-
-                                notificationService.notifyVendorNewOrder(
-                                                subOrder.getVendor().getId(),
-                                                filteredResponse,
-                                                subOrderResponse);
-                                log.info("Successfully notified vendor {}", subOrder.getVendor().getId());
-                        } catch (Exception e) {
-                                log.error("Error notifying vendor {}: {}", subOrder.getVendor().getId(), e.getMessage(),
-                                                e);
-                                // Don't rethrow, one vendor notification failure shouldn't kill order creation
-                        }
+                        notifications.put(subOrder.getVendor().getId(), NewOrderNotification.builder()
+                                        .orderNumber(order.getOrderNumber())
+                                        .subOrderNumber(subOrder.getSubOrderNumber())
+                                        .subtotal(subOrder.getSubtotal())
+                                        .itemCount(subOrder.getItems().size())
+                                        .customerName(currentUser.getFullName())
+                                        .deliveryAddress(order.getDeliveryAddress())
+                                        .timestamp(LocalDateTime.now())
+                                        .build());
                 }
+                eventPublisher.publishEvent(new OrderCreatedEvent(order.getOrderNumber(), notifications));
 
-                // 9. Return response with sub-orders
+                // 8. Return response with sub-orders
                 log.info("Order {} creation complete, returning response", order.getOrderNumber());
-                return buildOrderResponse(order, subOrders);
+                OrderResponse response = buildOrderResponse(order, subOrders);
+                if (idempotencyKey != null) {
+                        idempotencyService.complete(currentUser.getId(), idempotencyKey, response);
+                }
+                return response;
         }
 
         @Transactional(readOnly = true)
@@ -180,30 +235,69 @@ public class OrderService {
                 User currentUser = SecurityUtils.getCurrentUser();
 
                 if (currentUser.getRole() == UserRole.VENDOR) {
-                        // Vendor: get their sub-orders only
-                        Long vendorId = vendorRepository.findByUserId(currentUser.getId())
-                                        .orElseThrow(() -> new NotFoundException("Vendor profile not found"))
-                                        .getId();
+                        // Vendor: get their sub-orders only (order, customer and vendor fetched in the same query)
+                        Long vendorId = getCurrentVendorId(currentUser);
+                        return buildVendorOrderResponses(subOrderRepository.findHistoryByVendorId(vendorId));
+                } else {
+                        // Customer: get their orders
+                        return buildCustomerOrderResponses(orderRepository.findHistoryByCustomerId(currentUser.getId()));
+                }
+        }
 
-                        List<SubOrder> subOrders = subOrderRepository.findByVendorIdOrderByCreatedAtDesc(vendorId);
+        /**
+         * Keyset-paginated order history on (createdAt, id), newest first. Vendors page over
+         * their sub-orders, customers over their orders. Fetches size + 1 rows to know whether
+         * another page exists, so no COUNT query is ever issued.
+         *
+         * @param status optional filter: SubOrderStatus for vendors, OrderStatus otherwise
+         * @param from   optional first day (inclusive)
+         * @param to     optional last day (inclusive)
+         */
+        @Transactional(readOnly = true)
+        public CursorPageResponse<OrderResponse> getOrdersPage(String cursor, int size, String status,
+                        LocalDate from, LocalDate to) {
+                if (size < 1 || size > MAX_PAGE_SIZE) {
+                        throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+                }
 
-                        // Group sub-orders by main order, preserving order of appearance
-                        Map<Long, List<SubOrder>> subOrdersByOrder = subOrders.stream()
-                                        .collect(Collectors.groupingBy(
-                                                        sub -> sub.getOrder().getId(),
-                                                        LinkedHashMap::new,
-                                                        Collectors.toList()));
+                User currentUser = SecurityUtils.getCurrentUser();
+                KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+                LocalDateTime cursorCreatedAt = after != null ? parseCursorTimestamp(after) : null;
+                Long cursorId = after != null ? after.id() : null;
+                LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+                LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+                Pageable limit = PageRequest.of(0, size + 1);
 
-                        return subOrdersByOrder.values().stream()
-                                        .map(list -> buildOrderResponse(list.get(0).getOrder(), list))
-                                        .collect(Collectors.toList());
-                } else {
-                        // Customer: get their orders
-                        List<Order> orders = orderRepository.findByCustomerIdOrderByCreatedAtDesc(currentUser.getId());
-                        return orders.stream()
-                                        .map(order -> buildOrderResponse(order, order.getSubOrders()))
-                                        .collect(Collectors.toList());
+                if (currentUser.getRole() == UserRole.VENDOR) {
+                        Long vendorId = getCurrentVendorId(currentUser);
+                        List<SubOrder> rows = subOrderRepository.findVendorPage(vendorId,
+                                        status != null ? SubOrderStatus.valueOf(status.toUpperCase()) : null,
+                                        fromTime, toTime, cursorCreatedAt, cursorId, limit);
+
+                        boolean hasMore = rows.size() > size;
+                        List<SubOrder> page = hasMore ? rows.subList(0, size) : rows;
+                        SubOrder last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+                        return CursorPageResponse.<OrderResponse>builder()
+                                        .items(buildVendorOrderResponses(page))
+                                        .nextCursor(hasMore ? encodeCursor(last.getCreatedAt(), last.getId()) : null)
+                                        .hasMore(hasMore)
+                                        .build();
                 }
+
+                List<Order> rows = orderRepository.findCustomerPage(currentUser.getId(),
+                                status != null ? OrderStatus.valueOf(status.toUpperCase()) : null,
+                                fromTime, toTime, cursorCreatedAt, cursorId, limit);
+
+                boolean hasMore = rows.size() > size;
+                List<Order> page = hasMore ? rows.subList(0, size) : rows;
+                Order last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+                return CursorPageResponse.<OrderResponse>builder()
+                                .items(buildCustomerOrderResponses(page))
+                                .nextCursor(hasMore ? encodeCursor(last.getCreatedAt(), last.getId()) : null)
+                                .hasMore(hasMore)
+                                .build();
         }
 
         @Transactional(readOnly = true)
@@ -215,6 +309,8 @@ public class OrderService {
                 User currentUser = SecurityUtils.getCurrentUser();
                 log.info("Current user: {}, role: {}", currentUser.getEmail(), currentUser.getRole());
 
+                List<SubOrder> orderSubOrders = subOrderRepository.findWithVendorByOrderIdIn(List.of(order.getId()));
+
                 if (currentUser.getRole() == UserRole.VENDOR) {
                         log.info("User is VENDOR, identifying vendor profile...");
                         // Vendor: can only see their own sub-order(s) within this order
@@ -224,7 +320,7 @@ public class OrderService {
 
                         log.info("Vendor ID: {}, filtering sub-orders for main order {}...", vendorId, order.getId());
 
-                        List<SubOrder> filteredSubOrders = order.getSubOrders().stream()
+                        List<SubOrder> filteredSubOrders = orderSubOrders.stream()
                                         .filter(sub -> {
                                                 boolean match = sub.getVendor().getId().equals(vendorId);
                                                 log.debug("SubOrder {} vendor check: result={}",
@@ -256,71 +352,56 @@ public class OrderService {
                 }
 
                 log.info("Returning full order response to Admin/Customer");
-                return buildOrderResponse(order, order.getSubOrders());
+                return buildOrderResponse(order, orderSubOrders);
         }
 
         @Transactional
         public SubOrderResponse updateSubOrderStatus(Long subOrderId, UpdateSubOrderStatusRequest request) {
-                SubOrder subOrder = subOrderRepository.findById(subOrderId)
+                SubOrderRepository.StatusView view = subOrderRepository.findStatusViewById(subOrderId)
                                 .orElseThrow(() -> new NotFoundException("Sub-order not found"));
 
                 // Verify vendor owns this sub-order
                 User currentUser = SecurityUtils.getCurrentUser();
-                Long vendorId = vendorRepository.findByUserId(currentUser.getId())
-                                .orElseThrow(() -> new NotFoundException("Vendor profile not found"))
-                                .getId();
+                Long vendorId = getCurrentVendorId(currentUser);
 
                 log.info("Update Status Attempt: subOrderId={}, userEmail={}, userVendorId={}, subOrderVendorId={}",
-                                subOrderId, currentUser.getEmail(), vendorId, subOrder.getVendor().getId());
+                                subOrderId, currentUser.getEmail(), vendorId, view.getVendorId());
 
-                if (!subOrder.getVendor().getId().equals(vendorId)) {
+                if (!view.getVendorId().equals(vendorId)) {
                         log.error("SECURITY ALERT: Vendor mismatch! User's VendorID: {}, SubOrder's VendorID: {}",
-                                        vendorId, subOrder.getVendor().getId());
+                                        vendorId, view.getVendorId());
                         throw new IllegalArgumentException("Sub-order does not belong to current vendor");
                 }
 
                 // Store old status for notification
-                SubOrderStatus oldStatus = subOrder.getStatus();
-
-                subOrder.setStatus(request.getStatus());
-                subOrder = subOrderRepository.save(subOrder);
-
-                log.info("Updated sub-order {} status to {}",
-                                subOrder.getSubOrderNumber(), request.getStatus());
-
-                // WALLET UPDATE: If status changed to DELIVERED, process earnings and commission
-                if (oldStatus != SubOrderStatus.DELIVERED && request.getStatus() == SubOrderStatus.DELIVERED) {
-                        Vendor vendor = subOrder.getVendor();
-                        BigDecimal subtotal = subOrder.getSubtotal() != null ? subOrder.getSubtotal() : BigDecimal.ZERO;
-                        
-                        BigDecimal adminCommission = new BigDecimal("500");
-                        BigDecimal vendorEarnings = subtotal.subtract(adminCommission);
-                        
-                        // Prevent negative earnings if order is somehow < 500
-                        if (vendorEarnings.compareTo(BigDecimal.ZERO) < 0) {
-                                vendorEarnings = BigDecimal.ZERO;
-                                adminCommission = subtotal;
-                        }
+                SubOrderStatus oldStatus = view.getStatus();
+                SubOrderStatus newStatus = request.getStatus();
+                if (!oldStatus.canTransitionTo(newStatus)) {
+                        throw new IllegalArgumentException(
+                                        "Cannot change sub-order status from " + oldStatus + " to " + newStatus);
+                }
 
-                        // Add to Vendor Wallet
-                        BigDecimal currentVendorBalance = vendor.getBalance() != null ? vendor.getBalance() : BigDecimal.ZERO;
-                        vendor.setBalance(currentVendorBalance.add(vendorEarnings));
-                        vendorRepository.save(vendor);
-                        log.info("Added {} to vendor {} wallet. New balance: {}", vendorEarnings, vendor.getId(), vendor.getBalance());
-
-                        // Add to Admin Wallet
-                        List<User> admins = userRepository.findByRole(UserRole.ADMIN);
-                        if (!admins.isEmpty()) {
-                                User admin = admins.get(0);
-                                BigDecimal currentAdminBalance = admin.getBalance() != null ? admin.getBalance() : BigDecimal.ZERO;
-                                admin.setBalance(currentAdminBalance.add(adminCommission));
-                                userRepository.save(admin);
-                                log.info("Added {} commission to admin wallet", adminCommission);
-                        }
+                orderRepository.lockByIdIn(List.of(view.getOrderId()));
+                if (subOrderRepository.compareAndSetStatus(subOrderId, oldStatus, newStatus) == 0) {
+                        throw new IllegalStateException("Sub-order status was changed by another request, please reload");
                 }
 
                 // Update main order status based on sub-order statuses
-                updateMainOrderStatus(subOrder.getOrder());
+                orderRepository.rollUpStatuses(List.of(view.getOrderId()));
+
+                SubOrder subOrder = subOrderRepository.findById(subOrderId)
+                                .orElseThrow(() -> new NotFoundException("Sub-order not found"));
+
+                log.info("Updated sub-order {} status {} -> {}, order {} is now {}",
+                                subOrder.getSubOrderNumber(), oldStatus, newStatus,
+                                subOrder.getOrder().getOrderNumber(), subOrder.getOrder().getStatus());
+
+                // WALLET UPDATE: If status changed to DELIVERED, process earnings and commission,
+                // and count the units sold. The compare-and-set above guarantees this runs once per sub-order
+                if (newStatus == SubOrderStatus.DELIVERED) {
+                        recordDeliveredEarnings(subOrder);
+                        productSalesCounter.recordDelivered(List.of(subOrderId));
+                }
 
                 // Send WebSocket notification to customer
                 notificationService.notifyCustomerOrderUpdate(
@@ -331,86 +412,190 @@ public class OrderService {
                 return buildSubOrderResponse(subOrder);
         }
 
-        // Helper methods
-
-        private BigDecimal calculateTotalAmount(List<CartItem> items) {
-                return items.stream()
-                                .map(item -> calculateItemPrice(item).multiply(BigDecimal.valueOf(item.getQuantity())))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
+        /**
+         * Move many sub-orders of the current vendor to one status (kitchen rush).
+         * Ownership is checked with one query, transitions are applied as one compare-and-set
+         * per source status, parent orders are rolled up in one statement and customers get
+         * one notification each after commit.
+         */
+        @Transactional
+        public BulkUpdateSubOrderStatusResponse bulkUpdateSubOrderStatus(BulkUpdateSubOrderStatusRequest request) {
+                Long vendorId = getCurrentVendorId(SecurityUtils.getCurrentUser());
+                SubOrderStatus newStatus = request.getStatus();
+                Set<Long> requestedIds = new LinkedHashSet<>(request.getSubOrderIds());
+
+                List<SubOrderRepository.StatusView> views = subOrderRepository.findStatusViewsByIdIn(requestedIds);
+                if (views.size() != requestedIds.size()) {
+                        throw new NotFoundException("Sub-order not found");
+                }
+                if (views.stream().anyMatch(view -> !view.getVendorId().equals(vendorId))) {
+                        log.error("SECURITY ALERT: Bulk update by vendor {} includes sub-orders of another vendor", vendorId);
+                        throw new IllegalArgumentException("Sub-order does not belong to current vendor");
+                }
 
-        private BigDecimal calculateSubtotal(List<CartItem> items) {
-                return items.stream()
-                                .map(item -> calculateItemPrice(item).multiply(BigDecimal.valueOf(item.getQuantity())))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
+                // Skip sub-orders that can't make this transition, group the rest by current status.
+                // Walks the ids in request order, which updatedIds and skippedIds keep
+                Map<SubOrderStatus, List<Long>> idsByOldStatus = new EnumMap<>(SubOrderStatus.class);
+                Map<Long, SubOrderRepository.StatusView> viewsById = views.stream()
+                                .collect(Collectors.toMap(SubOrderRepository.StatusView::getId, view -> view));
+                Map<Long, SubOrderStatus> oldStatuses = new LinkedHashMap<>();
+                Set<Long> orderIds = new TreeSet<>();
+                List<Long> skippedIds = new ArrayList<>();
+                for (Long id : requestedIds) {
+                        SubOrderRepository.StatusView view = viewsById.get(id);
+                        if (!view.getStatus().canTransitionTo(newStatus)) {
+                                skippedIds.add(view.getId());
+                                continue;
+                        }
+                        idsByOldStatus.computeIfAbsent(view.getStatus(), status -> new ArrayList<>()).add(view.getId());
+                        oldStatuses.put(view.getId(), view.getStatus());
+                        orderIds.add(view.getOrderId());
+                }
 
-        private BigDecimal calculateItemPrice(CartItem cartItem) {
-                BigDecimal basePrice = cartItem.getProduct().getBasePrice();
+                if (oldStatuses.isEmpty()) {
+                        return BulkUpdateSubOrderStatusResponse.builder()
+                                        .status(newStatus)
+                                        .updatedIds(List.of())
+                                        .skippedIds(skippedIds)
+                                        .build();
+                }
 
-                if (cartItem.getSelectedVariants() == null || cartItem.getSelectedVariants().isEmpty()) {
-                        return basePrice;
+                orderRepository.lockByIdIn(orderIds);
+                int updated = 0;
+                for (Map.Entry<SubOrderStatus, List<Long>> entry : idsByOldStatus.entrySet()) {
+                        updated += subOrderRepository.compareAndSetStatuses(entry.getValue(), entry.getKey(), newStatus);
+                }
+                if (updated != oldStatuses.size()) {
+                        // Rolls back the whole batch, the vendor retries with fresh statuses
+                        throw new IllegalStateException("Some sub-orders were changed by another request, please reload");
                 }
 
-                BigDecimal variantAdjustment = cartItem.getSelectedVariants().stream()
-                                .map(CartItem.SelectedVariant::getPriceAdjustment)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                orderRepository.rollUpStatuses(orderIds);
 
-                return basePrice.add(variantAdjustment);
-        }
+                List<SubOrder> subOrders = subOrderRepository.findWithOrderAndVendorByIdIn(oldStatuses.keySet());
+                if (newStatus == SubOrderStatus.DELIVERED) {
+                        subOrders.forEach(this::recordDeliveredEarnings);
+                        productSalesCounter.recordDelivered(oldStatuses.keySet());
+                }
 
-        private String generateOrderNumber() {
-                String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-                long count = orderRepository.count() + 1;
-                return String.format("ORD%s%05d", datePart, count);
+                Map<Long, OrderStatusUpdateNotification> notificationsByCustomer = subOrders.stream()
+                                .collect(Collectors.groupingBy(sub -> sub.getOrder().getCustomer().getId()))
+                                .entrySet().stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                                        Set<SubOrderStatus> previous = entry.getValue().stream()
+                                                        .map(sub -> oldStatuses.get(sub.getId()))
+                                                        .collect(Collectors.toSet());
+                                        return notificationService.buildCustomerOrderUpdate(entry.getValue(),
+                                                        previous.size() == 1 ? previous.iterator().next() : null);
+                                }));
+                eventPublisher.publishEvent(new SubOrderStatusChangedEvent(notificationsByCustomer));
+
+                log.info("Bulk updated {} sub-orders of vendor {} to {} ({} skipped, {} orders rolled up)",
+                                updated, vendorId, newStatus, skippedIds.size(), orderIds.size());
+
+                return BulkUpdateSubOrderStatusResponse.builder()
+                                .status(newStatus)
+                                .updatedIds(new ArrayList<>(oldStatuses.keySet()))
+                                .skippedIds(skippedIds)
+                                .build();
         }
 
-        private void updateMainOrderStatus(Order order) {
-                List<SubOrder> subOrders = order.getSubOrders();
+        // Helper methods
+
+        /**
+         * Credit the vendor and the platform for a delivered sub-order
+         */
+        private void recordDeliveredEarnings(SubOrder subOrder) {
+                BigDecimal subtotal = subOrder.getSubtotal() != null ? subOrder.getSubtotal() : BigDecimal.ZERO;
+
+                BigDecimal adminCommission = new BigDecimal("500");
+                BigDecimal vendorEarnings = subtotal.subtract(adminCommission);
 
-                boolean allDelivered = subOrders.stream()
-                                .allMatch(sub -> sub.getStatus() == SubOrderStatus.DELIVERED);
+                // Prevent negative earnings if order is somehow < 500
+                if (vendorEarnings.compareTo(BigDecimal.ZERO) < 0) {
+                        vendorEarnings = BigDecimal.ZERO;
+                        adminCommission = subtotal;
+                }
 
-                boolean anyPickedUp = subOrders.stream()
-                                .anyMatch(sub -> sub.getStatus() == SubOrderStatus.PICKED_UP);
+                // Append to the vendor and platform wallets (no shared row is updated)
+                walletService.recordVendorEntry(subOrder.getVendor().getId(), LedgerEntryType.ORDER_EARNING,
+                                vendorEarnings, subOrder.getSubOrderNumber());
+                walletService.recordPlatformCommission(adminCommission, subOrder.getSubOrderNumber());
+        }
 
-                boolean anyReady = subOrders.stream()
-                                .anyMatch(sub -> sub.getStatus() == SubOrderStatus.READY);
 
-                boolean anyCooking = subOrders.stream()
-                                .anyMatch(sub -> sub.getStatus() == SubOrderStatus.COOKING);
+        private Long getCurrentVendorId(User currentUser) {
+                return vendorRepository.findByUserId(currentUser.getId())
+                                .orElseThrow(() -> new NotFoundException("Vendor profile not found"))
+                                .getId();
+        }
 
-                boolean allCancelled = subOrders.stream()
-                                .allMatch(sub -> sub.getStatus() == SubOrderStatus.CANCELLED);
+        private String encodeCursor(LocalDateTime createdAt, Long id) {
+                return new KeysetCursor(createdAt.toString(), id).encode();
+        }
 
-                if (allDelivered) {
-                        order.setStatus(OrderStatus.COMPLETED);
-                } else if (allCancelled) {
-                        order.setStatus(OrderStatus.CANCELLED);
-                } else if (anyPickedUp) {
-                        order.setStatus(OrderStatus.DELIVERING);
-                } else if (anyReady) {
-                        order.setStatus(OrderStatus.READY);
-                } else if (anyCooking) {
-                        order.setStatus(OrderStatus.PREPARING);
-                } else {
-                        // If it's not any of the above, it's either PENDING or CONFIRMED
-                        // We'll use CONFIRMED as the default "in-progress" state allowed by DB
-                        order.setStatus(OrderStatus.CONFIRMED);
+        private LocalDateTime parseCursorTimestamp(KeysetCursor cursor) {
+                try {
+                        return LocalDateTime.parse(cursor.sortValue());
+                } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid cursor");
+                }
+        }
+
+        private List<OrderResponse> buildCustomerOrderResponses(List<Order> orders) {
+                if (orders.isEmpty()) {
+                        return new ArrayList<>();
                 }
 
-                log.info("Updating Order {} status to {} (Sub-orders: {})",
-                                order.getOrderNumber(), order.getStatus(),
-                                subOrders.stream().map(s -> s.getStatus().name()).collect(Collectors.joining(",")));
+                // All sub-orders of those orders (with vendor) in one query
+                List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+                Map<Long, List<SubOrder>> subOrdersByOrder = subOrderRepository.findWithVendorByOrderIdIn(orderIds)
+                                .stream()
+                                .collect(Collectors.groupingBy(sub -> sub.getOrder().getId()));
+
+                return buildOrderResponses(orders, subOrdersByOrder);
+        }
+
+        private List<OrderResponse> buildVendorOrderResponses(List<SubOrder> subOrders) {
+                // Group sub-orders by main order, preserving order of appearance
+                Map<Long, List<SubOrder>> subOrdersByOrder = subOrders.stream()
+                                .collect(Collectors.groupingBy(
+                                                sub -> sub.getOrder().getId(),
+                                                LinkedHashMap::new,
+                                                Collectors.toList()));
+
+                List<Order> orders = subOrdersByOrder.values().stream()
+                                .map(list -> list.get(0).getOrder())
+                                .collect(Collectors.toList());
 
-                orderRepository.save(order);
+                return buildOrderResponses(orders, subOrdersByOrder);
         }
 
         private OrderResponse buildOrderResponse(Order order, List<SubOrder> subOrders) {
-                List<SubOrderResponse> subOrderResponses = subOrders.stream()
-                                .map(this::buildSubOrderResponse)
+                return buildOrderResponses(List.of(order), Map.of(order.getId(), subOrders)).get(0);
+        }
+
+        /**
+         * Build responses for many orders with a fixed number of queries: one for all order
+         * items (with products) and one for the product images, regardless of how many
+         * orders or sub-orders are involved. Sub-orders must come with their vendor loaded.
+         */
+        private List<OrderResponse> buildOrderResponses(List<Order> orders, Map<Long, List<SubOrder>> subOrdersByOrder) {
+                List<SubOrder> allSubOrders = orders.stream()
+                                .flatMap(order -> subOrdersByOrder.getOrDefault(order.getId(), List.of()).stream())
+                                .collect(Collectors.toList());
+
+                Map<Long, SubOrderResponse> subOrderResponses = buildSubOrderResponses(allSubOrders);
+
+                return orders.stream()
+                                .map(order -> toOrderResponse(order,
+                                                subOrdersByOrder.getOrDefault(order.getId(), List.of()).stream()
+                                                                .map(sub -> subOrderResponses.get(sub.getId()))
+                                                                .collect(Collectors.toList())))
                                 .collect(Collectors.toList());
+        }
 
+        private OrderResponse toOrderResponse(Order order, List<SubOrderResponse> subOrderResponses) {
                 return OrderResponse.builder()
                                 .id(order.getId())
                                 .orderNumber(order.getOrderNumber())
@@ -431,26 +616,60 @@ public class OrderService {
         }
 
         private SubOrderResponse buildSubOrderResponse(SubOrder subOrder) {
-                List<OrderItem> items = orderItemRepository.findBySubOrderId(subOrder.getId());
+                return buildSubOrderResponses(List.of(subOrder)).get(subOrder.getId());
+        }
 
-                List<OrderItemResponse> itemResponses = items.stream()
-                                .map(this::buildOrderItemResponse)
-                                .collect(Collectors.toList());
+        private Map<Long, SubOrderResponse> buildSubOrderResponses(List<SubOrder> subOrders) {
+                if (subOrders.isEmpty()) {
+                        return Map.of();
+                }
 
-                return SubOrderResponse.builder()
-                                .id(subOrder.getId())
-                                .subOrderNumber(subOrder.getSubOrderNumber())
-                                .vendorId(subOrder.getVendor().getId())
-                                .vendorName(subOrder.getVendor().getStoreName())
-                                .subtotal(subOrder.getSubtotal())
-                                .status(subOrder.getStatus())
-                                .items(itemResponses)
-                                .createdAt(subOrder.getCreatedAt())
-                                .updatedAt(subOrder.getUpdatedAt())
-                                .build();
+                List<Long> subOrderIds = subOrders.stream().map(SubOrder::getId).collect(Collectors.toList());
+                List<OrderItem> items = orderItemRepository.findWithProductBySubOrderIdIn(subOrderIds);
+                Map<Long, String> firstImageByProduct = loadFirstImages(items);
+
+                Map<Long, List<OrderItemResponse>> itemsBySubOrder = items.stream()
+                                .collect(Collectors.groupingBy(
+                                                item -> item.getSubOrder().getId(),
+                                                Collectors.mapping(
+                                                                item -> buildOrderItemResponse(item,
+                                                                                firstImageByProduct.get(item.getProduct().getId())),
+                                                                Collectors.toList())));
+
+                Map<Long, SubOrderResponse> responses = new HashMap<>();
+                for (SubOrder subOrder : subOrders) {
+                        responses.put(subOrder.getId(), SubOrderResponse.builder()
+                                        .id(subOrder.getId())
+                                        .subOrderNumber(subOrder.getSubOrderNumber())
+                                        .vendorId(subOrder.getVendor().getId())
+                                        .vendorName(subOrder.getVendor().getStoreName())
+                                        .subtotal(subOrder.getSubtotal())
+                                        .shippingFee(subOrder.getShippingFee())
+                                        .status(subOrder.getStatus())
+                                        .items(itemsBySubOrder.getOrDefault(subOrder.getId(), new ArrayList<>()))
+                                        .createdAt(subOrder.getCreatedAt())
+                                        .updatedAt(subOrder.getUpdatedAt())
+                                        .build());
+                }
+                return responses;
         }
 
-        private OrderItemResponse buildOrderItemResponse(OrderItem orderItem) {
+        private Map<Long, String> loadFirstImages(List<OrderItem> items) {
+                Set<Long> productIds = items.stream()
+                                .map(item -> item.getProduct().getId())
+                                .collect(Collectors.toSet());
+                if (productIds.isEmpty()) {
+                        return Map.of();
+                }
+
+                Map<Long, String> firstImageByProduct = new HashMap<>();
+                for (Object[] row : productRepository.findImagesByProductIdIn(productIds)) {
+                        firstImageByProduct.putIfAbsent((Long) row[0], (String) row[1]);
+                }
+                return firstImageByProduct;
+        }
+
+        private OrderItemResponse buildOrderItemResponse(OrderItem orderItem, String productImage) {
                 List<CartItem.SelectedVariant> selectedVariants = new ArrayList<>();
 
                 if (orderItem.getSelectedVariantsJson() != null && !orderItem.getSelectedVariantsJson().isEmpty()) {
@@ -473,57 +692,7 @@ public class OrderService {
                                 .price(orderItem.getPrice())
                                 .subtotal(subtotal)
                                 .selectedVariants(selectedVariants)
-                                .productImage(
-                                                orderItem.getProduct().getImages() != null
-                                                                && !orderItem.getProduct().getImages().isEmpty()
-                                                                                ? orderItem.getProduct().getImages()
-                                                                                                .get(0)
-                                                                                : null)
+                                .productImage(productImage)
                                 .build();
         }
-
-        /**
-         * Calculate shipping fee based on delivery location and order amount
-         * 
-         * Shipping Rules:
-         * 1. FREE SHIPPING: Orders >= 100,000 VND
-         * 2. MAJOR CITIES (Hanoi, HCMC, Da Nang): 30,000 VND
-         * 3. REMOTE AREAS (mountainous provinces): 35,000 VND
-         * 4. OTHER CITIES: 20,000 VND
-         * 
-         * @param address     Delivery address containing city information
-         * @param totalAmount Total order amount before shipping
-         * @return Calculated shipping fee in VND
-         */
-        private BigDecimal calculateShippingFee(Address address, BigDecimal totalAmount) {
-                // Rule 1: Free shipping for orders >= 100,000 VND
-                if (totalAmount.compareTo(BigDecimal.valueOf(100000)) >= 0) {
-                        log.info("Free shipping applied for order total: {}", totalAmount);
-                        return BigDecimal.ZERO;
-                }
-
-                String city = address.getCity().toLowerCase().trim();
-
-                // Rule 2: Major cities - 30,000 VND
-                if (city.contains("hà nội") || city.contains("ha noi") ||
-                                city.contains("hồ chí minh") || city.contains("ho chi minh") ||
-                                city.contains("tp.hcm") || city.contains("sài gòn") || city.contains("saigon") ||
-                                city.contains("đà nẵng") || city.contains("da nang")) {
-                        log.info("Major city shipping fee (30k) for: {}", city);
-                        return BigDecimal.valueOf(30000);
-                }
-
-                // Rule 3: Remote/mountainous provinces - 35,000 VND
-                if (city.contains("lai châu") || city.contains("điện biên") ||
-                                city.contains("sơn la") || city.contains("hà giang") ||
-                                city.contains("cao bằng") || city.contains("bắc kạn") ||
-                                city.contains("lào cai")) {
-                        log.info("Remote area shipping fee (35k) for: {}", city);
-                        return BigDecimal.valueOf(35000);
-                }
-
-                // Rule 4: Other cities - 20,000 VND (standard)
-                log.info("Standard shipping fee (20k) for: {}", city);
-                return BigDecimal.valueOf(20000);
-        }
 }
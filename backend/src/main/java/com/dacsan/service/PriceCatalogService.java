@@ -0,0 +1,171 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.CartItem;
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.exception.NotFoundException;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.VariantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory prices of every product (base price) and its available variants (price adjustment).
+ *
+ * Cart and checkout totals are priced from here by variant id, so the price adjustment a
+ * client stored in {@link CartItem.SelectedVariant} is never trusted and pricing needs no
+ * product loads. Entries are replaced per product: right after a local change commits
+ * ({@link ProductChangedEvent}), by polling products.updated_at for changes made on other
+ * nodes, and on a cache miss. Every replacement bumps {@link #getVersion()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCatalogService {
+
+    // Overlap between polls so changes stamped with a slightly skewed clock aren't missed
+    private static final long POLL_OVERLAP_SECONDS = 5;
+
+    private final ProductRepository productRepository;
+    private final VariantRepository variantRepository;
+
+    private final Map<Long, ProductPrice> prices = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    /**
+     * Price of one product and the variants that can currently be selected for it
+     */
+    public record ProductPrice(Long productId, BigDecimal basePrice, Map<Long, VariantPrice> variants) {
+    }
+
+    public record VariantPrice(Long variantId, String groupName, String variantName, BigDecimal priceAdjustment) {
+    }
+
+    public record PricedLine(BigDecimal unitPrice, List<VariantPrice> variants) {
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Price a cart line: base price plus the server-side adjustment of each selected variant.
+     * The returned variants carry the catalog's names and adjustments, not the client's.
+     *
+     * @throws IllegalArgumentException if a variant doesn't exist, isn't available or belongs to another product
+     */
+    public PricedLine priceLine(Long productId, List<CartItem.SelectedVariant> selectedVariants) {
+        ProductPrice price = getProductPrice(productId);
+        if (selectedVariants == null || selectedVariants.isEmpty()) {
+            return new PricedLine(price.basePrice(), List.of());
+        }
+
+        BigDecimal unitPrice = price.basePrice();
+        List<VariantPrice> variants = new ArrayList<>(selectedVariants.size());
+        for (CartItem.SelectedVariant selected : selectedVariants) {
+            VariantPrice variant = selected.getVariantId() != null
+                    ? price.variants().get(selected.getVariantId())
+                    : null;
+            if (variant == null) {
+                throw new IllegalArgumentException("Invalid variant " + selected.getVariantId()
+                        + " for product " + productId);
+            }
+            unitPrice = unitPrice.add(variant.priceAdjustment());
+            variants.add(variant);
+        }
+        return new PricedLine(unitPrice, variants);
+    }
+
+    public ProductPrice getProductPrice(Long productId) {
+        ProductPrice price = prices.get(productId);
+        if (price == null) {
+            refresh(List.of(productId));
+            price = prices.get(productId);
+        }
+        if (price == null) {
+            throw new NotFoundException("Product not found: " + productId);
+        }
+        return price;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<Long, ProductPrice> loaded = build(productRepository.findAllPriceRows(), variantRepository.findAllPriceRows());
+        prices.putAll(loaded);
+        prices.keySet().retainAll(loaded.keySet());
+        lastPolledAt = startedAt;
+        log.info("Loaded price catalog with {} products (version {})", loaded.size(), version.incrementAndGet());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(List.of(event.productId()));
+    }
+
+    /**
+     * Pick up products changed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.price-catalog.poll-interval-ms:5000}")
+    public void pollChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> changedIds = productRepository.findIdsUpdatedSince(lastPolledAt.minusSeconds(POLL_OVERLAP_SECONDS));
+        if (!changedIds.isEmpty()) {
+            refresh(changedIds);
+        }
+        lastPolledAt = startedAt;
+    }
+
+    /**
+     * Reload the given products; ids that no longer exist are dropped
+     */
+    public void refresh(Collection<Long> productIds) {
+        Map<Long, ProductPrice> loaded = build(productRepository.findPriceRowsByIdIn(productIds),
+                variantRepository.findPriceRowsByProductIdIn(productIds));
+        for (Long productId : productIds) {
+            ProductPrice price = loaded.get(productId);
+            if (price == null) {
+                prices.remove(productId);
+            } else {
+                prices.put(productId, price);
+            }
+        }
+        long newVersion = version.incrementAndGet();
+        log.debug("Refreshed prices of {} products (version {})", productIds.size(), newVersion);
+    }
+
+    private Map<Long, ProductPrice> build(List<Object[]> productRows, List<Object[]> variantRows) {
+        Map<Long, Map<Long, VariantPrice>> variantsByProduct = new HashMap<>();
+        for (Object[] row : variantRows) {
+            Long productId = (Long) row[0];
+            Long variantId = (Long) row[1];
+            BigDecimal adjustment = row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO;
+            variantsByProduct.computeIfAbsent(productId, id -> new HashMap<>())
+                    .put(variantId, new VariantPrice(variantId, (String) row[2], (String) row[3], adjustment));
+        }
+
+        Map<Long, ProductPrice> result = new HashMap<>();
+        for (Object[] row : productRows) {
+            Long productId = (Long) row[0];
+            result.put(productId, new ProductPrice(productId, (BigDecimal) row[1],
+                    Map.copyOf(variantsByProduct.getOrDefault(productId, Map.of()))));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,732 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.request.ProductImportRow;
+import com.dacsan.dto.response.ProductImportResponse;
+import com.dacsan.entity.LedgerEntryType;
+import com.dacsan.entity.ListingFee;
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.entity.Variant;
+import com.dacsan.entity.VariantGroup;
+import com.dacsan.entity.Vendor;
+import com.dacsan.repository.ListingFeeRepository;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.VariantGroupRepository;
+import com.dacsan.repository.VendorRepository;
+import com.dacsan.security.SecurityUtils;
+import com.dacsan.util.CsvReader;
+import com.dacsan.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import and export of a vendor's products as CSV or NDJSON.
+ *
+ * Import streams the request body: rows are parsed one at a time and created in chunks, each
+ * chunk in its own transaction with one vendor lock, one balance read and one wallet entry for
+ * the chunk's listing fees, products, images and variants inserted as JDBC batches (pooled ids,
+ * see V20). Listing fees are charged per product exactly like {@code POST /api/products}: the
+ * vendor's first product is free, and a row whose fee would take the balance below the minimum
+ * is rejected. A failed row (or chunk) is reported and the import goes on.
+ *
+ * Imports publish no {@code ProductChangedEvent} per product: the price catalog, search index,
+ * catalog cache and HTTP validators pick the new products up through their updated_at polls
+ * (the price catalog also loads a product on a miss).
+ *
+ * Export streams the vendor's products page by page (keyset on created_at, id) in the import
+ * format, so an exported file can be edited and imported again.
+ *
+ * CSV columns: name, description, basePrice, region, category, images, available, featured,
+ * variants. images are separated by {@code |}. variants lists the groups separated by
+ * {@code ;}, each {@code Group=option|option}, where an option is {@code name[:priceAdjustment[:off]]};
+ * a group name ending in {@code !} is required, in {@code +} multi-select. A backslash escapes
+ * any of {@code \ ; = | : ! +}.
+ */
+@Service
+@Slf4j
+public class ProductBulkService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Format of a Content-Type header (parameters ignored) or of a format name
+         */
+        public static Format of(String value) {
+            String type = value != null ? value.split(";", 2)[0].trim().toLowerCase(Locale.ROOT) : "";
+            for (Format format : values()) {
+                if (format.mediaType.equals(type) || format.extension.equals(type)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import/export format: " + value
+                    + " (use text/csv or application/x-ndjson)");
+        }
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "name", "description", "basePrice", "region", "category", "images", "available", "featured", "variants");
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "basePrice", "region", "category");
+    private static final String ESCAPED = "\\;=|:!+";
+    // Before any created_at: the first export page
+    private static final LocalDateTime EXPORT_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * A parsed row, or the reason it couldn't be parsed
+     */
+    private record ParsedRow(int line, ProductImportRow row, String error) {
+    }
+
+    private interface RowSource {
+        /**
+         * The next row, or null at the end of the input
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    private final ProductRepository productRepository;
+    private final VendorRepository vendorRepository;
+    private final VariantGroupRepository variantGroupRepository;
+    private final ListingFeeRepository listingFeeRepository;
+    private final WalletService walletService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int exportPageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductBulkService(ProductRepository productRepository,
+            VendorRepository vendorRepository,
+            VariantGroupRepository variantGroupRepository,
+            ListingFeeRepository listingFeeRepository,
+            WalletService walletService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.product-import.chunk-size:100}") int chunkSize,
+            @Value("${app.product-import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${app.product-import.export-page-size:500}") int exportPageSize) {
+        this.productRepository = productRepository;
+        this.vendorRepository = vendorRepository;
+        this.variantGroupRepository = variantGroupRepository;
+        this.listingFeeRepository = listingFeeRepository;
+        this.walletService = walletService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.exportPageSize = exportPageSize;
+    }
+
+    // ==================== Import ====================
+
+    public ProductImportResponse importProducts(InputStream body, Format format) throws IOException {
+        Long userId = SecurityUtils.getCurrentUserId();
+        Vendor vendor = vendorRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Vendor not found"));
+        if (!vendor.getVerified()) {
+            throw new RuntimeException("Vendor is not verified yet");
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+        ImportResult result = new ImportResult();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        ParsedRow parsed;
+        try {
+            while ((parsed = rows.next()) != null) {
+                String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+                if (error != null) {
+                    result.fail(parsed.line(), error);
+                    continue;
+                }
+                chunk.add(parsed);
+                if (chunk.size() == chunkSize) {
+                    importChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable from here on (e.g. an unclosed quote): keep what was imported so far
+            result.fail(0, e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(userId, chunk, result);
+        }
+
+        log.info("Vendor {} imported {} products ({} rows failed, listing fees {})",
+                vendor.getId(), result.created, result.failed, result.listingFeeTotal);
+        return ProductImportResponse.builder()
+                .created(result.created)
+                .failed(result.failed)
+                .listingFeeTotal(result.listingFeeTotal)
+                .errors(result.errors)
+                .errorsTruncated(result.truncated)
+                .build();
+    }
+
+    private void importChunk(Long userId, List<ParsedRow> chunk, ImportResult result) {
+        result.beginChunk();
+        try {
+            chunkTransaction.executeWithoutResult(status -> createChunk(userId, chunk, result));
+            result.commitChunk();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Product import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            result.rollBackChunk();
+            String cause = e instanceof DataAccessException dataAccess
+                    ? dataAccess.getMostSpecificCause().getMessage()
+                    : e.getMessage();
+            for (ParsedRow row : chunk) {
+                result.fail(row.line(), "Không thể lưu sản phẩm: " + cause);
+            }
+        } finally {
+            entityManager.clear(); // The chunk's entities are not needed any more
+        }
+    }
+
+    private void createChunk(Long userId, List<ParsedRow> chunk, ImportResult result) {
+        // Row lock serializes this vendor's wallet debits with POST /api/products and other imports
+        Vendor vendor = vendorRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new RuntimeException("Vendor not found"));
+        long productsListed = listingFeeRepository.countByVendorId(vendor.getId());
+        BigDecimal balance = walletService.getVendorBalance(vendor.getId());
+
+        List<Product> products = new ArrayList<>(chunk.size());
+        List<BigDecimal> fees = new ArrayList<>(chunk.size());
+        BigDecimal chunkFees = BigDecimal.ZERO;
+        for (ParsedRow parsed : chunk) {
+            BigDecimal fee = productsListed == 0 ? BigDecimal.ZERO : ProductService.PRODUCT_FEE;
+            if (balance.subtract(fee).compareTo(ProductService.MIN_MAINTENANCE_BALANCE) < 0) {
+                result.fail(parsed.line(), ProductService.INSUFFICIENT_BALANCE_MESSAGE);
+                continue;
+            }
+            balance = balance.subtract(fee);
+            productsListed++;
+            chunkFees = chunkFees.add(fee);
+            products.add(toProduct(parsed.row(), vendor));
+            fees.add(fee);
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        productRepository.saveAll(products);
+        entityManager.flush(); // One batch per table before the listing fees' IDENTITY inserts
+        LocalDateTime paidAt = LocalDateTime.now();
+        List<ListingFee> listingFees = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            listingFees.add(ListingFee.builder()
+                    .vendor(vendor)
+                    .product(products.get(i))
+                    .amount(fees.get(i))
+                    .paidAt(paidAt)
+                    .build());
+        }
+        listingFeeRepository.saveAll(listingFees);
+        if (chunkFees.signum() > 0) {
+            walletService.recordVendorEntry(vendor.getId(), LedgerEntryType.LISTING_FEE, chunkFees.negate(),
+                    "import:" + products.get(0).getId() + ".." + products.get(products.size() - 1).getId());
+        }
+        entityManager.flush();
+        result.created(products.size(), chunkFees);
+    }
+
+    private Product toProduct(ProductImportRow row, Vendor vendor) {
+        Product product = Product.builder()
+                .vendor(vendor)
+                .name(row.getName())
+                .description(row.getDescription())
+                .basePrice(row.getBasePrice())
+                .region(row.getRegion())
+                .category(row.getCategory())
+                .images(row.getImages() != null ? new ArrayList<>(row.getImages()) : new ArrayList<>())
+                .available(row.getAvailable() != null ? row.getAvailable() : true)
+                .featured(row.getFeatured() != null ? row.getFeatured() : false)
+                .variantGroups(new ArrayList<>())
+                .build();
+
+        List<ProductImportRow.VariantGroupRow> groupRows = row.getVariantGroups() != null ? row.getVariantGroups() : List.of();
+        for (int g = 0; g < groupRows.size(); g++) {
+            ProductImportRow.VariantGroupRow groupRow = groupRows.get(g);
+            VariantGroup group = VariantGroup.builder()
+                    .product(product)
+                    .name(groupRow.getName())
+                    .isMultiSelect(Boolean.TRUE.equals(groupRow.getMultiSelect()))
+                    .isRequired(Boolean.TRUE.equals(groupRow.getRequired()))
+                    .displayOrder(g)
+                    .variants(new ArrayList<>())
+                    .build();
+            for (int v = 0; v < groupRow.getVariants().size(); v++) {
+                ProductImportRow.VariantRow variantRow = groupRow.getVariants().get(v);
+                group.getVariants().add(Variant.builder()
+                        .variantGroup(group)
+                        .name(variantRow.getName())
+                        .priceAdjustment(variantRow.getPriceAdjustment() != null ? variantRow.getPriceAdjustment() : BigDecimal.ZERO)
+                        .available(variantRow.getAvailable() != null ? variantRow.getAvailable() : true)
+                        .displayOrder(v)
+                        .build());
+            }
+            product.getVariantGroups().add(group);
+        }
+        return product;
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        int[] line = {0};
+        return () -> {
+            String json;
+            do {
+                json = reader.readLine();
+                line[0]++;
+            } while (json != null && json.isBlank());
+            if (json == null) {
+                return null;
+            }
+            try {
+                ProductImportRow row = objectMapper.readValue(json, ProductImportRow.class);
+                return row != null
+                        ? new ParsedRow(line[0], row, null)
+                        : new ParsedRow(line[0], null, "Invalid JSON: expected an object, got null");
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column " + required);
+            }
+        }
+        return () -> {
+            List<String> fields;
+            do {
+                fields = csv.next();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            try {
+                return new ParsedRow(csv.recordLine(), fromCsv(fields, columns), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(csv.recordLine(), null, e.getMessage());
+            }
+        };
+    }
+
+    private static ProductImportRow fromCsv(List<String> fields, Map<String, Integer> columns) {
+        String basePrice = field(fields, columns, "basePrice");
+        String region = field(fields, columns, "region");
+        String category = field(fields, columns, "category");
+        String images = field(fields, columns, "images");
+        String available = field(fields, columns, "available");
+        String featured = field(fields, columns, "featured");
+        String variants = field(fields, columns, "variants");
+
+        return ProductImportRow.builder()
+                .name(field(fields, columns, "name"))
+                .description(field(fields, columns, "description"))
+                .basePrice(basePrice != null ? decimal(basePrice, "basePrice") : null)
+                .region(region != null ? enumValue(Region.class, region, "region") : null)
+                .category(category != null ? enumValue(ProductCategory.class, category, "category") : null)
+                .images(images != null ? split(images, '|').stream().map(ProductBulkService::unescape).toList() : List.of())
+                .available(available != null ? bool(available, "available") : true)
+                .featured(featured != null ? bool(featured, "featured") : false)
+                .variantGroups(variants != null ? variantGroups(variants) : List.of())
+                .build();
+    }
+
+    /**
+     * Trimmed field of a column, null when the column is missing or the field empty
+     */
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<ProductImportRow.VariantGroupRow> variantGroups(String value) {
+        List<ProductImportRow.VariantGroupRow> groups = new ArrayList<>();
+        for (String group : split(value, ';')) {
+            if (group.isBlank()) {
+                continue;
+            }
+            List<String> parts = split(group, '=');
+            if (parts.size() != 2) {
+                throw new IllegalArgumentException("Invalid variants: expected Group=option|option, got " + group);
+            }
+            String name = parts.get(0).trim();
+            boolean required = false;
+            boolean multiSelect = false;
+            while (endsWithUnescaped(name, '!') || endsWithUnescaped(name, '+')) {
+                required |= name.endsWith("!");
+                multiSelect |= name.endsWith("+");
+                name = name.substring(0, name.length() - 1).trim();
+            }
+
+            List<ProductImportRow.VariantRow> options = new ArrayList<>();
+            for (String option : split(parts.get(1), '|')) {
+                List<String> optionParts = split(option, ':');
+                if (optionParts.size() > 3) {
+                    throw new IllegalArgumentException("Invalid variant option: " + option);
+                }
+                String adjustment = optionParts.size() > 1 ? optionParts.get(1).trim() : "";
+                String state = optionParts.size() > 2 ? optionParts.get(2).trim() : "";
+                if (!state.isEmpty() && !state.equals("on") && !state.equals("off")) {
+                    throw new IllegalArgumentException("Invalid variant state (on/off): " + state);
+                }
+                options.add(ProductImportRow.VariantRow.builder()
+                        .name(unescape(optionParts.get(0).trim()))
+                        .priceAdjustment(adjustment.isEmpty() ? BigDecimal.ZERO : decimal(adjustment, "priceAdjustment"))
+                        .available(!state.equals("off"))
+                        .build());
+            }
+            groups.add(ProductImportRow.VariantGroupRow.builder()
+                    .name(unescape(name))
+                    .required(required)
+                    .multiSelect(multiSelect)
+                    .variants(options)
+                    .build());
+        }
+        return groups;
+    }
+
+    private static BigDecimal decimal(String value, String column) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static boolean bool(String value, String column) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid " + column + " (true/false): " + value);
+    }
+
+    /**
+     * Split on the separator where it isn't escaped; the parts keep their escapes
+     */
+    private static List<String> split(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                part.append(c).append(value.charAt(++i));
+            } else if (c == separator) {
+                parts.add(part.toString());
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        return parts;
+    }
+
+    private static boolean endsWithUnescaped(String value, char c) {
+        if (value.isEmpty() || value.charAt(value.length() - 1) != c) {
+            return false;
+        }
+        int backslashes = 0;
+        for (int i = value.length() - 2; i >= 0 && value.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 0;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                c = value.charAt(++i);
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (ESCAPED.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Counts and reported errors of an import. What happens in a chunk is kept apart until its
+     * transaction commits: if it rolls back, none of its rows were created.
+     */
+    private final class ImportResult {
+        private int created;
+        private int failed;
+        private BigDecimal listingFeeTotal = BigDecimal.ZERO;
+        private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+        private boolean truncated;
+
+        private boolean inChunk;
+        private int chunkCreated;
+        private BigDecimal chunkFees = BigDecimal.ZERO;
+        private final List<ProductImportResponse.RowError> chunkErrors = new ArrayList<>();
+
+        void fail(int line, String message) {
+            ProductImportResponse.RowError error = new ProductImportResponse.RowError(line, message);
+            if (inChunk) {
+                chunkErrors.add(error);
+            } else {
+                report(error);
+            }
+        }
+
+        void created(int products, BigDecimal fees) {
+            chunkCreated += products;
+            chunkFees = chunkFees.add(fees);
+        }
+
+        void beginChunk() {
+            inChunk = true;
+        }
+
+        void commitChunk() {
+            created += chunkCreated;
+            listingFeeTotal = listingFeeTotal.add(chunkFees);
+            chunkErrors.forEach(this::report);
+            rollBackChunk();
+        }
+
+        void rollBackChunk() {
+            inChunk = false;
+            chunkCreated = 0;
+            chunkFees = BigDecimal.ZERO;
+            chunkErrors.clear();
+        }
+
+        private void report(ProductImportResponse.RowError error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            } else {
+                truncated = true;
+            }
+        }
+    }
+
+    // ==================== Export ====================
+
+    /**
+     * The current vendor's catalog, written when the response body is streamed
+     */
+    public StreamingResponseBody exportProducts(Format format) {
+        Long vendorId = vendorRepository.findByUserId(SecurityUtils.getCurrentUserId())
+                .map(Vendor::getId)
+                .orElseThrow(() -> new RuntimeException("Vendor not found"));
+        return out -> writeExport(vendorId, format, out);
+    }
+
+    private void writeExport(Long vendorId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter csv = format == Format.CSV ? new CsvWriter(writer) : null;
+        if (csv != null) {
+            csv.writeRecord(CSV_COLUMNS);
+        }
+
+        LocalDateTime afterCreatedAt = EXPORT_START;
+        Long afterId = 0L;
+        int exported = 0;
+        List<Object[]> page;
+        do {
+            // Scalar rows, each page in its own short read: memory stays at one page
+            page = productRepository.findExportRows(vendorId, afterCreatedAt, afterId, PageRequest.of(0, exportPageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> productIds = page.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, List<String>> images = new HashMap<>();
+            for (Object[] row : productRepository.findImagesByProductIdIn(productIds)) {
+                images.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+            Map<Long, List<ProductImportRow.VariantGroupRow>> groups = exportGroups(productIds);
+
+            for (Object[] row : page) {
+                Long productId = (Long) row[0];
+                ProductImportRow product = ProductImportRow.builder()
+                        .name((String) row[1])
+                        .description((String) row[2])
+                        .basePrice((BigDecimal) row[3])
+                        .region((Region) row[4])
+                        .category((ProductCategory) row[5])
+                        .available((Boolean) row[6])
+                        .featured((Boolean) row[7])
+                        .images(images.getOrDefault(productId, List.of()))
+                        .variantGroups(groups.getOrDefault(productId, List.of()))
+                        .build();
+                if (csv != null) {
+                    csv.writeRecord(toCsv(product));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+            exported += page.size();
+            Object[] last = page.get(page.size() - 1);
+            afterCreatedAt = (LocalDateTime) last[8];
+            afterId = (Long) last[0];
+        } while (page.size() == exportPageSize);
+        writer.flush();
+        log.info("Exported {} products of vendor {} as {}", exported, vendorId, format);
+    }
+
+    private Map<Long, List<ProductImportRow.VariantGroupRow>> exportGroups(List<Long> productIds) {
+        Map<Long, List<ProductImportRow.VariantGroupRow>> groupsByProduct = new HashMap<>();
+        Map<Long, ProductImportRow.VariantGroupRow> groupsById = new HashMap<>();
+        for (Object[] row : variantGroupRepository.findExportRowsByProductIdIn(productIds)) {
+            ProductImportRow.VariantGroupRow group = groupsById.computeIfAbsent((Long) row[1], id -> {
+                ProductImportRow.VariantGroupRow created = ProductImportRow.VariantGroupRow.builder()
+                        .name((String) row[2])
+                        .multiSelect((Boolean) row[3])
+                        .required((Boolean) row[4])
+                        .variants(new ArrayList<>())
+                        .build();
+                groupsByProduct.computeIfAbsent((Long) row[0], productId -> new ArrayList<>()).add(created);
+                return created;
+            });
+            if (row[5] != null) {
+                group.getVariants().add(ProductImportRow.VariantRow.builder()
+                        .name((String) row[5])
+                        .priceAdjustment((BigDecimal) row[6])
+                        .available((Boolean) row[7])
+                        .build());
+            }
+        }
+        // A group whose variants were all deleted can't be imported again (it needs at least one variant)
+        groupsByProduct.values().forEach(groups -> groups.removeIf(group -> group.getVariants().isEmpty()));
+        return groupsByProduct;
+    }
+
+    private static List<String> toCsv(ProductImportRow product) {
+        String variants = product.getVariantGroups().stream()
+                .map(group -> escape(group.getName())
+                        + (Boolean.TRUE.equals(group.getRequired()) ? "!" : "")
+                        + (Boolean.TRUE.equals(group.getMultiSelect()) ? "+" : "")
+                        + "=" + group.getVariants().stream()
+                        .map(variant -> escape(variant.getName())
+                                + ":" + (variant.getPriceAdjustment() != null ? variant.getPriceAdjustment().toPlainString() : "0")
+                                + (Boolean.FALSE.equals(variant.getAvailable()) ? ":off" : ""))
+                        .collect(Collectors.joining("|")))
+                .collect(Collectors.joining(";"));
+        return List.of(
+                product.getName(),
+                product.getDescription() != null ? product.getDescription() : "",
+                product.getBasePrice().toPlainString(),
+                product.getRegion().name(),
+                product.getCategory().name(),
+                product.getImages().stream().map(ProductBulkService::escape).collect(Collectors.joining("|")),
+                String.valueOf(product.getAvailable()),
+                String.valueOf(product.getFeatured()),
+                variants);
+    }
+}
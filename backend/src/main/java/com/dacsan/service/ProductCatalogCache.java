@@ -0,0 +1,127 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.ProductResponse;
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.event.VendorChangedEvent;
+import com.dacsan.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the mapped catalog views read on every home and product page:
+ * product detail (with variants, as an immutable snapshot with its ETag), featured products
+ * and best sellers.
+ *
+ * Loads are single-flight: Caffeine runs one loader per key and concurrent misses for the
+ * same key wait for its result, so a cold key under load costs one database query. Entries
+ * are dropped after a product change commits (the product's detail; both lists, since any
+ * product's flags or soldCount can change their content), after a vendor change (its name is
+ * in every response), for changes on other nodes by polling products.updated_at, and at the
+ * latest after the TTL. An invalidation racing with a load of the same key waits for it and
+ * then drops its possibly stale result. Cached responses are shared: callers must not modify them.
+ */
+@Service
+@Slf4j
+public class ProductCatalogCache {
+
+    private static final long POLL_OVERLAP_SECONDS = 5;
+
+    private enum ListKey {
+        FEATURED,
+        BEST_SELLERS
+    }
+
+    /**
+     * Product detail as served; {@code etag} changes whenever the response content does
+     */
+    public record ProductDetail(ProductResponse product, String etag, LocalDateTime updatedAt) {
+    }
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductDetail> details;
+    private final Cache<ListKey, List<ProductResponse>> lists;
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    public ProductCatalogCache(ProductRepository productRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.catalog-cache.max-products:10000}") long maxProducts,
+            @Value("${app.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "catalog.product-details");
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "catalog.product-lists");
+    }
+
+    public ProductDetail getProduct(Long productId, Function<Long, ProductDetail> loader) {
+        return details.get(productId, loader);
+    }
+
+    /**
+     * The cached detail, without loading it on a miss
+     */
+    public ProductDetail peekProduct(Long productId) {
+        return details.getIfPresent(productId);
+    }
+
+    public List<ProductResponse> getFeatured(Supplier<List<ProductResponse>> loader) {
+        return lists.get(ListKey.FEATURED, key -> List.copyOf(loader.get()));
+    }
+
+    public List<ProductResponse> getBestSellers(Supplier<List<ProductResponse>> loader) {
+        return lists.get(ListKey.BEST_SELLERS, key -> List.copyOf(loader.get()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(List.of(event.productId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVendorChanged(VendorChangedEvent event) {
+        details.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    /**
+     * Drop entries of products changed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-cache.poll-interval-ms:5000}")
+    public void pollChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> changedIds = productRepository.findIdsUpdatedSince(lastPolledAt.minusSeconds(POLL_OVERLAP_SECONDS));
+        if (!changedIds.isEmpty()) {
+            invalidate(changedIds);
+        }
+        lastPolledAt = startedAt;
+    }
+
+    public void invalidate(Collection<Long> productIds) {
+        details.invalidateAll(productIds);
+        lists.invalidateAll();
+        log.debug("Invalidated catalog cache for products {}", productIds);
+    }
+}
@@ -0,0 +1,45 @@
+package com.dacsan.service;
+
+import com.dacsan.config.EntityValidators;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Product page validators: the detail's strong ETag, and Last-Modified from the product's
+ * updatedAt or the last vendor change (the store name is in the response), whichever is later.
+ * Known before the handler runs while the detail is in {@link ProductCatalogCache}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductDetailValidators implements EntityValidators {
+
+    private final ProductCatalogCache productCatalogCache;
+    private final CatalogVersions catalogVersions;
+
+    @Override
+    public CatalogVersions.Validators lookup(Map<String, String> uriVariables) {
+        Long productId;
+        try {
+            productId = Long.valueOf(uriVariables.get("id"));
+        } catch (NumberFormatException e) {
+            return null; // Handler answers the bad request
+        }
+        ProductCatalogCache.ProductDetail detail = productCatalogCache.peekProduct(productId);
+        return detail != null ? of(detail) : null;
+    }
+
+    public CatalogVersions.Validators of(ProductCatalogCache.ProductDetail detail) {
+        Instant updatedAt = detail.updatedAt() != null
+                ? detail.updatedAt().atZone(ZoneId.systemDefault()).toInstant() : null;
+        Instant vendorsChangedAt = catalogVersions.changedAt(CatalogVersions.Collection.VENDORS);
+        if (updatedAt == null || vendorsChangedAt == null) {
+            return new CatalogVersions.Validators(detail.etag(), null);
+        }
+        return new CatalogVersions.Validators(detail.etag(),
+                updatedAt.isAfter(vendorsChangedAt) ? updatedAt : vendorsChangedAt);
+    }
+}
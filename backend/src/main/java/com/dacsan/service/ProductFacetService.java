@@ -0,0 +1,261 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.FacetCountsResponse;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Product counts per region × category × available × vendor, so the facets beside the product
+ * list are summed from at most a few dozen in-memory cells instead of a GROUP BY over products
+ * per request.
+ *
+ * Every vendor has a dense row of cells (one per region, category, available), plus a row of
+ * totals over all vendors for the unfiltered browse. Each product's cell is remembered, so an
+ * update moves it from its old cell to its new one.
+ *
+ * Built at startup and kept up to date like {@link PriceCatalogService}: per product after a
+ * local change commits, and by polling products.updated_at for changes made on other nodes.
+ * Deletes on other nodes leave no updated_at to poll, so a reconciliation job periodically
+ * compares the matrix with a GROUP BY over products and rebuilds it when they differ
+ * (counted in the {@code product.facets.drift} metric).
+ */
+@Service
+@Slf4j
+public class ProductFacetService {
+
+    private static final long POLL_OVERLAP_SECONDS = 5;
+    private static final Region[] REGIONS = Region.values();
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+    private static final boolean[] AVAILABILITIES = {false, true};
+    private static final int CELLS = REGIONS.length * CATEGORIES.length * 2;
+
+    /**
+     * Where a product is counted
+     */
+    private record Placement(Long vendorId, int cell) {
+    }
+
+    /**
+     * The counts and the placements they were summed from; replaced as a whole on a rebuild
+     */
+    private static final class Matrix {
+        final Map<Long, Placement> products = new ConcurrentHashMap<>();
+        final Map<Long, AtomicIntegerArray> vendors = new ConcurrentHashMap<>();
+        final AtomicIntegerArray totals = new AtomicIntegerArray(CELLS);
+
+        void add(Placement placement, int delta) {
+            vendors.computeIfAbsent(placement.vendorId(), id -> new AtomicIntegerArray(CELLS))
+                    .addAndGet(placement.cell(), delta);
+            totals.addAndGet(placement.cell(), delta);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final Counter drift;
+
+    // Writers (change listener, poll, rebuild) take the lock; reads don't, a count being moved
+    // may briefly show in neither or both of its cells
+    private final Object writeLock = new Object();
+    private volatile Matrix matrix = new Matrix();
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    public ProductFacetService(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.drift = Counter.builder("product.facets.drift")
+                .description("Facet counts found different from the database by reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Facet counts of the products matching the filters (null = any)
+     */
+    public FacetCountsResponse getFacets(Region region, ProductCategory category, Boolean available, Long vendorId) {
+        Matrix current = matrix;
+        AtomicIntegerArray counts = vendorId == null ? current.totals : current.vendors.get(vendorId);
+
+        Map<Region, Long> regions = new EnumMap<>(Region.class);
+        Map<ProductCategory, Long> categories = new EnumMap<>(ProductCategory.class);
+        for (Region r : REGIONS) {
+            regions.put(r, 0L);
+        }
+        for (ProductCategory c : CATEGORIES) {
+            categories.put(c, 0L);
+        }
+        long total = 0;
+        if (counts != null) {
+            for (Region r : REGIONS) {
+                for (ProductCategory c : CATEGORIES) {
+                    for (boolean a : AVAILABILITIES) {
+                        if (available != null && available != a) {
+                            continue;
+                        }
+                        int count = counts.get(cell(r, c, a));
+                        if (category == null || category == c) {
+                            regions.merge(r, (long) count, Long::sum);
+                        }
+                        if (region == null || region == r) {
+                            categories.merge(c, (long) count, Long::sum);
+                            if (category == null || category == c) {
+                                total += count;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return FacetCountsResponse.builder()
+                .total(total)
+                .regions(regions)
+                .categories(categories)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        rebuild();
+        log.info("Loaded facet counts of {} products ({} vendors)", matrix.products.size(), matrix.vendors.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(List.of(event.productId()));
+    }
+
+    /**
+     * Pick up products changed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.facets.poll-interval-ms:5000}")
+    public void pollChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> changedIds = productRepository.findIdsUpdatedSince(lastPolledAt.minusSeconds(POLL_OVERLAP_SECONDS));
+        if (!changedIds.isEmpty()) {
+            refresh(changedIds);
+        }
+        lastPolledAt = startedAt;
+    }
+
+    /**
+     * Compare the matrix with the database and rebuild it if they differ
+     */
+    @Scheduled(initialDelayString = "${app.facets.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.facets.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        pollChanges(); // Changes from other nodes that are merely not polled yet are no drift
+        Map<Placement, Integer> expected = new HashMap<>();
+        for (Object[] row : productRepository.countByFacets()) {
+            expected.put(new Placement((Long) row[0], cell((Region) row[1], (ProductCategory) row[2], (Boolean) row[3])),
+                    ((Number) row[4]).intValue());
+        }
+
+        Matrix current = matrix;
+        long difference = 0;
+        for (Map.Entry<Long, AtomicIntegerArray> vendor : current.vendors.entrySet()) {
+            AtomicIntegerArray counts = vendor.getValue();
+            for (int cell = 0; cell < CELLS; cell++) {
+                Integer count = expected.remove(new Placement(vendor.getKey(), cell));
+                difference += Math.abs(counts.get(cell) - (count != null ? count : 0));
+            }
+        }
+        for (Integer count : expected.values()) {
+            difference += count; // Cells of vendors the matrix has no row for
+        }
+        if (difference == 0) {
+            log.debug("Facet counts match the database");
+            return;
+        }
+
+        // A change committed between the poll and the count shows up as a small difference
+        // too; rebuilding for it is harmless
+        drift.increment(difference);
+        log.warn("Facet counts differ from the database by {} products, rebuilding", difference);
+        rebuild();
+    }
+
+    /**
+     * Re-count the given products; ids that no longer exist are removed
+     */
+    public void refresh(Collection<Long> productIds) {
+        List<Object[]> rows = productRepository.findFacetRowsByIdIn(productIds);
+        synchronized (writeLock) {
+            Matrix current = matrix;
+            Set<Long> missing = new HashSet<>(productIds);
+            for (Object[] row : rows) {
+                Long productId = (Long) row[0];
+                place(current, productId, placement(row));
+                missing.remove(productId);
+            }
+            missing.forEach(productId -> place(current, productId, null));
+        }
+    }
+
+    /**
+     * Count every product again, then apply the changes committed while counting
+     */
+    private void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Matrix rebuilt = new Matrix();
+        for (Object[] row : productRepository.findAllFacetRows()) {
+            Placement placement = placement(row);
+            rebuilt.products.put((Long) row[0], placement);
+            rebuilt.add(placement, 1);
+        }
+        synchronized (writeLock) {
+            matrix = rebuilt;
+        }
+        List<Long> changedIds = productRepository.findIdsUpdatedSince(startedAt.minusSeconds(POLL_OVERLAP_SECONDS));
+        if (!changedIds.isEmpty()) {
+            refresh(changedIds);
+        }
+    }
+
+    /**
+     * Move a product to its new placement (null = deleted)
+     */
+    private static void place(Matrix matrix, Long productId, Placement placement) {
+        Placement previous = placement != null
+                ? matrix.products.put(productId, placement)
+                : matrix.products.remove(productId);
+        if (placement != null && placement.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            matrix.add(previous, -1);
+        }
+        if (placement != null) {
+            matrix.add(placement, 1);
+        }
+    }
+
+    /**
+     * Row: product id, vendor id, region, category, available
+     */
+    private static Placement placement(Object[] row) {
+        return new Placement((Long) row[1], cell((Region) row[2], (ProductCategory) row[3], (Boolean) row[4]));
+    }
+
+    private static int cell(Region region, ProductCategory category, boolean available) {
+        return (region.ordinal() * CATEGORIES.length + category.ordinal()) * 2 + (available ? 1 : 0);
+    }
+}
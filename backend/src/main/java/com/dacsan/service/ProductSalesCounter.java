@@ -0,0 +1,278 @@
+package com.dacsan.service;
+
+import com.dacsan.event.ProductsSoldEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps products.sold_count (best sellers, recommendations) up to date without an UPDATE of
+ * the product row per delivered order line, which would serialize deliveries of a popular dish
+ * on its row lock.
+ *
+ * The delivery transaction journals the sub-orders' units (product_sales_journal, plain INSERTs);
+ * after commit they are added to in-memory {@link LongAdder}s per product. Every flush interval
+ * the accumulated units become one JDBC batch of
+ * {@code UPDATE products SET sold_count = sold_count + ?}, in id order, in the transaction that
+ * deletes their journal rows. If a flush fails, its units go back into the accumulators for the
+ * next one.
+ *
+ * Journal rows older than replay-after were left by a node that stopped (or lost the database)
+ * before flushing; any node replays them, on startup and periodically. A node whose flush finds
+ * some of its rows already replayed rolls back and drops its batch (the remaining rows are
+ * replayed later), so each unit is counted exactly once.
+ *
+ * updated_at moves with sold_count, so the catalog cache, search index and HTTP validators pick
+ * the new counts up through their polls.
+ */
+@Service
+@Slf4j
+public class ProductSalesCounter {
+
+    private static final String ADD_SOLD_COUNT =
+            "UPDATE products SET sold_count = COALESCE(sold_count, 0) + ?, updated_at = ? WHERE id = ?";
+
+    /**
+     * Units recorded since the last flush
+     */
+    private static final class Batch {
+        final Map<Long, LongAdder> unitsByProduct = new ConcurrentHashMap<>();
+        final Set<Long> subOrderIds = ConcurrentHashMap.newKeySet();
+        final LongAdder journalRows = new LongAdder();
+        final AtomicLong oldestRecordedAt = new AtomicLong(Long.MAX_VALUE);
+
+        void add(Collection<Long> subOrderIds, Map<Long, Long> unitsByProduct, long journalRows, long recordedAt) {
+            unitsByProduct.forEach((productId, units) ->
+                    this.unitsByProduct.computeIfAbsent(productId, id -> new LongAdder()).add(units));
+            this.subOrderIds.addAll(subOrderIds);
+            this.journalRows.add(journalRows);
+            oldestRecordedAt.accumulateAndGet(recordedAt, Math::min);
+        }
+
+        Map<Long, Long> units() {
+            Map<Long, Long> units = new TreeMap<>(); // Rows locked in id order: concurrent flushes can't deadlock
+            unitsByProduct.forEach((productId, adder) -> units.put(productId, adder.sum()));
+            return units;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration replayAfter;
+    private final int replayBatchSize;
+    private final Timer flushLatency;
+    private final Counter droppedBatches;
+    private final Counter replayedRows;
+
+    // Recording holds the read lock, swapping in a fresh batch the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Batch current = new Batch();
+    private volatile Batch flushing;
+
+    public ProductSalesCounter(NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.sales-counter.replay-after-seconds:300}") long replayAfterSeconds,
+            @Value("${app.sales-counter.replay-batch-size:1000}") int replayBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.replayAfter = Duration.ofSeconds(replayAfterSeconds);
+        this.replayBatchSize = replayBatchSize;
+        this.flushLatency = Timer.builder("product.sales.flush")
+                .description("Time to write one batch of sold counts")
+                .register(meterRegistry);
+        this.droppedBatches = Counter.builder("product.sales.flush.dropped")
+                .description("Batches dropped because another node replayed their journal rows")
+                .register(meterRegistry);
+        this.replayedRows = Counter.builder("product.sales.replayed")
+                .description("Journal rows replayed from nodes that stopped before flushing")
+                .register(meterRegistry);
+        Gauge.builder("product.sales.flush.lag", this, ProductSalesCounter::flushLagSeconds)
+                .description("Age of the oldest delivered units not yet in sold_count on this node")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("product.sales.pending.products", this, counter -> counter.current.unitsByProduct.size())
+                .description("Products with units waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Journal the units of sub-orders that have just been delivered. Must run in the delivery
+     * transaction; the units are counted once it commits.
+     */
+    public void recordDelivered(Collection<Long> subOrderIds) {
+        if (subOrderIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> params = Map.of("subOrderIds", subOrderIds, "now", LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO product_sales_journal (sub_order_id, product_id, quantity, created_at) "
+                + "SELECT oi.sub_order_id, oi.product_id, SUM(oi.quantity), :now FROM order_items oi "
+                + "WHERE oi.sub_order_id IN (:subOrderIds) GROUP BY oi.sub_order_id, oi.product_id", params);
+
+        Map<Long, Long> unitsByProduct = new HashMap<>();
+        int[] journalRows = {0};
+        jdbcTemplate.query("SELECT j.product_id, j.quantity FROM product_sales_journal j "
+                + "WHERE j.sub_order_id IN (:subOrderIds)", params, row -> {
+                    unitsByProduct.merge(row.getLong(1), row.getLong(2), Long::sum);
+                    journalRows[0]++;
+                });
+        eventPublisher.publishEvent(new ProductsSoldEvent(List.copyOf(subOrderIds), unitsByProduct, journalRows[0]));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductsSold(ProductsSoldEvent event) {
+        addToCurrent(event.subOrderIds(), event.unitsByProduct(), event.journalRows(), System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.sales-counter.flush-interval-ms:2000}")
+    public void flush() {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        Batch batch;
+        try {
+            batch = current;
+            if (batch.subOrderIds.isEmpty()) {
+                return;
+            }
+            current = new Batch();
+            flushing = batch;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Boolean written = flushLatency.record(() -> flushTransaction.execute(status -> write(batch, status)));
+            if (Boolean.TRUE.equals(written)) {
+                log.debug("Flushed sold counts of {} products ({} sub-orders)",
+                        batch.unitsByProduct.size(), batch.subOrderIds.size());
+            } else {
+                droppedBatches.increment();
+                log.warn("Dropped sold-count batch of {} sub-orders: journal rows were replayed by another node",
+                        batch.subOrderIds.size());
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Sold-count flush failed, retrying with the next one: {}", e.getMessage());
+            addToCurrent(batch.subOrderIds, batch.units(), batch.journalRows.sum(), batch.oldestRecordedAt.get());
+        } finally {
+            flushing = null;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Add journal rows left by stopped nodes to sold_count, on startup and then periodically
+     */
+    @Scheduled(fixedDelayString = "${app.sales-counter.replay-interval-ms:60000}")
+    public void replayAbandoned() {
+        int replayed;
+        do {
+            Integer rows = flushTransaction.execute(status -> replayBatch());
+            replayed = rows != null ? rows : 0;
+            replayedRows.increment(replayed);
+        } while (replayed == replayBatchSize);
+    }
+
+    private boolean write(Batch batch, TransactionStatus status) {
+        int deleted = jdbcTemplate.update("DELETE FROM product_sales_journal WHERE sub_order_id IN (:subOrderIds)",
+                Map.of("subOrderIds", batch.subOrderIds));
+        if (deleted != batch.journalRows.sum()) {
+            status.setRollbackOnly();
+            return false;
+        }
+        addSoldCounts(batch.units());
+        return true;
+    }
+
+    private int replayBatch() {
+        // SKIP LOCKED: rows a live node is flushing right now are its own
+        List<long[]> rows = jdbcTemplate.query("SELECT j.sub_order_id, j.product_id, j.quantity "
+                        + "FROM product_sales_journal j WHERE j.created_at < :cutoff "
+                        + "ORDER BY j.created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+                Map.of("cutoff", LocalDateTime.now().minus(replayAfter), "limit", replayBatchSize),
+                (row, rowNum) -> new long[]{row.getLong(1), row.getLong(2), row.getLong(3)});
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> units = new TreeMap<>();
+        List<Object[]> keys = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            units.merge(row[1], row[2], Long::sum);
+            keys.add(new Object[]{row[0], row[1]});
+        }
+        addSoldCounts(units);
+        jdbcTemplate.getJdbcOperations().batchUpdate(
+                "DELETE FROM product_sales_journal WHERE sub_order_id = ? AND product_id = ?", keys);
+        log.info("Replayed {} sold-count journal rows older than {}s", rows.size(), replayAfter.toSeconds());
+        return rows.size();
+    }
+
+    private void addSoldCounts(Map<Long, Long> unitsByProduct) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> updates = new ArrayList<>(unitsByProduct.size());
+        unitsByProduct.forEach((productId, units) -> {
+            if (units != 0) {
+                updates.add(new Object[]{units, now, productId});
+            }
+        });
+        jdbcTemplate.getJdbcOperations().batchUpdate(ADD_SOLD_COUNT, updates);
+    }
+
+    private void addToCurrent(Collection<Long> subOrderIds, Map<Long, Long> unitsByProduct, long journalRows,
+            long recordedAt) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            current.add(subOrderIds, unitsByProduct, journalRows, recordedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double flushLagSeconds() {
+        long oldest = current.oldestRecordedAt.get();
+        Batch inFlight = flushing;
+        if (inFlight != null) {
+            oldest = Math.min(oldest, inFlight.oldestRecordedAt.get());
+        }
+        return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
@@ -0,0 +1,378 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.util.VietnameseText;
+import com.dacsan.util.BkTree;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index for product search.
+ *
+ * Name, description, vendor store name, region and category are diacritic-folded and split into
+ * terms ("Phở Bò Nam Định" -> "pho", "bo", "nam", "dinh"), so "pho" matches "Phở" and "bun bo"
+ * matches "Bún bò Huế". Terms are kept sorted, which makes every query word a prefix match
+ * ("ban" matches "banh") with a range scan instead of a table scan.
+ * A product matches when every query word matches one of its terms. Hits are ranked by
+ * relevance (which field matched, exact before prefix) and then soldCount.
+ *
+ * When that finds fewer than {@code app.search.fuzzy-min-hits} products, the search is rerun
+ * typo-tolerant: each query word also matches terms a few edits away ("bahn mi", "bun chaa"),
+ * found through a {@link BkTree} of all indexed terms. Fuzzy matches rank below exact and
+ * prefix ones.
+ *
+ * Kept up to date like {@link ProductFacetService}: per product after a local change commits,
+ * and by polling products.updated_at for changes made on other nodes. Deletes on other nodes
+ * leave no updated_at to poll, so a reconciliation job periodically compares the indexed ids
+ * with the products table and re-indexes the difference (counted in the
+ * {@code product.search.drift} metric).
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private static final long POLL_OVERLAP_SECONDS = 5;
+
+    // Điểm theo kiểu khớp của một từ: đúng hẳn > tiền tố > gần đúng (sai chính tả)
+    private static final int EXACT_FACTOR = 4;
+    private static final int PREFIX_FACTOR = 2;
+    private static final int FUZZY_FACTOR = 1;
+
+    // Trọng số theo trường: tên > cửa hàng/vùng/danh mục > mô tả
+    private static final int NAME_WEIGHT = 8;
+    private static final int VENDOR_WEIGHT = 4;
+    private static final int TAG_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Vietnamese names so "mien bac" or "do uong" find products by region/category
+    private static final Map<Region, String> REGION_NAMES = new EnumMap<>(Map.of(
+            Region.NORTH, "Miền Bắc",
+            Region.CENTRAL, "Miền Trung",
+            Region.SOUTH, "Miền Nam"));
+
+    private static final Map<ProductCategory, String> CATEGORY_NAMES = new EnumMap<>(Map.of(
+            ProductCategory.MAIN_DISH, "Món chính",
+            ProductCategory.SIDE_DISH, "Món phụ",
+            ProductCategory.DESSERT, "Tráng miệng",
+            ProductCategory.DRINK, "Đồ uống",
+            ProductCategory.SNACK, "Ăn vặt"));
+
+    private final ProductRepository productRepository;
+    private final int fuzzyMinHits;
+    private final Counter drift;
+
+    // term -> (productId -> field weights of the term in that product)
+    private final ConcurrentNavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    // Every term indexed; terms whose last product went away stay until they outnumber the
+    // live ones, then the tree is rebuilt from the postings
+    private volatile BkTree fuzzyTerms = new BkTree();
+    private int removedTerms;
+
+    public ProductSearchService(
+            ProductRepository productRepository,
+            @Value("${app.search.fuzzy-min-hits:5}") int fuzzyMinHits,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.fuzzyMinHits = fuzzyMinHits;
+        this.drift = Counter.builder("product.search.drift")
+                .description("Products indexed for search but deleted, or missing from the index, found by reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * What the index keeps per product: its filterable fields and the terms to unlink on removal
+     */
+    private record Document(Long productId, Long vendorId, Region region, ProductCategory category,
+                            boolean available, int soldCount, Set<String> terms) {
+    }
+
+    private record Hit(long productId, int score, int soldCount) {
+    }
+
+    // Relevance, then soldCount, newest product first on ties
+    private static final Comparator<Hit> RANKING = (a, b) -> {
+        int byScore = Integer.compare(b.score(), a.score());
+        if (byScore != 0) {
+            return byScore;
+        }
+        int bySoldCount = Integer.compare(b.soldCount(), a.soldCount());
+        return bySoldCount != 0 ? bySoldCount : Long.compare(b.productId(), a.productId());
+    };
+
+    /**
+     * One page of ranked product ids and the total number of matches
+     */
+    public record SearchResult(List<Long> productIds, long total) {
+    }
+
+    /**
+     * Search products matching every word of the query and the given filters (null = any).
+     * Results are ranked by relevance then soldCount; {@code offset}/{@code limit} select the page.
+     * Falls back to typo-tolerant matching when exact/prefix matching finds too few products.
+     */
+    public SearchResult search(String query, Region region, ProductCategory category, Long vendorId,
+                               Boolean available, long offset, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        List<Hit> hits = match(words, false, region, category, vendorId, available);
+        if (hits.size() < fuzzyMinHits) {
+            hits = match(words, true, region, category, vendorId, available);
+        }
+
+        hits.sort(RANKING);
+        List<Long> page = hits.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Hit::productId)
+                .toList();
+        return new SearchResult(page, hits.size());
+    }
+
+    /**
+     * Products matching every word and the filters, unranked
+     */
+    private List<Hit> match(List<String> words, boolean fuzzy, Region region, ProductCategory category,
+                                 Long vendorId, Boolean available) {
+        Map<Long, Integer> scores = null;
+        for (String word : words) {
+            Map<Long, Integer> wordScores = scoreWord(word, fuzzy);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Long, Integer> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : wordScores.entrySet()) {
+                    Integer score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Integer> score : scores.entrySet()) {
+            Document document = documents.get(score.getKey());
+            if (document != null && matches(document, region, category, vendorId, available)) {
+                hits.add(new Hit(document.productId(), score.getValue(), document.soldCount()));
+            }
+        }
+        return hits;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Object[]> rows = productRepository.findAllSearchRows();
+        for (Object[] row : rows) {
+            index(row);
+        }
+        lastPolledAt = startedAt;
+        log.info("Indexed {} products for search ({} terms)", documents.size(), postings.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(List.of(event.productId()));
+    }
+
+    /**
+     * Pick up products changed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.search.poll-interval-ms:5000}")
+    public void pollChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> changedIds = productRepository.findIdsUpdatedSince(lastPolledAt.minusSeconds(POLL_OVERLAP_SECONDS));
+        if (!changedIds.isEmpty()) {
+            refresh(changedIds);
+        }
+        lastPolledAt = startedAt;
+    }
+
+    /**
+     * Compare the indexed ids with the database and re-index the products that differ: a product
+     * deleted on another node would otherwise keep matching (and be counted in search totals)
+     */
+    @Scheduled(initialDelayString = "${app.search.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.search.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        pollChanges(); // Changes from other nodes that are merely not polled yet are no drift
+        Set<Long> existing = new HashSet<>(productRepository.findAllIds());
+        Set<Long> different = new HashSet<>();
+        for (Long productId : documents.keySet()) {
+            if (!existing.remove(productId)) {
+                different.add(productId);
+            }
+        }
+        different.addAll(existing); // In the database but not indexed
+        if (different.isEmpty()) {
+            log.debug("Search index matches the database");
+            return;
+        }
+
+        // refresh() reads the products again, so one created or deleted since the id list was
+        // read ends up right too (only counted as drift)
+        drift.increment(different.size());
+        log.warn("Search index differs from the database by {} products, re-indexing them", different.size());
+        refresh(different);
+    }
+
+    /**
+     * Re-index the given products; ids that no longer exist are removed
+     */
+    public void refresh(Collection<Long> productIds) {
+        Set<Long> missing = new HashSet<>(productIds);
+        for (Object[] row : productRepository.findSearchRowsByIdIn(productIds)) {
+            index(row);
+            missing.remove((Long) row[0]);
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Row: id, name, description, vendor id, vendor store name, region, category, available, soldCount
+     */
+    private synchronized void index(Object[] row) {
+        Long productId = (Long) row[0];
+        Region region = (Region) row[5];
+        ProductCategory category = (ProductCategory) row[6];
+
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, (String) row[1], NAME_WEIGHT);
+        addTerms(weights, (String) row[2], DESCRIPTION_WEIGHT);
+        addTerms(weights, (String) row[4], VENDOR_WEIGHT);
+        addTerms(weights, REGION_NAMES.get(region), TAG_WEIGHT);
+        addTerms(weights, CATEGORY_NAMES.get(category), TAG_WEIGHT);
+
+        remove(productId);
+        weights.forEach((term, weight) -> {
+            postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(productId, weight);
+            fuzzyTerms.add(term);
+        });
+        documents.put(productId, new Document(productId, (Long) row[3], region, category,
+                Boolean.TRUE.equals(row[7]), row[8] != null ? (Integer) row[8] : 0, Set.copyOf(weights.keySet())));
+    }
+
+    private synchronized void remove(Long productId) {
+        Document previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> remaining = postings.computeIfPresent(term, (t, products) -> {
+                products.remove(productId);
+                return products.isEmpty() ? null : products;
+            });
+            if (remaining == null) {
+                removedTerms++;
+            }
+        }
+        if (removedTerms > postings.size()) {
+            rebuildFuzzyTerms();
+        }
+    }
+
+    /**
+     * Drop terms no product uses any more (they'd only cost time during fuzzy lookups)
+     */
+    private synchronized void rebuildFuzzyTerms() {
+        BkTree tree = new BkTree();
+        postings.keySet().forEach(tree::add);
+        fuzzyTerms = tree;
+        removedTerms = 0;
+    }
+
+    /**
+     * Best score of each product for one query word over all terms it prefixes (and, when fuzzy,
+     * the terms within {@link #maxEdits} of it). An exact term match scores above a prefix match
+     * so "bo" ranks "Bò" above "Bột"; typo matches score lowest.
+     */
+    private Map<Long, Integer> scoreWord(String word, boolean fuzzy) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> term
+                : postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            int factor = term.getKey().length() == word.length() ? EXACT_FACTOR : PREFIX_FACTOR;
+            addScores(scores, term.getValue(), factor);
+        }
+        if (fuzzy && maxEdits(word) > 0) {
+            for (BkTree.Match match : fuzzyTerms.search(word, maxEdits(word))) {
+                Map<Long, Integer> products = postings.get(match.word());
+                if (products != null && !match.word().startsWith(word)) {
+                    addScores(scores, products, FUZZY_FACTOR);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Long, Integer> scores, Map<Long, Integer> products, int factor) {
+        for (Map.Entry<Long, Integer> posting : products.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+        }
+    }
+
+    /**
+     * Typos tolerated in a query word: none for 1-2 letters ("bo", "ca" have too many
+     * neighbours), one up to 5 letters ("banh", "cha"), two from 6 ("thitkho")
+     */
+    private static int maxEdits(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    private static boolean matches(Document document, Region region, ProductCategory category,
+                                   Long vendorId, Boolean available) {
+        return (region == null || document.region() == region)
+                && (category == null || document.category() == category)
+                && (vendorId == null || vendorId.equals(document.vendorId()))
+                && (available == null || available == document.available());
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        // A term found in several fields adds up their weights (each field once)
+        for (String term : new HashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        String folded = VietnameseText.fold(text);
+        return folded.isEmpty() ? List.of() : List.of(folded.split(" "));
+    }
+}
@@ -2,26 +2,42 @@ package com.dacsan.service;
 
 import com.dacsan.dto.request.CreateProductRequest;
 import com.dacsan.dto.request.UpdateProductRequest;
+import com.dacsan.dto.response.CursorPageResponse;
 import com.dacsan.dto.response.ProductResponse;
 import com.dacsan.dto.response.VariantGroupResponse;
 import com.dacsan.dto.response.VariantResponse;
 import com.dacsan.entity.*;
+import com.dacsan.event.ProductChangedEvent;
 import com.dacsan.repository.ListingFeeRepository;
 import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.ProductSortKey;
+import com.dacsan.repository.VariantGroupRepository;
 import com.dacsan.repository.VendorRepository;
+import com.dacsan.util.KeysetCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,10 +46,21 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final VendorRepository vendorRepository;
+    private final VariantGroupRepository variantGroupRepository;
     private final ListingFeeRepository listingFeeRepository;
-
-    private static final BigDecimal PRODUCT_FEE = new BigDecimal("200000");
-    private static final BigDecimal MIN_MAINTENANCE_BALANCE = new BigDecimal("500000");
+    private final WalletService walletService;
+    private final ProductSearchService productSearchService;
+    private final ProductCatalogCache productCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Shared with the bulk import (ProductBulkService)
+    static final BigDecimal PRODUCT_FEE = new BigDecimal("200000");
+    static final BigDecimal MIN_MAINTENANCE_BALANCE = new BigDecimal("500000");
+    static final String INSUFFICIENT_BALANCE_MESSAGE = "Số dư ví điện tử không đủ. Yêu cầu duy trì tối thiểu 500.000đ sau khi trừ phí đăng. Vui lòng nạp thêm tiền!";
+    private static final int MAX_PAGE_SIZE = 100;
+    // Search results are ranked in memory, so their cursor is the offset of the next hit
+    private static final String SEARCH_CURSOR = "search";
 
     public Page<ProductResponse> getAllProducts(
             Region region,
@@ -42,31 +69,152 @@ public class ProductService {
             Boolean available,
             String search,
             Pageable pageable) {
+        if (search != null && !search.isBlank()) {
+            return searchProducts(region, category, vendorId, available, search, pageable);
+        }
+
         Page<Product> products = productRepository.findByFilters(
-                region, category, vendorId, available, search, pageable);
+                region, category, vendorId, available, pageable);
+
+        Map<Long, List<String>> imagesByProduct = findImagesByProduct(products.getContent());
+        return products.map(product ->
+                buildProductResponse(product, imagesByProduct.getOrDefault(product.getId(), List.of())));
+    }
+
+    /**
+     * Cursor mode of the product listing: no COUNT, and each page continues from the last row
+     * of the previous one via the (sortBy, id) index instead of skipping an offset.
+     * Pass nextCursor back with the same filters and sort; an empty cursor starts from the top.
+     */
+    public CursorPageResponse<ProductResponse> getProductsPage(
+            Region region,
+            ProductCategory category,
+            Long vendorId,
+            Boolean available,
+            String search,
+            String cursor,
+            int size,
+            ProductSortKey sortKey,
+            Sort.Direction direction) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        if (search != null && !search.isBlank()) {
+            return searchProductsPage(region, category, vendorId, available, search, after, size);
+        }
+
+        String expectedPrefix = sortKey.getProperty() + ":";
+        if (after != null && !after.sortValue().startsWith(expectedPrefix)) {
+            throw new IllegalArgumentException("Cursor does not match sortBy " + sortKey.getProperty());
+        }
+        Comparable<?> afterValue = after != null
+                ? sortKey.parse(after.sortValue().substring(expectedPrefix.length()))
+                : null;
+
+        List<Product> rows = productRepository.findKeysetPage(region, category, vendorId, available,
+                sortKey, direction, afterValue, after != null ? after.id() : null, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<Product> page = hasMore ? rows.subList(0, size) : rows;
+        Product last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .items(buildProductResponses(page))
+                .nextCursor(hasMore ? new KeysetCursor(expectedPrefix + sortKey.format(last), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private CursorPageResponse<ProductResponse> searchProductsPage(
+            Region region,
+            ProductCategory category,
+            Long vendorId,
+            Boolean available,
+            String search,
+            KeysetCursor after,
+            int size) {
+        if (after != null && !SEARCH_CURSOR.equals(after.sortValue())) {
+            throw new IllegalArgumentException("Cursor does not match search");
+        }
+        long offset = after != null ? after.id() : 0;
+        ProductSearchService.SearchResult result = productSearchService.search(
+                search, region, category, vendorId, available, offset, size);
+
+        boolean hasMore = offset + size < result.total();
+        return CursorPageResponse.<ProductResponse>builder()
+                .items(loadSearchHits(result))
+                .nextCursor(hasMore ? new KeysetCursor(SEARCH_CURSOR, offset + size).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Search qua inverted index (không dấu, theo tiền tố). Kết quả xếp theo độ liên quan rồi soldCount,
+     * nên sort của pageable bị bỏ qua; chỉ trang hiện tại được load từ DB.
+     */
+    private Page<ProductResponse> searchProducts(
+            Region region,
+            ProductCategory category,
+            Long vendorId,
+            Boolean available,
+            String search,
+            Pageable pageable) {
+        ProductSearchService.SearchResult result = productSearchService.search(
+                search, region, category, vendorId, available, pageable.getOffset(), pageable.getPageSize());
 
-        return products.map(this::buildProductResponse);
+        return new PageImpl<>(loadSearchHits(result), pageable, result.total());
+    }
+
+    /**
+     * Responses of one page of search hits, in ranked order
+     */
+    private List<ProductResponse> loadSearchHits(ProductSearchService.SearchResult result) {
+        if (result.productIds().isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> productsById = productRepository.findWithVendorByIdIn(result.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        List<Product> products = result.productIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull) // bị xoá sau khi index trả về
+                .collect(Collectors.toList());
+
+        return buildProductResponses(products);
     }
 
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        return getProductDetail(id).product();
+    }
 
-        return mapToProductResponseWithVariants(product);
+    /**
+     * Product page: the cached snapshot, built on a miss with two queries (product with vendor
+     * and images, then variant groups with their variants)
+     */
+    public ProductCatalogCache.ProductDetail getProductDetail(Long id) {
+        return productCatalogCache.getProduct(id, productId -> {
+            Product product = productRepository.findDetailById(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            List<VariantGroup> groups = variantGroupRepository.findWithVariantsByProductId(productId);
+
+            ProductResponse response = buildProductResponse(product, List.copyOf(product.getImages()));
+            response.setVariantGroups(groups.stream()
+                    .map(this::mapToVariantGroupResponse)
+                    .toList());
+            return new ProductCatalogCache.ProductDetail(response, etagOf(product, response),
+                    product.getUpdatedAt());
+        });
     }
 
     public List<ProductResponse> getFeaturedProducts() {
-        List<Product> products = productRepository.findByFeaturedTrueAndAvailableTrue();
-        return products.stream()
-                .map(this::buildProductResponse)
-                .collect(Collectors.toList());
+        return productCatalogCache.getFeatured(() ->
+                buildProductResponses(productRepository.findByFeaturedTrueAndAvailableTrue()));
     }
 
     public List<ProductResponse> getBestSellers() {
-        List<Product> products = productRepository.findTop10ByAvailableTrueOrderBySoldCountDesc();
-        return products.stream()
-                .map(this::buildProductResponse)
-                .collect(Collectors.toList());
+        return productCatalogCache.getBestSellers(() ->
+                buildProductResponses(productRepository.findTop10ByAvailableTrueOrderBySoldCountDesc()));
     }
 
     @Transactional
@@ -75,8 +223,8 @@ public class ProductService {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
 
-        // Get vendor for this user
-        Vendor vendor = vendorRepository.findByUserId(getCurrentUserId())
+        // Get vendor for this user (row lock serializes this vendor's wallet debits)
+        Vendor vendor = vendorRepository.findByUserIdForUpdate(getCurrentUserId())
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
 
         if (!vendor.getVerified()) {
@@ -96,21 +244,22 @@ public class ProductService {
                 .build();
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
 
         // Calculate and save listing fee
         long totalProductsListed = listingFeeRepository.countByVendorId(vendor.getId());
         BigDecimal feeAmount = (totalProductsListed == 0) ? BigDecimal.ZERO : PRODUCT_FEE;
 
         // Check wallet balance
-        BigDecimal currentBalance = vendor.getBalance() != null ? vendor.getBalance() : BigDecimal.ZERO;
+        BigDecimal currentBalance = walletService.getVendorBalance(vendor.getId());
         BigDecimal remainingBalance = currentBalance.subtract(feeAmount);
         if (remainingBalance.compareTo(MIN_MAINTENANCE_BALANCE) < 0) {
-            throw new RuntimeException("Số dư ví điện tử không đủ. Yêu cầu duy trì tối thiểu 500.000đ sau khi trừ phí đăng. Vui lòng nạp thêm tiền!");
+            throw new RuntimeException(INSUFFICIENT_BALANCE_MESSAGE);
         }
 
         // Deduct balance
-        vendor.setBalance(remainingBalance);
-        vendorRepository.save(vendor);
+        walletService.recordVendorEntry(vendor.getId(), LedgerEntryType.LISTING_FEE, feeAmount.negate(),
+                "product:" + product.getId());
 
         ListingFee listingFee = ListingFee.builder()
                 .vendor(vendor)
@@ -158,6 +307,7 @@ public class ProductService {
             product.setFeatured(request.getFeatured());
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
 
         return buildProductResponse(product);
     }
@@ -177,6 +327,7 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     @Transactional
@@ -202,6 +353,7 @@ public class ProductService {
             product.setFeatured(request.getFeatured());
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
         return buildProductResponse(product);
     }
 
@@ -210,6 +362,7 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     public Map<String, Object> getListingFeeInfo() {
@@ -233,7 +386,34 @@ public class ProductService {
         throw new RuntimeException("User not authenticated");
     }
 
+    /**
+     * Map a list of products with their images loaded in one query. The vendors must already
+     * be fetched with the products (see the listing queries of ProductRepository).
+     */
+    public List<ProductResponse> buildProductResponses(List<Product> products) {
+        Map<Long, List<String>> imagesByProduct = findImagesByProduct(products);
+        return products.stream()
+                .map(product -> buildProductResponse(product, imagesByProduct.getOrDefault(product.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     public ProductResponse buildProductResponse(Product product) {
+        return buildProductResponse(product, product.getImages());
+    }
+
+    private Map<Long, List<String>> findImagesByProduct(List<Product> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> productIds = products.stream().map(Product::getId).collect(Collectors.toList());
+        Map<Long, List<String>> imagesByProduct = new HashMap<>();
+        for (Object[] row : productRepository.findImagesByProductIdIn(productIds)) {
+            imagesByProduct.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return imagesByProduct;
+    }
+
+    private ProductResponse buildProductResponse(Product product, List<String> images) {
         return ProductResponse.builder()
                 .id(product.getId())
                 .vendorId(product.getVendor().getId())
@@ -243,7 +423,7 @@ public class ProductService {
                 .basePrice(product.getBasePrice())
                 .region(product.getRegion())
                 .category(product.getCategory())
-                .images(product.getImages())
+                .images(images)
                 .available(product.getAvailable())
                 .featured(product.getFeatured())
                 .soldCount(product.getSoldCount())
@@ -252,16 +432,21 @@ public class ProductService {
                 .build();
     }
 
-    private ProductResponse mapToProductResponseWithVariants(Product product) {
-        ProductResponse response = buildProductResponse(product);
-
-        List<VariantGroupResponse> variantGroups = product.getVariantGroups().stream()
-                .map(this::mapToVariantGroupResponse)
-                .collect(Collectors.toList());
-
-        response.setVariantGroups(variantGroups);
-
-        return response;
+    /**
+     * Strong ETag of a detail response. updated_at only has second precision and a vendor
+     * rename doesn't touch the product, so a digest of the response JSON is part of it too.
+     * Unlike hashCode() (enums hash by identity), it is the same on every node and restart.
+     */
+    private String etagOf(Product product, ProductResponse response) {
+        long version = product.getUpdatedAt() != null ? product.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0;
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot compute the ETag of product " + product.getId(), e);
+        }
+        return "\"" + product.getId() + "-" + Long.toHexString(version) + "-"
+                + HexFormat.of().formatHex(digest, 0, 8) + "\"";
     }
 
     private VariantGroupResponse mapToVariantGroupResponse(VariantGroup group) {
@@ -273,7 +458,7 @@ public class ProductService {
                         .available(v.getAvailable())
                         .displayOrder(v.getDisplayOrder())
                         .build())
-                .collect(Collectors.toList());
+                .toList();
 
         return VariantGroupResponse.builder()
                 .id(group.getId())
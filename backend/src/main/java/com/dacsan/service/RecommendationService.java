@@ -26,6 +26,7 @@ public class RecommendationService {
     private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
 
     // Stop-words tiếng Việt không dùng làm keyword tìm kiếm
     private static final Set<String> STOP_WORDS = Set.of(
@@ -36,7 +37,8 @@ public class RecommendationService {
     /**
      * Gợi ý sản phẩm liên quan đến sản phẩm đang xem (tối đa 4 món).
      * Thuật toán:
-     *   1. Tìm theo TÊN tương tự (ví dụ: "Phở" → match "Phở Hà Nội", "Phở Nam Định")
+     *   1. Tìm theo TÊN tương tự qua search index (ví dụ: "Phở" → match "Phở Hà Nội", "Phở Nam Định";
+     *      chấp nhận khác dấu/sai chính tả như "Bún chả" ↔ "Bun cha", "Banh mi" ↔ "Bahn mi")
      *   2. Bổ sung theo category/region nếu chưa đủ 4
      */
     @Transactional(readOnly = true)
@@ -52,13 +54,25 @@ public class RecommendationService {
         List<String> keywords = extractKeywords(product.getName());
         log.info("[Related] Product='{}' -> keywords={}", product.getName(), keywords);
 
+        List<Long> nameMatchIds = new ArrayList<>();
         for (String keyword : keywords) {
-            if (results.size() >= limit) break;
-            List<Product> nameMatches = productRepository.findByNameContaining(
-                    productId, keyword, PageRequest.of(0, limit));
-            for (Product p : nameMatches) {
-                if (results.size() >= limit) break;
-                if (seenIds.add(p.getId())) {
+            if (nameMatchIds.size() >= limit) break;
+            // limit + 1: chính sản phẩm đang xem cũng khớp tên
+            List<Long> matchIds = productSearchService.search(
+                    keyword, null, null, null, true, 0, limit + 1).productIds();
+            for (Long id : matchIds) {
+                if (nameMatchIds.size() >= limit) break;
+                if (seenIds.add(id)) {
+                    nameMatchIds.add(id);
+                }
+            }
+        }
+        if (!nameMatchIds.isEmpty()) {
+            Map<Long, Product> nameMatches = productRepository.findWithVendorByIdIn(nameMatchIds).stream()
+                    .collect(Collectors.toMap(Product::getId, p -> p));
+            for (Long id : nameMatchIds) {
+                Product p = nameMatches.get(id);
+                if (p != null) {
                     results.add(p);
                 }
             }
@@ -84,9 +98,7 @@ public class RecommendationService {
         }
 
         log.info("[Related] Total result: {} products", results.size());
-        return results.stream()
-                .map(productService::buildProductResponse)
-                .collect(Collectors.toList());
+        return productService.buildProductResponses(results);
     }
 
     /**
@@ -186,9 +198,7 @@ public class RecommendationService {
         }
 
         log.info("[Personalized] Final result: {} products for user {}", results.size(), userId);
-        return results.stream()
-                .map(productService::buildProductResponse)
-                .collect(Collectors.toList());
+        return productService.buildProductResponses(results);
     }
 
     /**
@@ -232,10 +242,8 @@ public class RecommendationService {
     }
 
     private List<ProductResponse> getBestSellersFallback(int limit) {
-        List<Product> bestSellers = productRepository.findTop10ByAvailableTrueOrderBySoldCountDesc();
-        return bestSellers.stream()
+        return productService.getBestSellers().stream()
                 .limit(limit)
-                .map(productService::buildProductResponse)
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,245 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.SuggestionResponse;
+import com.dacsan.event.ProductChangedEvent;
+import com.dacsan.event.VendorChangedEvent;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.VendorRepository;
+import com.dacsan.util.TopKPrefixIndex;
+import com.dacsan.util.VietnameseText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead suggestions for the search box: available dishes and verified, active stores whose
+ * name has a word starting with what was typed ("pho", "Phở", "bo hue" and "Huế" all complete
+ * "Bún bò Huế"), most sold first.
+ *
+ * Names are diacritic-folded and every word suffix is stored in a {@link TopKPrefixIndex}, so a
+ * lookup is a walk down the typed prefix with no database access. Updated per product/vendor
+ * after local changes commit, and by polling updated_at for changes made on other nodes.
+ * Deletes on other nodes leave no updated_at to poll, so the whole index is periodically
+ * rebuilt from the database.
+ */
+@Service
+@Slf4j
+public class SearchSuggestService {
+
+    private static final long POLL_OVERLAP_SECONDS = 5;
+
+    private record Key(SuggestionResponse.Type type, Long id) {
+    }
+
+    private static final Comparator<SuggestionResponse> BY_POPULARITY =
+            Comparator.comparing(SuggestionResponse::getPopularity, Comparator.reverseOrder())
+                    .thenComparingInt(s -> s.getText().length())
+                    .thenComparing(SuggestionResponse::getText);
+
+    private final ProductRepository productRepository;
+    private final VendorRepository vendorRepository;
+    private final int maxSuggestions;
+    private final TopKPrefixIndex<Key, SuggestionResponse> index;
+
+    // A deleted product's vendor must still be re-ranked
+    private final Map<Long, Long> vendorIdsByProduct = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    public SearchSuggestService(
+            ProductRepository productRepository,
+            VendorRepository vendorRepository,
+            @Value("${app.search.max-suggestions:10}") int maxSuggestions) {
+        this.productRepository = productRepository;
+        this.vendorRepository = vendorRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.index = new TopKPrefixIndex<>(maxSuggestions, BY_POPULARITY);
+    }
+
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        String prefix = VietnameseText.fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return index.top(prefix, Math.min(limit, maxSuggestions));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        rebuild();
+        log.info("Loaded {} search suggestions", index.size());
+    }
+
+    /**
+     * Rebuild the index from the database, dropping products and stores deleted on other nodes
+     */
+    @Scheduled(initialDelayString = "${app.search.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.search.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        rebuild();
+        log.debug("Rebuilt {} search suggestions", index.size());
+    }
+
+    /**
+     * Load every suggestion again, then apply the changes committed while loading
+     */
+    private void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<Key, SuggestionResponse> values = new HashMap<>();
+        Map<Key, List<String>> keys = new HashMap<>();
+        Map<Long, Long> vendorIds = new HashMap<>();
+        for (Object[] row : productRepository.findAllSearchRows()) {
+            vendorIds.put((Long) row[0], (Long) row[3]);
+            SuggestionResponse suggestion = productSuggestion(row);
+            if (suggestion != null) {
+                Key key = new Key(SuggestionResponse.Type.PRODUCT, suggestion.getId());
+                values.put(key, suggestion);
+                keys.put(key, wordSuffixes(suggestion.getText()));
+            }
+        }
+        for (Object[] row : vendorRepository.findAllSuggestionRows()) {
+            SuggestionResponse suggestion = storeSuggestion(row);
+            if (suggestion != null) {
+                Key key = new Key(SuggestionResponse.Type.STORE, suggestion.getId());
+                values.put(key, suggestion);
+                keys.put(key, wordSuffixes(suggestion.getText()));
+            }
+        }
+        index.replaceAll(values, keys);
+        vendorIdsByProduct.putAll(vendorIds);
+        vendorIdsByProduct.keySet().retainAll(vendorIds.keySet());
+        lastPolledAt = startedAt;
+        pollChanges(); // What changed since startedAt may be missing from the rows just loaded
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        refreshProducts(List.of(event.productId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVendorChanged(VendorChangedEvent event) {
+        refreshVendors(List.of(event.vendorId()));
+    }
+
+    /**
+     * Pick up products and vendors changed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.search.poll-interval-ms:5000}")
+    public void pollChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastPolledAt.minusSeconds(POLL_OVERLAP_SECONDS);
+        List<Long> productIds = productRepository.findIdsUpdatedSince(since);
+        if (!productIds.isEmpty()) {
+            refreshProducts(productIds);
+        }
+        List<Long> vendorIds = vendorRepository.findIdsUpdatedSince(since);
+        if (!vendorIds.isEmpty()) {
+            refreshVendors(vendorIds);
+        }
+        lastPolledAt = startedAt;
+    }
+
+    /**
+     * Reload the given products and re-rank their stores (store popularity sums product sales)
+     */
+    public void refreshProducts(Collection<Long> productIds) {
+        Set<Long> missing = new HashSet<>(productIds);
+        Set<Long> vendorIds = new HashSet<>();
+        for (Object[] row : productRepository.findSearchRowsByIdIn(productIds)) {
+            Long productId = (Long) row[0];
+            missing.remove(productId);
+            vendorIdsByProduct.put(productId, (Long) row[3]);
+            vendorIds.add((Long) row[3]);
+            put(new Key(SuggestionResponse.Type.PRODUCT, productId), productSuggestion(row));
+        }
+        for (Long productId : missing) {
+            index.remove(new Key(SuggestionResponse.Type.PRODUCT, productId));
+            Long vendorId = vendorIdsByProduct.remove(productId);
+            if (vendorId != null) {
+                vendorIds.add(vendorId);
+            }
+        }
+        if (!vendorIds.isEmpty()) {
+            refreshVendors(vendorIds);
+        }
+    }
+
+    public void refreshVendors(Collection<Long> vendorIds) {
+        Set<Long> missing = new HashSet<>(vendorIds);
+        for (Object[] row : vendorRepository.findSuggestionRowsByIdIn(vendorIds)) {
+            missing.remove((Long) row[0]);
+            put(new Key(SuggestionResponse.Type.STORE, (Long) row[0]), storeSuggestion(row));
+        }
+        missing.forEach(vendorId -> index.remove(new Key(SuggestionResponse.Type.STORE, vendorId)));
+    }
+
+    private void put(Key key, SuggestionResponse suggestion) {
+        if (suggestion == null) {
+            index.remove(key);
+        } else {
+            index.put(key, suggestion, wordSuffixes(suggestion.getText()));
+        }
+    }
+
+    /**
+     * Row from ProductRepository.findSearchRows*; null when the product is not available
+     */
+    private static SuggestionResponse productSuggestion(Object[] row) {
+        if (!Boolean.TRUE.equals(row[7])) {
+            return null;
+        }
+        return SuggestionResponse.builder()
+                .type(SuggestionResponse.Type.PRODUCT)
+                .id((Long) row[0])
+                .text((String) row[1])
+                .popularity(row[8] != null ? ((Number) row[8]).longValue() : 0L)
+                .build();
+    }
+
+    /**
+     * Row from VendorRepository.findSuggestionRows*; null unless the store is active and verified
+     */
+    private static SuggestionResponse storeSuggestion(Object[] row) {
+        if (!Boolean.TRUE.equals(row[2]) || !Boolean.TRUE.equals(row[3])) {
+            return null;
+        }
+        return SuggestionResponse.builder()
+                .type(SuggestionResponse.Type.STORE)
+                .id((Long) row[0])
+                .text((String) row[1])
+                .popularity(((Number) row[4]).longValue())
+                .build();
+    }
+
+    /**
+     * "Bún bò Huế" -> "bun bo hue", "bo hue", "hue"
+     */
+    private static List<String> wordSuffixes(String text) {
+        String folded = VietnameseText.fold(text);
+        List<String> suffixes = new ArrayList<>();
+        if (folded.isEmpty()) {
+            return suffixes;
+        }
+        suffixes.add(folded);
+        for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+            suffixes.add(folded.substring(i + 1));
+        }
+        return suffixes;
+    }
+}
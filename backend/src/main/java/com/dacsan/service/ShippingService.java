@@ -0,0 +1,179 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.Region;
+import com.dacsan.util.VietnameseText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shipping fees from a province table (shipping/provinces.csv, all 63 provinces with aliases).
+ *
+ * Province names and aliases are diacritic-folded once at startup into a hash map, so resolving
+ * a delivery city is a handful of map lookups regardless of spelling ("Hà Nội", "ha noi",
+ * "TP. Hà Nội", "Quận 1, TP.HCM"). The fee of a sub-order is the tier fee of the customer's
+ * area plus a surcharge for the distance between the vendor's region and the customer's.
+ */
+@Service
+@Slf4j
+public class ShippingService {
+
+    private static final String PROVINCE_TABLE = "shipping/provinces.csv";
+
+    // Administrative prefixes that carry no location information once folded
+    private static final List<String> PREFIXES = List.of("thanh pho ", "tp ", "tinh ");
+
+    public enum Area {
+        METRO, // Thành phố lớn
+        STANDARD,
+        REMOTE // Miền núi, vùng sâu
+    }
+
+    /**
+     * Where a delivery goes. Unknown addresses get a STANDARD zone without region.
+     */
+    public record Zone(String province, Region region, Area area) {
+    }
+
+    private static final Zone UNKNOWN_ZONE = new Zone(null, null, Area.STANDARD);
+
+    private final Map<String, Zone> zonesByFoldedName;
+    private final int maxNameTokens;
+
+    private final BigDecimal metroFee;
+    private final BigDecimal standardFee;
+    private final BigDecimal remoteFee;
+    private final BigDecimal adjacentRegionSurcharge;
+    private final BigDecimal crossCountrySurcharge;
+    private final BigDecimal freeOrderThreshold;
+    private final BigDecimal freeSubOrderThreshold;
+
+    public ShippingService(
+            @Value("${app.shipping.metro-fee:30000}") BigDecimal metroFee,
+            @Value("${app.shipping.standard-fee:20000}") BigDecimal standardFee,
+            @Value("${app.shipping.remote-fee:35000}") BigDecimal remoteFee,
+            @Value("${app.shipping.adjacent-region-surcharge:5000}") BigDecimal adjacentRegionSurcharge,
+            @Value("${app.shipping.cross-country-surcharge:10000}") BigDecimal crossCountrySurcharge,
+            @Value("${app.shipping.free-order-threshold:100000}") BigDecimal freeOrderThreshold,
+            @Value("${app.shipping.free-sub-order-threshold:0}") BigDecimal freeSubOrderThreshold) {
+        this.metroFee = metroFee;
+        this.standardFee = standardFee;
+        this.remoteFee = remoteFee;
+        this.adjacentRegionSurcharge = adjacentRegionSurcharge;
+        this.crossCountrySurcharge = crossCountrySurcharge;
+        this.freeOrderThreshold = freeOrderThreshold;
+        this.freeSubOrderThreshold = freeSubOrderThreshold;
+
+        this.zonesByFoldedName = loadProvinceTable();
+        this.maxNameTokens = zonesByFoldedName.keySet().stream()
+                .mapToInt(name -> name.split(" ").length)
+                .max().orElse(1);
+        log.info("Loaded {} province names/aliases for shipping zones", zonesByFoldedName.size());
+    }
+
+    /**
+     * Resolve the delivery zone of a city/province as typed in an address.
+     * Tries the whole folded text first, then its longest word runs from the right
+     * (the province usually comes last, e.g. "Quận 1, TP Hồ Chí Minh").
+     */
+    public Zone resolveZone(String city) {
+        String folded = stripPrefix(VietnameseText.fold(city));
+        Zone zone = zonesByFoldedName.get(folded);
+        if (zone != null) {
+            return zone;
+        }
+
+        String[] tokens = folded.split(" ");
+        for (int size = Math.min(maxNameTokens, tokens.length); size >= 1; size--) {
+            for (int start = tokens.length - size; start >= 0; start--) {
+                zone = zonesByFoldedName.get(String.join(" ", List.of(tokens).subList(start, start + size)));
+                if (zone != null) {
+                    return zone;
+                }
+            }
+        }
+        // Debug only: runs on every quote, one bad address would flood a warn log
+        log.debug("No shipping zone for city '{}', using standard fee", city);
+        return UNKNOWN_ZONE;
+    }
+
+    /**
+     * Whether the whole order ships free
+     */
+    public boolean isFreeOrder(BigDecimal orderTotal) {
+        return orderTotal.compareTo(freeOrderThreshold) >= 0;
+    }
+
+    /**
+     * Fee for one vendor's sub-order: area tier of the customer plus the region distance surcharge,
+     * or zero when the sub-order reaches the per-vendor free-shipping threshold (if configured)
+     */
+    public BigDecimal quoteSubOrder(Region vendorRegion, Zone zone, BigDecimal subOrderSubtotal) {
+        if (freeSubOrderThreshold.signum() > 0 && subOrderSubtotal.compareTo(freeSubOrderThreshold) >= 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal fee = switch (zone.area()) {
+            case METRO -> metroFee;
+            case REMOTE -> remoteFee;
+            case STANDARD -> standardFee;
+        };
+        return fee.add(regionSurcharge(vendorRegion, zone.region()));
+    }
+
+    private BigDecimal regionSurcharge(Region from, Region to) {
+        if (from == null || to == null || from == to) {
+            return BigDecimal.ZERO;
+        }
+        // NORTH and SOUTH are the only non-adjacent pair
+        boolean crossCountry = from != Region.CENTRAL && to != Region.CENTRAL;
+        return crossCountry ? crossCountrySurcharge : adjacentRegionSurcharge;
+    }
+
+    private static String stripPrefix(String folded) {
+        for (String prefix : PREFIXES) {
+            if (folded.startsWith(prefix)) {
+                return folded.substring(prefix.length());
+            }
+        }
+        return folded;
+    }
+
+    private static Map<String, Zone> loadProvinceTable() {
+        Map<String, Zone> zones = new HashMap<>();
+        ClassPathResource resource = new ClassPathResource(PROVINCE_TABLE);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                Zone zone = new Zone(columns[0].trim(), Region.valueOf(columns[1].trim()),
+                        Area.valueOf(columns[2].trim()));
+
+                zones.put(VietnameseText.fold(zone.province()), zone);
+                for (String alias : columns[3].split("\\|")) {
+                    if (!alias.isBlank()) {
+                        zones.put(VietnameseText.fold(alias), zone);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + PROVINCE_TABLE, e);
+        }
+        return Map.copyOf(zones);
+    }
+}
@@ -2,10 +2,12 @@ package com.dacsan.service;
 
 import com.dacsan.dto.response.VendorDocumentResponse;
 import com.dacsan.entity.*;
+import com.dacsan.event.VendorChangedEvent;
 import com.dacsan.repository.VendorDocumentRepository;
 import com.dacsan.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,6 +24,7 @@ public class VendorDocumentService {
     private final VendorDocumentRepository vendorDocumentRepository;
     private final VendorRepository vendorRepository;
     private final UploadService uploadService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public VendorDocumentResponse uploadDocument(Long vendorId, MultipartFile file, DocumentType type) {
@@ -96,6 +99,7 @@ public class VendorDocumentService {
                 Vendor vendor = document.getVendor();
                 vendor.setVerified(true);
                 vendorRepository.save(vendor);
+                eventPublisher.publishEvent(new VendorChangedEvent(vendorId));
                 log.info("All documents approved for vendor {}. Vendor is now verified.", vendorId);
             }
         }
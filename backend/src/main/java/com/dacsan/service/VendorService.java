@@ -2,6 +2,7 @@ package com.dacsan.service;
 
 import com.dacsan.dto.response.VendorResponse;
 import com.dacsan.dto.response.VendorStatsResponse;
+import com.dacsan.entity.LedgerEntryType;
 import com.dacsan.entity.OrderStatus;
 import com.dacsan.entity.Region;
 import com.dacsan.entity.SubOrder;
@@ -11,6 +12,7 @@ import com.dacsan.repository.SubOrderRepository;
 import com.dacsan.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,6 +25,7 @@ public class VendorService {
 
         private final VendorRepository vendorRepository;
         private final SubOrderRepository subOrderRepository;
+        private final WalletService walletService;
 
         public VendorStatsResponse getDashboardStats(Long vendorId) {
                 Vendor vendor = vendorRepository.findById(vendorId)
@@ -77,7 +80,7 @@ public class VendorService {
                                 .completedOrders(completed)
                                 .cancelledOrders(cancelled)
                                 .revenueChart(new ArrayList<>(dailyMap.values()))
-                                .walletBalance(vendor.getBalance())
+                                .walletBalance(walletService.getVendorBalance(vendor.getId()))
                                 .build();
         }
 
@@ -85,7 +88,7 @@ public class VendorService {
                 return vendorRepository.findAll().stream()
                                 .filter(Vendor::getVerified)
                                 .filter(Vendor::getActive)
-                                .map(this::mapToVendorResponse)
+                                .map(this::mapToPublicVendorResponse)
                                 .collect(Collectors.toList());
         }
 
@@ -94,7 +97,7 @@ public class VendorService {
                                 .filter(v -> v.getRegion().equals(region))
                                 .filter(Vendor::getVerified)
                                 .filter(Vendor::getActive)
-                                .map(this::mapToVendorResponse)
+                                .map(this::mapToPublicVendorResponse)
                                 .collect(Collectors.toList());
         }
 
@@ -102,7 +105,7 @@ public class VendorService {
                 Vendor vendor = vendorRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
 
-                return mapToVendorResponse(vendor);
+                return mapToPublicVendorResponse(vendor);
         }
 
         public VendorResponse getVendorByUserId(Long userId) {
@@ -111,6 +114,7 @@ public class VendorService {
                 return mapToVendorResponse(vendor);
         }
 
+        @Transactional
         public VendorResponse topupWallet(Long vendorId, BigDecimal amount) {
                 Vendor vendor = vendorRepository.findById(vendorId)
                                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
@@ -129,15 +133,25 @@ public class VendorService {
                     bonus = new BigDecimal("200000");
                 }
 
-                BigDecimal totalToAdd = amount.add(bonus);
-                BigDecimal currentBalance = vendor.getBalance() != null ? vendor.getBalance() : BigDecimal.ZERO;
-                vendor.setBalance(currentBalance.add(totalToAdd));
-                vendor = vendorRepository.save(vendor);
+                walletService.recordVendorEntry(vendorId, LedgerEntryType.TOPUP, amount, "topup");
+                walletService.recordVendorEntry(vendorId, LedgerEntryType.TOPUP_BONUS, bonus, "topup");
 
                 return mapToVendorResponse(vendor);
         }
 
         private VendorResponse mapToVendorResponse(Vendor vendor) {
+                return mapToVendorResponse(vendor, walletService.getVendorBalance(vendor.getId()));
+        }
+
+        /**
+         * Profile for anyone (served with public Cache-Control): the wallet balance is only
+         * returned to the vendor itself
+         */
+        private VendorResponse mapToPublicVendorResponse(Vendor vendor) {
+                return mapToVendorResponse(vendor, null);
+        }
+
+        private VendorResponse mapToVendorResponse(Vendor vendor, BigDecimal balance) {
                 return VendorResponse.builder()
                                 .id(vendor.getId())
                                 .userId(vendor.getUser().getId())
@@ -153,7 +167,7 @@ public class VendorService {
                                 .active(vendor.getActive())
                                 .verified(vendor.getVerified())
                                 .createdAt(vendor.getCreatedAt())
-                                .balance(vendor.getBalance())
+                                .balance(balance)
                                 .build();
         }
 }
@@ -5,10 +5,12 @@ import com.dacsan.dto.response.VoucherResponse;
 import com.dacsan.entity.DiscountType;
 import com.dacsan.entity.Vendor;
 import com.dacsan.entity.Voucher;
+import com.dacsan.event.VoucherChangedEvent;
 import com.dacsan.repository.VendorRepository;
 import com.dacsan.repository.VoucherRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class VoucherService {
 
     private final VoucherRepository voucherRepository;
     private final VendorRepository vendorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public VoucherResponse createVoucher(CreateVoucherRequest request, Long vendorId) {
@@ -54,6 +57,7 @@ public class VoucherService {
                 .build();
 
         voucher = voucherRepository.save(voucher);
+        eventPublisher.publishEvent(new VoucherChangedEvent(voucher.getId()));
         log.info("Voucher created: {} (vendor: {})", voucher.getCode(), vendorId);
 
         return mapToResponse(voucher);
@@ -139,6 +143,7 @@ public class VoucherService {
 
         voucher.setUsedCount(voucher.getUsedCount() + 1);
         voucherRepository.save(voucher);
+        eventPublisher.publishEvent(new VoucherChangedEvent(voucher.getId()));
         log.info("Voucher applied: {} (used count: {})", code, voucher.getUsedCount());
     }
 
@@ -170,6 +175,7 @@ public class VoucherService {
         voucher.setUsageLimit(request.getUsageLimit());
 
         voucher = voucherRepository.save(voucher);
+        eventPublisher.publishEvent(new VoucherChangedEvent(voucher.getId()));
         log.info("Voucher updated: {}", voucher.getCode());
 
         return mapToResponse(voucher);
@@ -180,6 +186,7 @@ public class VoucherService {
         Voucher voucher = voucherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Voucher not found"));
         voucherRepository.delete(voucher);
+        eventPublisher.publishEvent(new VoucherChangedEvent(id));
         log.info("Voucher deleted: {}", voucher.getCode());
     }
 
@@ -0,0 +1,140 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.LedgerAccountType;
+import com.dacsan.entity.LedgerEntryType;
+import com.dacsan.entity.WalletLedgerEntry;
+import com.dacsan.repository.WalletLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Vendor and platform wallets on top of the append-only wallet_ledger table.
+ *
+ * Writers only ever INSERT, so concurrent deliveries never contend on a shared row.
+ * A balance is the account's snapshot plus its ledger entries not folded into it yet;
+ * {@link #rollUpSnapshots()} periodically folds committed entries into the snapshots so
+ * that sum stays short. An entry is flagged folded in the same transaction that adds it
+ * to its snapshot, so each entry is counted exactly once whatever order transactions
+ * commit in: one still open when a roll-up runs is simply folded by a later one.
+ */
+@Service
+@Slf4j
+public class WalletService {
+
+    private final WalletLedgerRepository ledgerRepository;
+    private final TransactionTemplate rollUpTransaction;
+
+    @Value("${app.wallet.platform-stripes:8}")
+    private int platformStripes;
+
+    @Value("${app.wallet.snapshot-batch-size:1000}")
+    private int snapshotBatchSize;
+
+    public WalletService(WalletLedgerRepository ledgerRepository, PlatformTransactionManager transactionManager) {
+        this.ledgerRepository = ledgerRepository;
+        this.rollUpTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordVendorEntry(Long vendorId, LedgerEntryType type, BigDecimal amount, String reference) {
+        record(LedgerAccountType.VENDOR, vendorId, type, amount, reference);
+    }
+
+    /**
+     * Credit platform commission to a random stripe of the platform wallet
+     */
+    public void recordPlatformCommission(BigDecimal amount, String reference) {
+        long stripe = ThreadLocalRandom.current().nextInt(platformStripes);
+        record(LedgerAccountType.PLATFORM, stripe, LedgerEntryType.COMMISSION, amount, reference);
+    }
+
+    public BigDecimal getVendorBalance(Long vendorId) {
+        return getVendorBalances(List.of(vendorId)).get(vendorId);
+    }
+
+    /**
+     * Balances for many vendors in one query; vendors without entries get zero
+     */
+    public Map<Long, BigDecimal> getVendorBalances(Collection<Long> vendorIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        vendorIds.forEach(id -> balances.put(id, BigDecimal.ZERO));
+        if (vendorIds.isEmpty()) {
+            return balances;
+        }
+
+        for (Object[] row : ledgerRepository.sumBalances(LedgerAccountType.VENDOR.name(), vendorIds)) {
+            balances.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+        return balances;
+    }
+
+    public BigDecimal getPlatformBalance() {
+        return ledgerRepository.sumBalanceByAccountType(LedgerAccountType.PLATFORM.name());
+    }
+
+    /**
+     * Fold every committed, unfolded entry into the snapshots, one batch per transaction
+     */
+    @Scheduled(fixedDelayString = "${app.wallet.snapshot-interval-ms:60000}")
+    public void rollUpSnapshots() {
+        int folded = 0;
+        Integer batch;
+        do {
+            batch = rollUpTransaction.execute(this::rollUpBatch);
+            if (batch == null) {
+                log.info("Wallet roll-up stopped after {} entries: another roll-up is folding the same entries", folded);
+                return;
+            }
+            folded += batch;
+        } while (batch == snapshotBatchSize);
+        if (folded > 0) {
+            log.info("Rolled {} wallet ledger entries into the snapshots", folded);
+        }
+    }
+
+    /**
+     * Number of entries folded, null when a concurrent roll-up (another node) took some of them
+     */
+    private Integer rollUpBatch(TransactionStatus status) {
+        // Plain read: entries of transactions still open aren't visible, they stay unfolded
+        List<Long> ids = ledgerRepository.findUnfoldedIds(PageRequest.of(0, snapshotBatchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Row locks on exactly these entries; if another roll-up already flipped one, fold nothing
+        if (ledgerRepository.markFolded(ids) != ids.size()) {
+            status.setRollbackOnly();
+            return null;
+        }
+        ledgerRepository.addToSnapshots(ids);
+        return ids.size();
+    }
+
+    private void record(LedgerAccountType accountType, Long accountId, LedgerEntryType type,
+            BigDecimal amount, String reference) {
+        if (amount.signum() == 0) {
+            return;
+        }
+
+        ledgerRepository.save(WalletLedgerEntry.builder()
+                .accountType(accountType)
+                .accountId(accountId)
+                .entryType(type)
+                .amount(amount)
+                .reference(reference)
+                .build());
+        log.info("Wallet {} {}: {} {} ({})", accountType, accountId, type, amount, reference);
+    }
+}
@@ -0,0 +1,132 @@
+package com.dacsan.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BK-tree over words for typo-tolerant lookup: all words within an edit distance of a query,
+ * visiting only the subtrees the triangle inequality can't rule out.
+ *
+ * Distance is (unrestricted) Damerau-Levenshtein, so a swapped pair of letters ("bahn" for
+ * "banh") costs one edit like an insertion, deletion or substitution, and it stays a true
+ * metric, which the tree needs to never miss a match. Words can be added but not removed;
+ * build a new tree to drop words. Adds must be serialized by the caller; lookups may run
+ * concurrently with them.
+ */
+public class BkTree {
+
+    public record Match(String word, int distance) {
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    private volatile Node root;
+    private volatile int size;
+
+    /**
+     * @return false if the word was already present
+     */
+    public boolean add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size = 1;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Words at most {@code maxDistance} edits away from {@code query}, in no particular order
+     */
+    public List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        Node start = root;
+        if (start == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.word);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.word, distance));
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Damerau-Levenshtein distance (Lowrance-Wagner): insertions, deletions, substitutions and
+     * transpositions of adjacent characters, with edits allowed between transposed characters
+     */
+    public static int distance(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        int infinity = n + m;
+        int[][] d = new int[n + 2][m + 2];
+        d[0][0] = infinity;
+        for (int i = 0; i <= n; i++) {
+            d[i + 1][0] = infinity;
+            d[i + 1][1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j + 1] = infinity;
+            d[1][j + 1] = j;
+        }
+
+        Map<Character, Integer> lastRowOf = new HashMap<>();
+        for (int i = 1; i <= n; i++) {
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= m; j++) {
+                int i1 = lastRowOf.getOrDefault(b.charAt(j - 1), 0);
+                int j1 = lastMatchColumn;
+                int cost = 1;
+                if (a.charAt(i - 1) == b.charAt(j - 1)) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                d[i + 1][j + 1] = Math.min(
+                        Math.min(d[i][j] + cost, d[i + 1][j] + 1),
+                        Math.min(d[i][j + 1] + 1, d[i1][j1] + (i - i1 - 1) + 1 + (j - j1 - 1)));
+            }
+            lastRowOf.put(a.charAt(i - 1), i);
+        }
+        return d[n + 1][m + 1];
+    }
+}
@@ -0,0 +1,83 @@
+package com.dacsan.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader (RFC 4180): comma separated fields, a double-quoted field may contain
+ * commas, line breaks and doubled quotes. Reads one record at a time, so a file of any size
+ * needs only the current record in memory.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordLine;
+
+    /**
+     * @param reader should be buffered, it is read one character at a time
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * The next record's fields, or null at the end of the input
+     *
+     * @throws IOException also when a quoted field is never closed
+     */
+    public List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Quoted field starting on line " + recordLine + " is not closed");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue; // Re-examine the character after the closing quote
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Line the last record returned by {@link #next()} starts on (1-based)
+     */
+    public int recordLine() {
+        return recordLine;
+    }
+}
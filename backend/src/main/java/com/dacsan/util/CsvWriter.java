@@ -0,0 +1,38 @@
+package com.dacsan.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes CSV records (RFC 4180) readable by {@link CsvReader}: fields with a comma, quote or
+ * line break are quoted, quotes doubled; null is written as an empty field.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields.get(i);
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write('\n');
+    }
+}
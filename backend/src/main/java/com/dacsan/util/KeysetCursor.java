@@ -0,0 +1,28 @@
+package com.dacsan.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key of the last row seen plus its id
+ * as tie-breaker. Clients only pass the encoded string back; they never build it.
+ */
+public record KeysetCursor(String sortValue, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
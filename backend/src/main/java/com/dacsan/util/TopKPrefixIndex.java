@@ -0,0 +1,185 @@
+package com.dacsan.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prefix trie where every node caches the best {@code k} values stored at or below it, so
+ * "top k completions of a prefix" costs one walk down the prefix and no scan of the subtree.
+ *
+ * Each value is stored under one or more keys (e.g. every word suffix of a name) and is
+ * identified by an id, so a value reachable through several keys is listed once. Writers are
+ * serialized and only re-rank the nodes on the changed paths; readers never lock and see each
+ * node's cached list either before or after a write.
+ *
+ * @param <K> id of a value
+ * @param <V> the value returned from lookups
+ */
+public class TopKPrefixIndex<K, V> {
+
+    private record Entry<K, V>(K id, V value) {
+    }
+
+    private record Stored<V>(V value, List<String> keys) {
+    }
+
+    private static final class Node<K, V> {
+        private final Map<Character, Node<K, V>> children = new ConcurrentHashMap<>();
+        private final Map<K, V> terminals = new HashMap<>(); // values whose key ends here, guarded by the index
+        private volatile List<Entry<K, V>> top = List.of();
+    }
+
+    private final int k;
+    private final Comparator<Entry<K, V>> ranking;
+    private final Map<K, Stored<V>> stored = new HashMap<>();
+    private volatile Node<K, V> root = new Node<>();
+
+    /**
+     * @param k       how many values each node keeps; lookups can return at most this many
+     * @param ranking best value first
+     */
+    public TopKPrefixIndex(int k, Comparator<V> ranking) {
+        this.k = k;
+        this.ranking = Comparator.comparing(Entry::value, ranking);
+    }
+
+    /**
+     * Best values stored under a key that starts with {@code prefix}, best first
+     */
+    public List<V> top(String prefix, int limit) {
+        Node<K, V> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Entry<K, V>> top = node.top;
+        List<V> values = new ArrayList<>(Math.min(limit, top.size()));
+        for (int i = 0; i < top.size() && i < limit; i++) {
+            values.add(top.get(i).value());
+        }
+        return values;
+    }
+
+    /**
+     * Add or replace a value; its previous keys are dropped
+     */
+    public synchronized void put(K id, V value, Collection<String> keys) {
+        remove(id);
+        List<String> distinctKeys = keys.stream().filter(key -> !key.isEmpty()).distinct().toList();
+        for (String key : distinctKeys) {
+            List<Node<K, V>> path = pathOf(key, true);
+            path.get(path.size() - 1).terminals.put(id, value);
+            rerank(path);
+        }
+        stored.put(id, new Stored<>(value, distinctKeys));
+    }
+
+    public synchronized void remove(K id) {
+        Stored<V> previous = stored.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous.keys()) {
+            List<Node<K, V>> path = pathOf(key, false);
+            path.get(path.size() - 1).terminals.remove(id);
+            rerank(path);
+            prune(key, path);
+        }
+    }
+
+    /**
+     * Replace the whole content in one pass (ranking each node once) and swap it in atomically
+     */
+    public synchronized void replaceAll(Map<K, V> values, Map<K, ? extends Collection<String>> keys) {
+        Map<K, Stored<V>> newStored = new HashMap<>();
+        Node<K, V> newRoot = new Node<>();
+        values.forEach((id, value) -> {
+            Collection<String> valueKeys = keys.get(id);
+            List<String> distinctKeys = valueKeys == null ? List.of() : valueKeys.stream()
+                    .filter(key -> !key.isEmpty()).distinct().toList();
+            for (String key : distinctKeys) {
+                Node<K, V> node = newRoot;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+                }
+                node.terminals.put(id, value);
+            }
+            newStored.put(id, new Stored<>(value, distinctKeys));
+        });
+        rerankSubtree(newRoot);
+
+        stored.clear();
+        stored.putAll(newStored);
+        root = newRoot;
+    }
+
+    public synchronized int size() {
+        return stored.size();
+    }
+
+    /**
+     * Nodes from the root to the end of {@code key}; existing nodes only unless {@code create}
+     */
+    private List<Node<K, V>> pathOf(String key, boolean create) {
+        List<Node<K, V>> path = new ArrayList<>(key.length() + 1);
+        Node<K, V> node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = create
+                    ? node.children.computeIfAbsent(key.charAt(i), c -> new Node<>())
+                    : node.children.get(key.charAt(i));
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void rerank(List<Node<K, V>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rank(path.get(i));
+        }
+    }
+
+    private void rerankSubtree(Node<K, V> node) {
+        for (Node<K, V> child : node.children.values()) {
+            rerankSubtree(child);
+        }
+        rank(node);
+    }
+
+    /**
+     * Own terminals plus the children's cached lists, one entry per id, best k kept
+     */
+    private void rank(Node<K, V> node) {
+        Map<K, Entry<K, V>> candidates = new LinkedHashMap<>();
+        node.terminals.forEach((id, value) -> candidates.put(id, new Entry<>(id, value)));
+        for (Node<K, V> child : node.children.values()) {
+            for (Entry<K, V> entry : child.top) {
+                candidates.putIfAbsent(entry.id(), entry);
+            }
+        }
+        List<Entry<K, V>> ranked = new ArrayList<>(candidates.values());
+        ranked.sort(ranking);
+        node.top = List.copyOf(ranked.subList(0, Math.min(k, ranked.size())));
+    }
+
+    /**
+     * Drop the nodes at the end of a removed key that no longer lead to any value
+     */
+    private void prune(String key, List<Node<K, V>> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<K, V> node = path.get(i);
+            if (!node.terminals.isEmpty() || !node.children.isEmpty()) {
+                return;
+            }
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+        }
+    }
+}
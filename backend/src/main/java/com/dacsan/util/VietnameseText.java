@@ -0,0 +1,46 @@
+package com.dacsan.util;
+
+import java.text.Normalizer;
+
+/**
+ * Diacritic folding for Vietnamese text: "Hà Nội", "Ha Noi", "HÀ  NỘI" and the decomposed
+ * (NFD) form of "Hà Nội" all fold to "ha noi". Used for lookups that must not depend on how
+ * the user typed accents.
+ */
+public final class VietnameseText {
+
+    private VietnameseText() {
+    }
+
+    /**
+     * Lowercase, strip tone and vowel marks, map đ to d, and collapse anything that isn't a
+     * letter or digit into single spaces
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && folded.length() > 0) {
+                    folded.append(' ');
+                }
+                pendingSpace = false;
+                folded.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,15 @@
+-- Block-allocated IDs for the checkout write path
+-- sub_orders and order_items switch from AUTO_INCREMENT to a pooled table generator
+-- so Hibernate can batch their inserts. Each row holds the upper bound of the last
+-- reserved block; seed it one block above the current max id to avoid collisions.
+
+CREATE TABLE id_generators (
+    gen_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    gen_value BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'sub_orders', COALESCE(MAX(id), 0) + 50 FROM sub_orders;
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'order_items', COALESCE(MAX(id), 0) + 50 FROM order_items;
@@ -0,0 +1,19 @@
+-- Per-day order number counters
+-- OrderNumberService reserves blocks of sequence values from these rows instead of
+-- running COUNT(*) over orders on every checkout.
+
+CREATE TABLE order_number_segments (
+    segment_day VARCHAR(8) NOT NULL PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Legacy numbers were ORD{yyyyMMdd}{count+1}; start the days around the rollout past
+-- the current count so new numbers cannot collide with them.
+INSERT INTO order_number_segments (segment_day, next_value)
+SELECT DATE_FORMAT(CURRENT_DATE - INTERVAL 1 DAY, '%Y%m%d'), COUNT(*) + 1 FROM orders;
+
+INSERT INTO order_number_segments (segment_day, next_value)
+SELECT DATE_FORMAT(CURRENT_DATE, '%Y%m%d'), COUNT(*) + 1 FROM orders;
+
+INSERT INTO order_number_segments (segment_day, next_value)
+SELECT DATE_FORMAT(CURRENT_DATE + INTERVAL 1 DAY, '%Y%m%d'), COUNT(*) + 1 FROM orders;
@@ -0,0 +1,8 @@
+-- Composite indexes for keyset-paginated order history (GET /api/orders?size=...)
+-- Match the (owner, [status,] created_at DESC, id DESC) order of the page queries so
+-- each page is an index range scan with no filesort and no COUNT.
+
+CREATE INDEX idx_orders_customer_created ON orders(customer_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_customer_status_created ON orders(customer_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_sub_orders_vendor_created ON sub_orders(vendor_id, created_at DESC, id DESC);
+CREATE INDEX idx_sub_orders_vendor_status_created ON sub_orders(vendor_id, status, created_at DESC, id DESC);
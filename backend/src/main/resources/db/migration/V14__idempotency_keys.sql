@@ -0,0 +1,15 @@
+-- Idempotency-Key replay store for POST /api/orders
+-- The row is inserted inside the checkout transaction, so a concurrent duplicate on any
+-- node blocks on the unique key until the first request commits or rolls back.
+
+CREATE TABLE idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    response_json MEDIUMTEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_idempotency_keys_user_key (user_id, idempotency_key),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
@@ -0,0 +1,37 @@
+-- Append-only wallet ledger
+-- Balances are no longer read-modify-written on vendors.balance / users.balance.
+-- Every credit or debit is one INSERT into wallet_ledger; a balance is the account's
+-- snapshot plus the entries recorded after it. Platform commission is spread over
+-- several PLATFORM accounts (stripes) whose balances add up to the platform total.
+
+CREATE TABLE wallet_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_type VARCHAR(20) NOT NULL CHECK (account_type IN ('VENDOR', 'PLATFORM')),
+    account_id BIGINT NOT NULL,
+    entry_type VARCHAR(30) NOT NULL CHECK (entry_type IN ('OPENING_BALANCE', 'ORDER_EARNING', 'COMMISSION', 'LISTING_FEE', 'TOPUP', 'TOPUP_BONUS')),
+    amount DECIMAL(19,2) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_wallet_ledger_account ON wallet_ledger(account_type, account_id, id);
+CREATE INDEX idx_wallet_ledger_created_at ON wallet_ledger(created_at);
+
+CREATE TABLE wallet_snapshots (
+    account_type VARCHAR(20) NOT NULL,
+    account_id BIGINT NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (account_type, account_id)
+);
+
+-- Carry existing balances over as opening entries
+INSERT INTO wallet_ledger (account_type, account_id, entry_type, amount, reference)
+SELECT 'VENDOR', v.id, 'OPENING_BALANCE', v.balance, 'V15'
+FROM vendors v WHERE v.balance IS NOT NULL AND v.balance <> 0;
+
+INSERT INTO wallet_ledger (account_type, account_id, entry_type, amount, reference)
+SELECT 'PLATFORM', 0, 'OPENING_BALANCE', SUM(u.balance), 'V15'
+FROM users u WHERE u.role = 'ADMIN' AND u.balance IS NOT NULL
+HAVING SUM(u.balance) <> 0;
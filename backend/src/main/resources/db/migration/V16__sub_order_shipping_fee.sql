@@ -0,0 +1,4 @@
+-- Shipping is charged per vendor (sub-order); orders.shipping_fee is the sum of its sub-orders.
+-- Existing orders keep their order-level fee, their sub-orders get 0.
+
+ALTER TABLE sub_orders ADD COLUMN shipping_fee DECIMAL(10,2) NOT NULL DEFAULT 0.0;
@@ -0,0 +1,18 @@
+-- Keyset pagination of product listings (GET /api/products?cursor=...)
+-- Keyset comparisons need non-null sort columns; products created through the API were
+-- inserted with NULL sold_count/rating/review_count (the entity builder skipped the defaults).
+
+UPDATE products SET sold_count = 0 WHERE sold_count IS NULL;
+UPDATE products SET rating = 0.0 WHERE rating IS NULL;
+UPDATE products SET review_count = 0 WHERE review_count IS NULL;
+
+ALTER TABLE products
+    MODIFY sold_count INTEGER NOT NULL DEFAULT 0,
+    MODIFY rating DECIMAL(3,2) NOT NULL DEFAULT 0.0,
+    MODIFY review_count INTEGER NOT NULL DEFAULT 0;
+
+-- One (sort key, id) index per whitelisted sort; scanned forwards or backwards for ASC/DESC
+CREATE INDEX idx_products_created ON products(created_at, id);
+CREATE INDEX idx_products_sold_count ON products(sold_count, id);
+CREATE INDEX idx_products_rating ON products(rating, id);
+CREATE INDEX idx_products_base_price ON products(base_price, id);
@@ -0,0 +1,44 @@
+-- Composite indexes for the hot repository queries
+-- Each listing is served by an ordered range scan of one index (filter columns first, then the
+-- sort key and id) that stops after the page instead of sorting every matching row. The plans
+-- are checked by backend-loadtest QueryPlanCheck.
+-- Single-column indexes that become a left prefix of a new one are dropped; foreign keys fall
+-- back to the composite index.
+
+-- findByFilters / findKeysetPage, default sort createdAt (available-only, region, category, vendor)
+CREATE INDEX idx_products_available_created ON products(available, created_at, id);
+CREATE INDEX idx_products_region_available_created ON products(region, available, created_at, id);
+CREATE INDEX idx_products_category_available_created ON products(category, available, created_at, id);
+CREATE INDEX idx_products_vendor_created ON products(vendor_id, created_at, id);
+DROP INDEX idx_products_region ON products;
+DROP INDEX idx_products_category ON products;
+DROP INDEX idx_products_vendor_id ON products;
+
+-- findTop10ByAvailableTrueOrderBySoldCountDesc, findRecommendedByPreferences (soldCount, rating)
+CREATE INDEX idx_products_available_sold ON products(available, sold_count, rating, id);
+
+-- findByFeaturedTrueAndAvailableTrue
+CREATE INDEX idx_products_featured_available ON products(featured, available);
+DROP INDEX idx_products_featured ON products;
+
+-- findIdsUpdatedSince, polled every few seconds by the search index, suggestions and catalog cache
+CREATE INDEX idx_products_updated_at ON products(updated_at);
+CREATE INDEX idx_vendors_updated_at ON vendors(updated_at);
+
+-- SubOrderRepository.findByOrderIdOrderByCreatedAtDesc
+-- (findByVendorIdOrderByCreatedAtDesc is served by idx_sub_orders_vendor_created from V13)
+CREATE INDEX idx_sub_orders_order_created ON sub_orders(order_id, created_at, id);
+DROP INDEX idx_sub_orders_order_id ON sub_orders;
+DROP INDEX idx_sub_orders_vendor_id ON sub_orders;
+DROP INDEX idx_orders_customer_id ON orders;
+
+-- Purchase history aggregates (findFrequentlyOrderedProductIds, findDistinctProductIdsByCustomerId)
+-- read product and quantity from the index alone
+CREATE INDEX idx_order_items_sub_order_product ON order_items(sub_order_id, product_id, quantity);
+
+-- VariantGroupRepository.findByProductIdOrderByDisplayOrderAsc
+CREATE INDEX idx_variant_groups_product_order ON variant_groups(product_id, display_order);
+
+-- AddressRepository.findByUserIdOrderByIsDefaultDesc / findByUserIdAndIsDefaultTrue
+CREATE INDEX idx_addresses_user_default ON addresses(user_id, is_default);
+DROP INDEX idx_addresses_user_id ON addresses;
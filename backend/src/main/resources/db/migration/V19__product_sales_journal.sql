@@ -0,0 +1,16 @@
+-- Delivered units not yet added to products.sold_count
+-- The delivery transaction inserts one row per sub-order and product; ProductSalesCounter adds
+-- the units to sold_count in periodic batches and deletes the rows in the same transaction.
+-- Rows left behind by a node that stopped before flushing are replayed once they are old enough.
+-- Sub-orders delivered before this migration are already reflected in sold_count (seed data) or
+-- were never counted; they are not backfilled.
+
+CREATE TABLE product_sales_journal (
+    sub_order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sub_order_id, product_id)
+);
+
+CREATE INDEX idx_product_sales_journal_created_at ON product_sales_journal(created_at);
@@ -0,0 +1,12 @@
+-- Block-allocated IDs for bulk product import
+-- products, variant_groups and variants switch from AUTO_INCREMENT to the pooled table
+-- generator (see V11) so Hibernate can batch their inserts. Seed one block above the current max id.
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'products', COALESCE(MAX(id), 0) + 50 FROM products;
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'variant_groups', COALESCE(MAX(id), 0) + 50 FROM variant_groups;
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'variants', COALESCE(MAX(id), 0) + 50 FROM variants;
@@ -0,0 +1,29 @@
+-- Fold wallet entries into snapshots by a per-entry flag instead of an id cursor
+-- The cursor (wallet_snapshots.last_entry_id, moved up to the highest id older than a time lag)
+-- could pass an entry whose transaction was still open: AUTO_INCREMENT ids are taken at insert,
+-- not at commit, so an entry committing after a higher id had been folded was never counted.
+-- The roll-up now flips folded on committed entries and adds them to the snapshot in the same
+-- transaction; a balance is the snapshot plus the account's entries not folded yet.
+
+ALTER TABLE wallet_ledger ADD COLUMN folded BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Everything is committed now: re-sum the snapshots from the entries under their cursor, which
+-- also repairs any entry the cursor skipped, and mark those entries folded
+UPDATE wallet_snapshots s
+SET s.balance = (
+    SELECT COALESCE(SUM(l.amount), 0) FROM wallet_ledger l
+    WHERE l.account_type = s.account_type AND l.account_id = s.account_id AND l.id <= s.last_entry_id
+);
+
+UPDATE wallet_ledger l
+JOIN wallet_snapshots s ON s.account_type = l.account_type AND s.account_id = l.account_id
+SET l.folded = TRUE
+WHERE l.id <= s.last_entry_id;
+
+ALTER TABLE wallet_snapshots DROP COLUMN last_entry_id;
+
+-- Balances read an account's unfolded entries; the roll-up takes the oldest unfolded ones
+DROP INDEX idx_wallet_ledger_account ON wallet_ledger;
+DROP INDEX idx_wallet_ledger_created_at ON wallet_ledger;
+CREATE INDEX idx_wallet_ledger_unfolded ON wallet_ledger(account_type, folded, account_id);
+CREATE INDEX idx_wallet_ledger_folded ON wallet_ledger(folded);
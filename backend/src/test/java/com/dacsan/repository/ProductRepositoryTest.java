@@ -0,0 +1,47 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.support.DatabaseTest;
+import com.dacsan.support.Fixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductRepositoryTest extends DatabaseTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void savingAProductKeepsUnitsCountedSinceItWasLoaded() {
+        Fixtures fixtures = new Fixtures(entityManager);
+        Long productId = fixtures.product(fixtures.vendor(Region.SOUTH), ProductCategory.SNACK, new BigDecimal("15000"))
+                .getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Product loaded = productRepository.findById(productId).orElseThrow();
+        // What ProductSalesCounter does while the vendor edits the product
+        jdbcTemplate.update("UPDATE products SET sold_count = sold_count + 5 WHERE id = ?", productId);
+        loaded.setName("Bánh tráng trộn");
+        productRepository.saveAndFlush(loaded);
+        entityManager.clear();
+
+        Product saved = productRepository.findById(productId).orElseThrow();
+        assertThat(saved.getName()).isEqualTo("Bánh tráng trộn");
+        assertThat(saved.getSoldCount()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dacsan.repository;
+
+import com.dacsan.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductSortKeyTest {
+
+    private final Product product = Product.builder()
+            .id(5L)
+            .createdAt(LocalDateTime.of(2026, 10, 17, 8, 30, 15, 123_000_000))
+            .soldCount(120)
+            .rating(4.5)
+            .basePrice(new BigDecimal("1E+5")) // Formatted without an exponent
+            .build();
+
+    @Test
+    void formattedValuesParseBackToTheSameValue() {
+        assertThat(ProductSortKey.CREATED_AT.parse(ProductSortKey.CREATED_AT.format(product)))
+                .isEqualTo(product.getCreatedAt());
+        assertThat(ProductSortKey.SOLD_COUNT.parse(ProductSortKey.SOLD_COUNT.format(product))).isEqualTo(120);
+        assertThat(ProductSortKey.RATING.parse(ProductSortKey.RATING.format(product))).isEqualTo(4.5);
+        assertThat(ProductSortKey.BASE_PRICE.format(product)).isEqualTo("100000");
+        assertThat((BigDecimal) ProductSortKey.BASE_PRICE.parse("100000")).isEqualByComparingTo(product.getBasePrice());
+    }
+
+    @Test
+    void rejectsValuesOfAnotherKey() {
+        assertThatThrownBy(() -> ProductSortKey.SOLD_COUNT.parse("2026-10-17T08:30:15"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void onlyIndexedPropertiesAreAccepted() {
+        assertThat(ProductSortKey.fromProperty("basePrice")).isEqualTo(ProductSortKey.BASE_PRICE);
+        assertThatThrownBy(() -> ProductSortKey.fromProperty("description"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("createdAt, soldCount, rating, basePrice");
+    }
+
+    @Test
+    void sortBreaksTiesById() {
+        assertThat(ProductSortKey.RATING.toSort(Sort.Direction.DESC))
+                .containsExactly(Sort.Order.desc("rating"), Sort.Order.desc("id"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.dacsan.service;
+
+import com.dacsan.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import(IdempotencyService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each request commits or rolls back on its own
+class IdempotencyServiceTest extends DatabaseTest {
+
+    private static final Long USER_ID = 42L;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedResponseIsReplayed() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = idempotencyService.execute(USER_ID, key, String.class, () -> request(key, runs, false));
+        String replay = idempotencyService.execute(USER_ID, key, String.class, () -> request(key, runs, false));
+
+        assertThat(replay).isEqualTo(first);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rolledBackResponseIsNotReplayed() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, key, String.class, () -> request(key, runs, true)))
+                .isInstanceOf(IllegalStateException.class);
+        String retry = idempotencyService.execute(USER_ID, key, String.class, () -> request(key, runs, false));
+
+        assertThat(retry).isEqualTo("response 2");
+        assertThat(runs).hasValue(2);
+    }
+
+    /**
+     * A request claiming the key in its own transaction, failing after {@code complete} if asked to
+     */
+    private String request(String key, AtomicInteger runs, boolean fail) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            idempotencyService.claim(USER_ID, key);
+            String response = "response " + runs.incrementAndGet();
+            idempotencyService.complete(USER_ID, key, response);
+            if (fail) {
+                throw new IllegalStateException("Checkout failed after the response was stored");
+            }
+            return response;
+        });
+    }
+}
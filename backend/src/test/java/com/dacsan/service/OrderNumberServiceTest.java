@@ -0,0 +1,64 @@
+package com.dacsan.service;
+
+import com.dacsan.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(OrderNumberService.class)
+@TestPropertySource(properties = "app.order-number.block-size=5")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Blocks are reserved (and committed) on the reserver thread
+class OrderNumberServiceTest extends DatabaseTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 50;
+
+    @Autowired
+    private OrderNumberService orderNumberService;
+
+    @Test
+    void concurrentCheckoutsGetDistinctNumbersAcrossManyBlocks() throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        Callable<Void> checkouts = () -> {
+            for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                numbers.add(orderNumberService.nextOrderNumber());
+            }
+            return null;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = executor.invokeAll(IntStream.range(0, THREADS).mapToObj(i -> checkouts).toList());
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(THREADS * NUMBERS_PER_THREAD)
+                .allMatch(number -> number.matches("ORD\\d{8}\\d{5}"));
+    }
+
+    @Test
+    void subOrderSuffixesContinuePastZ() {
+        assertThat(OrderNumberService.subOrderSuffix(0)).isEqualTo("A");
+        assertThat(OrderNumberService.subOrderSuffix(25)).isEqualTo("Z");
+        assertThat(OrderNumberService.subOrderSuffix(26)).isEqualTo("AA");
+        assertThat(OrderNumberService.subOrderSuffix(27)).isEqualTo("AB");
+    }
+}
@@ -0,0 +1,245 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.notification.OrderStatusUpdateNotification;
+import com.dacsan.dto.request.BulkUpdateSubOrderStatusRequest;
+import com.dacsan.dto.request.CreateOrderRequest;
+import com.dacsan.dto.response.BulkUpdateSubOrderStatusResponse;
+import com.dacsan.dto.response.OrderResponse;
+import com.dacsan.entity.*;
+import com.dacsan.support.DatabaseTest;
+import com.dacsan.support.Fixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@Import(OrderService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OrderServiceTest extends DatabaseTest {
+
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("50000.00");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private NotificationService notificationService;
+    @MockBean
+    private OrderNumberService orderNumberService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+    @MockBean
+    private WalletService walletService;
+    @MockBean
+    private PriceCatalogService priceCatalogService;
+    @MockBean
+    private ShippingService shippingService;
+    @MockBean
+    private ProductSalesCounter productSalesCounter;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(entityManager);
+        AtomicInteger orderNumbers = new AtomicInteger();
+        when(orderNumberService.nextOrderNumber())
+                .thenAnswer(invocation -> "DS-TEST-" + orderNumbers.incrementAndGet());
+        when(priceCatalogService.priceLine(anyLong(), any()))
+                .thenReturn(new PriceCatalogService.PricedLine(UNIT_PRICE, List.of()));
+        when(shippingService.resolveZone(anyString()))
+                .thenReturn(new ShippingService.Zone("Hồ Chí Minh", Region.SOUTH, ShippingService.Area.METRO));
+        when(shippingService.isFreeOrder(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checkoutStatementCountDoesNotGrowWithCartSize() {
+        Vendor north = fixtures.vendor(Region.NORTH);
+        Vendor south = fixtures.vendor(Region.SOUTH);
+        checkout(north, south, 1); // Fetches the first block of pooled sub-order/item ids
+
+        long smallCart = checkout(north, south, 1);
+        long largeCart = checkout(north, south, 8);
+
+        // Sub-orders and items go out as one batch each, whatever their number
+        assertThat(largeCart).isEqualTo(smallCart);
+        assertThat(statistics().getEntityInsertCount()).isEqualTo(1 + 2 + 16);
+    }
+
+    @Test
+    void checkoutClearsCartWithSingleBulkDelete() {
+        Vendor vendor = fixtures.vendor(Region.CENTRAL);
+        User customer = fixtures.user(UserRole.CUSTOMER);
+        Address address = fixtures.address(customer);
+        Cart cart = fixtures.cart(customer, products(vendor, 3).toArray(Product[]::new));
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        Fixtures.signIn(customer);
+        OrderResponse response = orderService.createOrder(orderRequest(address), null);
+        entityManager.flush();
+
+        assertThat(response.getSubOrders()).hasSize(1);
+        assertThat(response.getTotalAmount()).isEqualByComparingTo(UNIT_PRICE.multiply(BigDecimal.valueOf(6)));
+        assertThat(statistics().getEntityDeleteCount()).isZero();
+        assertThat(entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(ci) FROM CartItem ci WHERE ci.cart.id = :cartId", Long.class)
+                .setParameter("cartId", cart.getId())
+                .getSingleResult()).isZero();
+    }
+
+    @Test
+    void customerOrderHistoryStatementCountDoesNotGrowWithOrders() {
+        Vendor north = fixtures.vendor(Region.NORTH);
+        Vendor south = fixtures.vendor(Region.SOUTH);
+        User oneOrder = customerWithOrders(1, north, south);
+        User fiveOrders = customerWithOrders(5, north, south);
+
+        long oneOrderStatements = historyStatements(oneOrder, 1);
+        long fiveOrdersStatements = historyStatements(fiveOrders, 5);
+
+        assertThat(fiveOrdersStatements).isEqualTo(oneOrderStatements);
+    }
+
+    @Test
+    void vendorOrderHistoryStatementCountDoesNotGrowWithOrders() {
+        Vendor oneOrder = fixtures.vendor(Region.NORTH);
+        Vendor fiveOrders = fixtures.vendor(Region.SOUTH);
+        customerWithOrders(1, oneOrder);
+        customerWithOrders(5, fiveOrders);
+
+        long oneOrderStatements = historyStatements(oneOrder.getUser(), 1);
+        long fiveOrdersStatements = historyStatements(fiveOrders.getUser(), 5);
+
+        assertThat(fiveOrdersStatements).isEqualTo(oneOrderStatements);
+    }
+
+    @Test
+    void bulkStatusUpdateReportsIdsInRequestOrder() {
+        Vendor vendor = fixtures.vendor(Region.CENTRAL);
+        for (int i = 0; i < 4; i++) {
+            customerWithOrders(1, vendor);
+        }
+        List<Long> ids = entityManager.getEntityManager()
+                .createQuery("SELECT s.id FROM SubOrder s WHERE s.vendor.id = :vendorId ORDER BY s.id", Long.class)
+                .setParameter("vendorId", vendor.getId())
+                .getResultList();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE SubOrder s SET s.status = :status WHERE s.id = :id")
+                .setParameter("status", SubOrderStatus.CANCELLED)
+                .setParameter("id", ids.get(3))
+                .executeUpdate();
+
+        when(notificationService.buildCustomerOrderUpdate(any(), any()))
+                .thenReturn(OrderStatusUpdateNotification.builder().build());
+
+        Fixtures.signIn(vendor.getUser());
+        BulkUpdateSubOrderStatusResponse response = orderService.bulkUpdateSubOrderStatus(
+                BulkUpdateSubOrderStatusRequest.builder()
+                        .subOrderIds(List.of(ids.get(2), ids.get(0), ids.get(3), ids.get(1)))
+                        .status(SubOrderStatus.COOKING)
+                        .build());
+
+        assertThat(response.getUpdatedIds()).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+        assertThat(response.getSkippedIds()).containsExactly(ids.get(3));
+    }
+
+    /**
+     * A new customer who has placed {@code orders} orders, each with two products of every vendor
+     */
+    private User customerWithOrders(int orders, Vendor... vendors) {
+        User customer = fixtures.user(UserRole.CUSTOMER);
+        Address address = fixtures.address(customer);
+        Cart cart = fixtures.cart(customer);
+        for (int i = 0; i < orders; i++) {
+            for (Vendor vendor : vendors) {
+                fixtures.fill(cart, products(vendor, 2).toArray(Product[]::new));
+            }
+            entityManager.flush();
+            Fixtures.signIn(customer);
+            orderService.createOrder(orderRequest(address), null);
+            entityManager.flush();
+            entityManager.clear();
+            cart = entityManager.find(Cart.class, cart.getId());
+        }
+        return customer;
+    }
+
+    /**
+     * Load the user's order history and return the number of JDBC statements it took
+     */
+    private long historyStatements(User user, int expectedOrders) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        Fixtures.signIn(user);
+        List<OrderResponse> history = orderService.getOrders();
+
+        assertThat(history).hasSize(expectedOrders);
+        assertThat(history).allSatisfy(order -> assertThat(order.getSubOrders())
+                .allSatisfy(subOrder -> assertThat(subOrder.getItems()).hasSize(2)));
+        return statistics().getPrepareStatementCount();
+    }
+
+    /**
+     * Check out a new customer's cart of {@code itemsPerVendor} products from each vendor and
+     * return the number of JDBC statements it took
+     */
+    private long checkout(Vendor first, Vendor second, int itemsPerVendor) {
+        User customer = fixtures.user(UserRole.CUSTOMER);
+        Address address = fixtures.address(customer);
+        List<Product> products = new ArrayList<>(products(first, itemsPerVendor));
+        products.addAll(products(second, itemsPerVendor));
+        fixtures.cart(customer, products.toArray(Product[]::new));
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        Fixtures.signIn(customer);
+        orderService.createOrder(orderRequest(address), null);
+        entityManager.flush();
+        return statistics().getPrepareStatementCount();
+    }
+
+    private List<Product> products(Vendor vendor, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(fixtures.product(vendor, ProductCategory.MAIN_DISH, UNIT_PRICE));
+        }
+        return products;
+    }
+
+    private static CreateOrderRequest orderRequest(Address address) {
+        return CreateOrderRequest.builder()
+                .addressId(address.getId())
+                .paymentMethod(PaymentMethod.COD)
+                .build();
+    }
+}
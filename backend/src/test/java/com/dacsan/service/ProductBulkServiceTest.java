@@ -0,0 +1,135 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.ProductImportResponse;
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.entity.Variant;
+import com.dacsan.entity.VariantGroup;
+import com.dacsan.entity.Vendor;
+import com.dacsan.support.DatabaseTest;
+import com.dacsan.support.Fixtures;
+import com.dacsan.util.CsvReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@Import(ProductBulkService.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class ProductBulkServiceTest extends DatabaseTest {
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private WalletService walletService;
+
+    private Fixtures fixtures;
+    private Vendor vendor;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(entityManager);
+        vendor = fixtures.vendor(Region.SOUTH);
+        Fixtures.signIn(vendor.getUser());
+        when(walletService.getVendorBalance(anyLong())).thenReturn(new BigDecimal("1000000"));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void nullElementsInNdjsonAreRowErrors() throws IOException {
+        String product = "\"name\":\"Bánh tráng\",\"basePrice\":20000,\"region\":\"SOUTH\",\"category\":\"SNACK\"";
+        String ndjson = String.join("\n",
+                "{" + product + "}",
+                "{" + product + ",\"variantGroups\":[null]}",
+                "{" + product + ",\"variantGroups\":[{\"name\":\"Size\",\"variants\":[null]}]}",
+                "{" + product + ",\"images\":[null]}",
+                "null",
+                "{" + product + ",\"variantGroups\":[{\"name\":\"Size\",\"variants\":[{\"name\":\"Lớn\"}]}]}");
+
+        ProductImportResponse response = productBulkService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductBulkService.Format.NDJSON);
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getErrors()).containsExactly(
+                new ProductImportResponse.RowError(2, "Variant group must not be null"),
+                new ProductImportResponse.RowError(3, "Variant must not be null"),
+                new ProductImportResponse.RowError(4, "Image URL must not be null"),
+                new ProductImportResponse.RowError(5, "Invalid JSON: expected an object, got null"));
+    }
+
+    @Test
+    void groupWithoutVariantsIsLeftOutOfTheExport() throws IOException {
+        Product product = fixtures.product(vendor, ProductCategory.SNACK, new BigDecimal("35000"));
+        product.getVariantGroups().add(group(product, "Size", 0, "Nhỏ", "Lớn"));
+        product.getVariantGroups().add(group(product, "Topping", 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        productBulkService.exportProducts(ProductBulkService.Format.CSV).writeTo(csv);
+        String exported = csv.toString(StandardCharsets.UTF_8);
+
+        CsvReader reader = new CsvReader(new BufferedReader(new StringReader(exported)));
+        List<String> header = reader.next();
+        List<String> row = reader.next();
+        assertThat(row.get(header.indexOf("variants"))).isEqualTo("Size=Nhỏ:0.00|Lớn:0.00");
+        assertThat(reader.next()).isNull();
+
+        ProductImportResponse reimported = productBulkService.importProducts(
+                new ByteArrayInputStream(csv.toByteArray()), ProductBulkService.Format.CSV);
+        assertThat(reimported.getFailed()).isZero();
+        assertThat(reimported.getCreated()).isEqualTo(1);
+    }
+
+    private VariantGroup group(Product product, String name, int displayOrder, String... variants) {
+        VariantGroup group = VariantGroup.builder()
+                .product(product)
+                .name(name)
+                .isMultiSelect(false)
+                .isRequired(false)
+                .displayOrder(displayOrder)
+                .variants(new ArrayList<>())
+                .build();
+        for (int i = 0; i < variants.length; i++) {
+            group.getVariants().add(Variant.builder()
+                    .variantGroup(group)
+                    .name(variants[i])
+                    .priceAdjustment(BigDecimal.ZERO)
+                    .available(true)
+                    .displayOrder(i)
+                    .build());
+        }
+        return entityManager.persist(group);
+    }
+}
@@ -0,0 +1,159 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.FacetCountsResponse;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductFacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        facetService = new ProductFacetService(productRepository, meterRegistry);
+    }
+
+    @Test
+    void facetsAreSummedOverTheFilteredCells() {
+        when(productRepository.findAllFacetRows()).thenReturn(List.of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true),
+                facetRow(2L, 10L, Region.NORTH, ProductCategory.DESSERT, true),
+                facetRow(3L, 10L, Region.SOUTH, ProductCategory.MAIN_DISH, false),
+                facetRow(4L, 20L, Region.CENTRAL, ProductCategory.MAIN_DISH, true)));
+        facetService.loadAll();
+
+        FacetCountsResponse all = facetService.getFacets(null, null, null, null);
+        assertThat(all.getTotal()).isEqualTo(4);
+        assertThat(all.getRegions()).containsEntry(Region.NORTH, 2L)
+                .containsEntry(Region.CENTRAL, 1L)
+                .containsEntry(Region.SOUTH, 1L);
+        assertThat(all.getCategories()).containsEntry(ProductCategory.MAIN_DISH, 3L)
+                .containsEntry(ProductCategory.DESSERT, 1L)
+                .containsEntry(ProductCategory.DRINK, 0L);
+
+        // A filter narrows the other facet and the total, not its own facet
+        FacetCountsResponse mainDishes = facetService.getFacets(null, ProductCategory.MAIN_DISH, null, null);
+        assertThat(mainDishes.getTotal()).isEqualTo(3);
+        assertThat(mainDishes.getRegions()).containsEntry(Region.NORTH, 1L);
+        assertThat(mainDishes.getCategories()).containsEntry(ProductCategory.DESSERT, 1L);
+
+        FacetCountsResponse vendorAvailable = facetService.getFacets(Region.NORTH, null, true, 10L);
+        assertThat(vendorAvailable.getTotal()).isEqualTo(2);
+        assertThat(vendorAvailable.getRegions()).containsEntry(Region.SOUTH, 0L);
+
+        FacetCountsResponse unknownVendor = facetService.getFacets(null, null, null, 99L);
+        assertThat(unknownVendor.getTotal()).isZero();
+        assertThat(unknownVendor.getRegions()).containsEntry(Region.NORTH, 0L);
+    }
+
+    @Test
+    void loadAllAppliesChangesCommittedWhileCounting() {
+        when(productRepository.findAllFacetRows()).thenReturn(List.<Object[]>of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true)));
+        when(productRepository.findIdsUpdatedSince(any())).thenReturn(List.of(1L, 2L));
+        when(productRepository.findFacetRowsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.SNACK, true),
+                facetRow(2L, 10L, Region.NORTH, ProductCategory.SNACK, false)));
+
+        facetService.loadAll();
+
+        FacetCountsResponse facets = facetService.getFacets(null, null, null, 10L);
+        assertThat(facets.getTotal()).isEqualTo(2);
+        assertThat(facets.getCategories()).containsEntry(ProductCategory.SNACK, 2L)
+                .containsEntry(ProductCategory.MAIN_DISH, 0L);
+    }
+
+    @Test
+    void refreshMovesChangedProductsAndRemovesDeletedOnes() {
+        when(productRepository.findAllFacetRows()).thenReturn(List.of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true),
+                facetRow(2L, 10L, Region.NORTH, ProductCategory.DRINK, true)));
+        facetService.loadAll();
+
+        // 1 became unavailable, 2 was deleted, 3 is new
+        when(productRepository.findFacetRowsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, false),
+                facetRow(3L, 20L, Region.SOUTH, ProductCategory.DRINK, true)));
+        facetService.refresh(List.of(1L, 2L, 3L));
+
+        assertThat(facetService.getFacets(null, null, null, null).getTotal()).isEqualTo(2);
+        assertThat(facetService.getFacets(null, null, true, 10L).getTotal()).isZero();
+        assertThat(facetService.getFacets(null, null, false, 10L).getTotal()).isEqualTo(1);
+        assertThat(facetService.getFacets(null, ProductCategory.DRINK, null, null).getRegions())
+                .containsEntry(Region.NORTH, 0L)
+                .containsEntry(Region.SOUTH, 1L);
+
+        // Refreshing an unchanged product doesn't count it twice
+        when(productRepository.findFacetRowsByIdIn(List.of(3L))).thenReturn(List.<Object[]>of(
+                facetRow(3L, 20L, Region.SOUTH, ProductCategory.DRINK, true)));
+        facetService.refresh(List.of(3L));
+        assertThat(facetService.getFacets(null, null, null, 20L).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileRebuildsAndCountsDrift() {
+        when(productRepository.findAllFacetRows()).thenReturn(
+                List.of(facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true),
+                        facetRow(2L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true)),
+                List.<Object[]>of(facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true),
+                        facetRow(5L, 30L, Region.CENTRAL, ProductCategory.DESSERT, true)));
+        facetService.loadAll();
+
+        // Product 2 was deleted and product 5 created on another node without a polled updated_at
+        when(productRepository.countByFacets()).thenReturn(List.of(
+                countRow(10L, Region.NORTH, ProductCategory.MAIN_DISH, true, 1),
+                countRow(30L, Region.CENTRAL, ProductCategory.DESSERT, true, 1)));
+        facetService.reconcile();
+
+        assertThat(meterRegistry.counter("product.facets.drift").count()).isEqualTo(2.0);
+        assertThat(facetService.getFacets(null, null, null, 10L).getTotal()).isEqualTo(1);
+        assertThat(facetService.getFacets(null, null, null, 30L).getTotal()).isEqualTo(1);
+        verify(productRepository, times(2)).findAllFacetRows();
+    }
+
+    @Test
+    void reconcileLeavesMatchingCountsAlone() {
+        when(productRepository.findAllFacetRows()).thenReturn(List.of(
+                facetRow(1L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true),
+                facetRow(2L, 10L, Region.NORTH, ProductCategory.MAIN_DISH, true)));
+        facetService.loadAll();
+
+        when(productRepository.countByFacets()).thenReturn(List.<Object[]>of(
+                countRow(10L, Region.NORTH, ProductCategory.MAIN_DISH, true, 2)));
+        facetService.reconcile();
+
+        assertThat(meterRegistry.counter("product.facets.drift").count()).isZero();
+        verify(productRepository, times(1)).findAllFacetRows();
+    }
+
+    private static Object[] facetRow(Long productId, Long vendorId, Region region, ProductCategory category,
+            boolean available) {
+        return new Object[] {productId, vendorId, region, category, available};
+    }
+
+    private static Object[] countRow(Long vendorId, Region region, ProductCategory category, boolean available,
+            long count) {
+        return new Object[] {vendorId, region, category, available, count};
+    }
+}
@@ -0,0 +1,76 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchService = new ProductSearchService(productRepository, 0, meterRegistry);
+        when(productRepository.findAllSearchRows()).thenReturn(List.of(
+                searchRow(1L, "Phở bò Nam Định"),
+                searchRow(2L, "Phở gà Hà Nội")));
+        searchService.loadAll();
+    }
+
+    @Test
+    void reconcileEvictsProductsDeletedElsewhereAndIndexesMissingOnes() {
+        assertThat(search("pho")).isEqualTo(new ProductSearchService.SearchResult(List.of(2L, 1L), 2));
+
+        // 2 was deleted and 3 created on another node, neither with an updated_at left to poll
+        when(productRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+        when(productRepository.findSearchRowsByIdIn(Set.of(2L, 3L))).thenReturn(List.<Object[]>of(
+                searchRow(3L, "Phở cuốn")));
+        searchService.reconcile();
+
+        assertThat(search("pho")).isEqualTo(new ProductSearchService.SearchResult(List.of(3L, 1L), 2));
+        assertThat(search("ga").total()).isZero();
+        assertThat(meterRegistry.counter("product.search.drift").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void reconcileLeavesMatchingIndexAlone() {
+        when(productRepository.findAllIds()).thenReturn(List.of(2L, 1L));
+        searchService.reconcile();
+
+        assertThat(meterRegistry.counter("product.search.drift").count()).isZero();
+        verify(productRepository, never()).findSearchRowsByIdIn(any());
+        assertThat(search("pho").total()).isEqualTo(2);
+    }
+
+    private ProductSearchService.SearchResult search(String query) {
+        return searchService.search(query, null, null, null, null, 0, 10);
+    }
+
+    /**
+     * Row: id, name, description, vendor id, vendor store name, region, category, available, soldCount
+     */
+    private static Object[] searchRow(Long id, String name) {
+        return new Object[] {id, name, null, 10L, "Quán Test", Region.NORTH, ProductCategory.MAIN_DISH, true, 0};
+    }
+}
@@ -0,0 +1,157 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.CursorPageResponse;
+import com.dacsan.dto.response.ProductResponse;
+import com.dacsan.entity.Product;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.entity.Vendor;
+import com.dacsan.repository.ProductSortKey;
+import com.dacsan.support.DatabaseTest;
+import com.dacsan.support.Fixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@Import(ProductService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ProductServiceTest extends DatabaseTest {
+
+    private static final int PRODUCTS = 12;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private WalletService walletService;
+    @MockBean
+    private ProductSearchService productSearchService;
+    @MockBean
+    private ProductCatalogCache productCatalogCache;
+
+    private Vendor vendor;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = new Fixtures(entityManager);
+        vendor = fixtures.vendor(Region.NORTH);
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = fixtures.product(vendor, ProductCategory.values()[i % 5],
+                    BigDecimal.valueOf(10000 + i * 1000L));
+            product.getImages().add("https://img.test/" + i + "/1.jpg");
+            product.getImages().add("https://img.test/" + i + "/2.jpg");
+            products.add(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingPageTakesSelectCountAndOneImageQuery() {
+        for (int size : new int[] {2, 10}) {
+            statistics().clear();
+
+            Page<ProductResponse> page = productService.getAllProducts(null, null, vendor.getId(), null, null,
+                    PageRequest.of(0, size, Sort.by("id")));
+
+            assertThat(page.getContent()).hasSize(size)
+                    .allSatisfy(product -> {
+                        assertThat(product.getVendorName()).isEqualTo(vendor.getStoreName());
+                        assertThat(product.getImages()).hasSize(2);
+                    });
+            assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+            assertThat(statistics().getPrepareStatementCount()).as("statements for a page of %d", size).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void cursorPagesWalkTheListingWithoutGapsOrRepeats() {
+        walk(ProductSortKey.BASE_PRICE, Sort.Direction.DESC);
+        walk(ProductSortKey.SOLD_COUNT, Sort.Direction.ASC); // All equal: ordered by id alone
+        walk(ProductSortKey.CREATED_AT, Sort.Direction.DESC);
+    }
+
+    @Test
+    void detailEtagDependsOnContentOnly() {
+        when(productCatalogCache.getProduct(anyLong(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, ProductCatalogCache.ProductDetail>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+        Long productId = products.get(0).getId();
+
+        String etag = productService.getProductDetail(productId).etag();
+        entityManager.clear();
+        String rebuilt = productService.getProductDetail(productId).etag();
+        entityManager.find(Vendor.class, vendor.getId()).setStoreName("Renamed store"); // Product row unchanged
+        entityManager.flush();
+        entityManager.clear();
+        String renamed = productService.getProductDetail(productId).etag();
+
+        assertThat(etag).matches("\"" + productId + "-\\p{XDigit}+-\\p{XDigit}{16}\"");
+        assertThat(rebuilt).isEqualTo(etag);
+        assertThat(renamed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void searchPageTakesProductAndImageQueries() {
+        List<Long> hits = List.of(products.get(7).getId(), products.get(2).getId(), products.get(11).getId());
+        when(productSearchService.search(eq("pho"), any(), any(), any(), any(), anyLong(), anyInt()))
+                .thenReturn(new ProductSearchService.SearchResult(hits, 3));
+        statistics().clear();
+
+        Page<ProductResponse> page = productService.getAllProducts(null, null, null, null, "pho",
+                PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(ProductResponse::getId).containsExactlyElementsOf(hits);
+        assertThat(page.getContent()).allSatisfy(product -> assertThat(product.getImages()).hasSize(2));
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Follow nextCursor through pages of 5 and compare with the same ORDER BY in one query
+     */
+    private void walk(ProductSortKey sortKey, Sort.Direction direction) {
+        List<Long> expected = entityManager.getEntityManager()
+                .createQuery("SELECT p.id FROM Product p WHERE p.vendor.id = :vendorId ORDER BY p." + sortKey.getProperty()
+                        + " " + direction + ", p.id " + direction, Long.class)
+                .setParameter("vendorId", vendor.getId())
+                .getResultList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics().clear();
+            CursorPageResponse<ProductResponse> page = productService.getProductsPage(null, null, vendor.getId(), null,
+                    null, cursor, 5, sortKey, direction);
+            assertThat(statistics().getPrepareStatementCount()).isEqualTo(2); // No COUNT
+            page.getItems().forEach(product -> walked.add(product.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).as("%s %s", sortKey, direction).containsExactlyElementsOf(expected);
+    }
+}
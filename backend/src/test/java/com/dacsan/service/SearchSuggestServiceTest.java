@@ -0,0 +1,84 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.SuggestionResponse;
+import com.dacsan.entity.ProductCategory;
+import com.dacsan.entity.Region;
+import com.dacsan.repository.ProductRepository;
+import com.dacsan.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchSuggestServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private VendorRepository vendorRepository;
+
+    private SearchSuggestService suggestService;
+
+    @BeforeEach
+    void setUp() {
+        suggestService = new SearchSuggestService(productRepository, vendorRepository, 10);
+    }
+
+    @Test
+    void reconcileDropsProductsAndStoresDeletedElsewhere() {
+        when(productRepository.findAllSearchRows()).thenReturn(
+                List.of(productRow(1L, "Phở bò", 10L, 7), productRow(2L, "Phở gà", 20L, 3)),
+                List.<Object[]>of(productRow(1L, "Phở bò", 10L, 7)));
+        when(vendorRepository.findAllSuggestionRows()).thenReturn(
+                List.of(vendorRow(10L, "Phở Thìn", 7), vendorRow(20L, "Phở Gà Hàng Đồng", 3)),
+                List.<Object[]>of(vendorRow(10L, "Phở Thìn", 7)));
+        suggestService.loadAll();
+        assertThat(texts("pho")).containsExactly("Phở bò", "Phở Thìn", "Phở gà", "Phở Gà Hàng Đồng");
+
+        // Product 2 and its store were deleted on another node: nothing to poll
+        suggestService.reconcile();
+
+        assertThat(texts("pho")).containsExactly("Phở bò", "Phở Thìn");
+        assertThat(texts("ga")).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringTheRebuildAreApplied() {
+        when(productRepository.findAllSearchRows()).thenReturn(List.<Object[]>of(productRow(1L, "Bún chả", 10L, 1)));
+        when(productRepository.findIdsUpdatedSince(any())).thenReturn(List.of(1L));
+        when(productRepository.findSearchRowsByIdIn(List.of(1L))).thenReturn(
+                List.<Object[]>of(productRow(1L, "Bún chả Hà Nội", 10L, 1)));
+        when(vendorRepository.findSuggestionRowsByIdIn(any())).thenReturn(
+                List.<Object[]>of(vendorRow(10L, "Bún Chả Hương Liên", 1)));
+
+        suggestService.reconcile();
+
+        assertThat(texts("bun cha")).containsExactly("Bún chả Hà Nội", "Bún Chả Hương Liên");
+    }
+
+    private List<String> texts(String query) {
+        return suggestService.suggest(query, 10).stream().map(SuggestionResponse::getText).toList();
+    }
+
+    /**
+     * Row: id, name, description, vendor id, vendor store name, region, category, available, soldCount
+     */
+    private static Object[] productRow(Long id, String name, Long vendorId, int soldCount) {
+        return new Object[] {id, name, null, vendorId, "Store", Region.NORTH, ProductCategory.MAIN_DISH, true, soldCount};
+    }
+
+    /**
+     * Row: id, store name, active, verified, units sold
+     */
+    private static Object[] vendorRow(Long id, String storeName, long sold) {
+        return new Object[] {id, storeName, true, true, sold};
+    }
+}
@@ -0,0 +1,48 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.Region;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShippingServiceTest {
+
+    private final ShippingService shippingService = new ShippingService(
+            new BigDecimal("30000"), new BigDecimal("20000"), new BigDecimal("35000"),
+            new BigDecimal("5000"), new BigDecimal("10000"), new BigDecimal("100000"), BigDecimal.ZERO);
+
+    @Test
+    void resolvesProvinceNamesAndAliasesInAnySpelling() {
+        assertThat(shippingService.resolveZone("Quận 1, TP.HCM").province()).isEqualTo("Hồ Chí Minh");
+        assertThat(shippingService.resolveZone("ha noi").province()).isEqualTo("Hà Nội");
+        assertThat(shippingService.resolveZone("Thành phố Đà Nẵng").province()).isEqualTo("Đà Nẵng");
+        assertThat(shippingService.resolveZone("TP Vinh, Nghệ An").province()).isEqualTo("Nghệ An");
+        assertThat(shippingService.resolveZone("Vĩnh Long").province()).isEqualTo("Vĩnh Long");
+    }
+
+    @Test
+    void ambiguousShortNamesDoNotPickAProvince() {
+        // dn: Đà Nẵng or Đồng Nai; hn: Hà Nội or Hà Nam; vinh: the city of Vinh or Vĩnh Long/Vĩnh Phúc
+        for (String city : new String[] {"dn", "hn", "sg", "vinh"}) {
+            ShippingService.Zone zone = shippingService.resolveZone(city);
+            assertThat(zone.province()).as(city).isNull();
+            assertThat(zone.area()).isEqualTo(ShippingService.Area.STANDARD);
+        }
+    }
+
+    @Test
+    void feeIsAreaTierPlusRegionDistance() {
+        ShippingService.Zone hanoi = shippingService.resolveZone("Hà Nội");
+
+        assertThat(shippingService.quoteSubOrder(Region.NORTH, hanoi, new BigDecimal("50000")))
+                .isEqualByComparingTo("30000");
+        assertThat(shippingService.quoteSubOrder(Region.CENTRAL, hanoi, new BigDecimal("50000")))
+                .isEqualByComparingTo("35000");
+        assertThat(shippingService.quoteSubOrder(Region.SOUTH, hanoi, new BigDecimal("50000")))
+                .isEqualByComparingTo("40000");
+        assertThat(shippingService.quoteSubOrder(Region.SOUTH, shippingService.resolveZone("dn"), new BigDecimal("50000")))
+                .isEqualByComparingTo("20000");
+    }
+}
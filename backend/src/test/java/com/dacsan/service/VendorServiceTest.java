@@ -0,0 +1,79 @@
+package com.dacsan.service;
+
+import com.dacsan.dto.response.VendorResponse;
+import com.dacsan.entity.Region;
+import com.dacsan.entity.User;
+import com.dacsan.entity.Vendor;
+import com.dacsan.repository.SubOrderRepository;
+import com.dacsan.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VendorServiceTest {
+
+    @Mock
+    private VendorRepository vendorRepository;
+    @Mock
+    private SubOrderRepository subOrderRepository;
+    @Mock
+    private WalletService walletService;
+
+    @InjectMocks
+    private VendorService vendorService;
+
+    private Vendor vendor;
+
+    @BeforeEach
+    void setUp() {
+        vendor = Vendor.builder()
+                .id(3L)
+                .user(User.builder().id(30L).build())
+                .storeName("Bếp Huế")
+                .region(Region.CENTRAL)
+                .active(true)
+                .verified(true)
+                .build();
+    }
+
+    @Test
+    void publicViewsLeaveOutTheWalletBalance() {
+        when(vendorRepository.findAll()).thenReturn(List.of(vendor));
+        when(vendorRepository.findById(3L)).thenReturn(Optional.of(vendor));
+
+        List<VendorResponse> all = vendorService.getAllVendors();
+        List<VendorResponse> central = vendorService.getVendorsByRegion(Region.CENTRAL);
+        VendorResponse byId = vendorService.getVendorById(3L);
+
+        assertThat(all).singleElement().extracting(VendorResponse::getBalance).isNull();
+        assertThat(central).singleElement().extracting(VendorResponse::getBalance).isNull();
+        assertThat(byId.getBalance()).isNull();
+        assertThat(byId.getStoreName()).isEqualTo("Bếp Huế");
+        verifyNoInteractions(walletService);
+    }
+
+    @Test
+    void ownProfileIncludesTheWalletBalance() {
+        when(vendorRepository.findByUserId(30L)).thenReturn(Optional.of(vendor));
+        when(walletService.getVendorBalance(anyLong())).thenReturn(new BigDecimal("125000.00"));
+
+        VendorResponse own = vendorService.getVendorByUserId(30L);
+
+        assertThat(own.getBalance()).isEqualByComparingTo("125000");
+        verify(walletService).getVendorBalance(3L);
+    }
+}
@@ -0,0 +1,166 @@
+package com.dacsan.service;
+
+import com.dacsan.entity.LedgerEntryType;
+import com.dacsan.support.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(WalletService.class)
+@TestPropertySource(properties = {
+        "app.wallet.platform-stripes=4",
+        "app.wallet.snapshot-batch-size=100"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Writers and roll-ups must really commit, concurrently
+class WalletServiceTest extends DatabaseTest {
+
+    private static final int WRITERS = 8;
+    private static final int SNAPSHOTTERS = 2;
+    private static final int ENTRIES_PER_WRITER = 150;
+    private static final List<Long> VENDOR_IDS = List.of(1L, 2L, 3L);
+    private static final BigDecimal EARNING = new BigDecimal("12.34");
+    private static final BigDecimal FEE = new BigDecimal("-1.50");
+    private static final BigDecimal COMMISSION = new BigDecimal("0.66");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void emptyLedger() {
+        // Written by native queries only, so the entity-generated schema lacks it (see V15)
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS wallet_snapshots (" +
+                "account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, " +
+                "balance DECIMAL(19,2) NOT NULL, " +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (account_type, account_id))");
+        jdbcTemplate.update("DELETE FROM wallet_snapshots");
+        jdbcTemplate.update("DELETE FROM wallet_ledger");
+    }
+
+    @Test
+    void balancesStayExactWhileEntriesAreRolledUpConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + SNAPSHOTTERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger rollUps = new AtomicInteger();
+        try {
+            // Two roll-ups at once, as on two nodes
+            List<Future<?>> snapshotters = new ArrayList<>();
+            for (int s = 0; s < SNAPSHOTTERS; s++) {
+                snapshotters.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        walletService.rollUpSnapshots();
+                        rollUps.incrementAndGet();
+                        Thread.sleep(20);
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < ENTRIES_PER_WRITER; i++) {
+                        Long vendorId = VENDOR_IDS.get(i % VENDOR_IDS.size());
+                        String reference = Thread.currentThread().getName() + "-" + i;
+                        walletService.recordVendorEntry(vendorId, LedgerEntryType.ORDER_EARNING, EARNING, reference);
+                        walletService.recordVendorEntry(vendorId, LedgerEntryType.LISTING_FEE, FEE, reference);
+                        walletService.recordPlatformCommission(COMMISSION, reference);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(2, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<?> snapshotter : snapshotters) {
+                snapshotter.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rollUps).hasPositiveValue();
+        assertBalances();
+
+        // A last roll-up folds everything into the snapshots, and the balances still add up
+        walletService.rollUpSnapshots();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wallet_snapshots", Integer.class))
+                .isEqualTo(VENDOR_IDS.size() + 4);
+        assertThat(unfoldedEntries()).isZero();
+        assertBalances();
+    }
+
+    @Test
+    void entryCommittedAfterALaterOneWasFoldedIsStillCounted() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Takes the lower id, then stays open (a lock wait, a slow chunk) while others commit
+            Future<?> slow = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                walletService.recordVendorEntry(1L, LedgerEntryType.ORDER_EARNING, new BigDecimal("100.00"), "slow");
+                inserted.countDown();
+                try {
+                    commit.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(inserted.await(1, TimeUnit.MINUTES)).isTrue();
+
+            walletService.recordVendorEntry(1L, LedgerEntryType.ORDER_EARNING, new BigDecimal("20.00"), "fast");
+            walletService.rollUpSnapshots();
+            assertThat(walletService.getVendorBalance(1L)).isEqualByComparingTo("20.00");
+
+            commit.countDown();
+            slow.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(walletService.getVendorBalance(1L)).isEqualByComparingTo("120.00");
+        walletService.rollUpSnapshots();
+        assertThat(unfoldedEntries()).isZero();
+        assertThat(walletService.getVendorBalance(1L)).isEqualByComparingTo("120.00");
+    }
+
+    private int unfoldedEntries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wallet_ledger WHERE folded = FALSE", Integer.class);
+    }
+
+    private void assertBalances() {
+        for (int v = 0; v < VENDOR_IDS.size(); v++) {
+            long entries = (long) WRITERS * ((ENTRIES_PER_WRITER - v + VENDOR_IDS.size() - 1) / VENDOR_IDS.size());
+            BigDecimal expected = EARNING.add(FEE).multiply(BigDecimal.valueOf(entries));
+            assertThat(walletService.getVendorBalance(VENDOR_IDS.get(v))).isEqualByComparingTo(expected);
+        }
+        assertThat(walletService.getPlatformBalance())
+                .isEqualByComparingTo(COMMISSION.multiply(BigDecimal.valueOf((long) WRITERS * ENTRIES_PER_WRITER)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.dacsan.support;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * One embedded MariaDB per test JVM, the same MySQL stand-in backend-loadtest uses, so native
+ * queries and the MySQL dialect are tested as they run in production.
+ */
+public final class EmbeddedMariaDb {
+
+    private static final String DATABASE = "dacsan_test";
+
+    private static String jdbcUrl;
+
+    private EmbeddedMariaDb() {
+    }
+
+    public static synchronized String jdbcUrl() {
+        if (jdbcUrl == null) {
+            try {
+                DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+                config.setPort(0);
+                config.addArg("--character-set-server=utf8mb4"); // MySQL 8's default, Vietnamese text needs it
+                config.addArg("--collation-server=utf8mb4_unicode_ci");
+                if ("root".equals(System.getProperty("user.name"))) {
+                    // mysqld refuses to run as root (e.g. in CI containers) unless told to
+                    config.addArg("--user=root");
+                }
+                DB db = DB.newEmbeddedDB(config.build());
+                db.start(); // Stopped by mariaDB4j's shutdown hook
+                db.createDB(DATABASE);
+                jdbcUrl = "jdbc:mysql://localhost:" + db.getConfiguration().getPort() + "/" + DATABASE
+                        + "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+            } catch (ManagedProcessException e) {
+                throw new IllegalStateException("Could not start embedded MariaDB", e);
+            }
+        }
+        return jdbcUrl;
+    }
+}
@@ -0,0 +1,105 @@
+package com.dacsan.support;
+
+import com.dacsan.entity.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Persists the entities tests build on, with every required column filled in
+ */
+public final class Fixtures {
+
+    private final TestEntityManager entityManager;
+
+    public Fixtures(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public User user(UserRole role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID();
+        return entityManager.persist(User.builder()
+                .fullName(name)
+                .email(name + "@dacsan.test")
+                .password("{noop}secret")
+                .role(role)
+                .active(true)
+                .build());
+    }
+
+    public Vendor vendor(Region region) {
+        User owner = user(UserRole.VENDOR);
+        return entityManager.persist(Vendor.builder()
+                .user(owner)
+                .storeName("Store of " + owner.getFullName())
+                .region(region)
+                .address("1 Test Street")
+                .rating(0.0)
+                .totalReviews(0)
+                .active(true)
+                .verified(true)
+                .build());
+    }
+
+    public Product product(Vendor vendor, ProductCategory category, BigDecimal basePrice) {
+        return entityManager.persist(Product.builder()
+                .vendor(vendor)
+                .name("Product " + UUID.randomUUID())
+                .basePrice(basePrice)
+                .region(vendor.getRegion())
+                .category(category)
+                .images(new ArrayList<>())
+                .variantGroups(new ArrayList<>())
+                .available(true)
+                .featured(false)
+                .build());
+    }
+
+    public Address address(User user) {
+        return entityManager.persist(Address.builder()
+                .user(user)
+                .recipientName(user.getFullName())
+                .recipientPhone("0900000000")
+                .addressLine("2 Test Street")
+                .ward("Ward 1")
+                .district("District 1")
+                .city("Hồ Chí Minh")
+                .isDefault(true)
+                .build());
+    }
+
+    public Cart cart(User user, Product... products) {
+        Cart cart = entityManager.persist(Cart.builder()
+                .user(user)
+                .items(new ArrayList<>())
+                .build());
+        return fill(cart, products);
+    }
+
+    /**
+     * Put one line of two of each product into the cart
+     */
+    public Cart fill(Cart cart, Product... products) {
+        for (Product product : products) {
+            cart.getItems().add(entityManager.persist(CartItem.builder()
+                    .cart(cart)
+                    .product(product)
+                    .quantity(2)
+                    .selectedVariants(new ArrayList<>())
+                    .build()));
+        }
+        return cart;
+    }
+
+    /**
+     * Run the code under test as this user (what JwtAuthenticationFilter sets up per request)
+     */
+    public static void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.dacsan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BkTreeTest {
+
+    @Test
+    void distanceCountsTranspositionsAsOneEdit() {
+        assertThat(BkTree.distance("banh", "bahn")).isEqualTo(1);
+        assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+        assertThat(BkTree.distance("", "pho")).isEqualTo(3);
+        assertThat(BkTree.distance("pho", "pho")).isZero();
+        // Unrestricted: editing between the transposed letters is allowed (restricted OSA says 3)
+        assertThat(BkTree.distance("ca", "abc")).isEqualTo(2);
+    }
+
+    @Test
+    void findsWordsWithinDistance() {
+        BkTree tree = tree("banh", "bun", "bo", "pho", "che", "cha", "banh mi");
+
+        assertThat(tree.search("bahn", 1)).containsExactly(new BkTree.Match("banh", 1));
+        assertThat(tree.search("chu", 1)).extracting(BkTree.Match::word).containsExactlyInAnyOrder("che", "cha");
+        assertThat(tree.search("xyz", 1)).isEmpty();
+    }
+
+    @Test
+    void addIgnoresDuplicates() {
+        BkTree tree = new BkTree();
+
+        assertThat(tree.add("pho")).isTrue();
+        assertThat(tree.add("pho")).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(new BkTree().search("pho", 2)).isEmpty();
+    }
+
+    @Test
+    void searchMatchesBruteForce() {
+        Random random = new Random(11);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < 500) {
+            words.add(randomWord(random));
+        }
+        BkTree tree = tree(words.toArray(String[]::new));
+
+        for (int q = 0; q < 50; q++) {
+            String query = randomWord(random);
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                int max = maxDistance;
+                List<BkTree.Match> bruteForce = words.stream()
+                        .map(word -> new BkTree.Match(word, BkTree.distance(query, word)))
+                        .filter(match -> match.distance() <= max)
+                        .toList();
+                assertThat(tree.search(query, maxDistance)).as("'%s' within %d", query, maxDistance)
+                        .containsExactlyInAnyOrderElementsOf(bruteForce);
+            }
+        }
+    }
+
+    private static BkTree tree(String... words) {
+        BkTree tree = new BkTree();
+        for (String word : words) {
+            tree.add(word);
+        }
+        return tree;
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append("abcehimnou".charAt(random.nextInt(10)));
+        }
+        return word.toString();
+    }
+}
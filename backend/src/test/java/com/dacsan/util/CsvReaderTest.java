@@ -0,0 +1,80 @@
+package com.dacsan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = reader("name,description\r\n"
+                + "\"Bánh pía, Sóc Trăng\",\"Nhân \"\"sầu riêng\"\"\nvà trứng muối\"\r\n"
+                + "Nem chua,\n");
+
+        assertThat(reader.next()).containsExactly("name", "description");
+        assertThat(reader.recordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("Bánh pía, Sóc Trăng", "Nhân \"sầu riêng\"\nvà trứng muối");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Nem chua", "");
+        assertThat(reader.recordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        CsvReader reader = reader("a,b\nc,d");
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void unclosedQuoteIsAnError() throws IOException {
+        CsvReader reader = reader("a,b\n\"never closed,c\n");
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    void writerOutputReadsBackUnchanged() throws IOException {
+        List<List<String>> records = List.of(
+                List.of("plain", "with,comma", "with \"quotes\""),
+                List.of("multi\nline", "carriage\r\nreturn", ""),
+                List.of("\"", ",", "Chả cá Lã Vọng"));
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (List<String> record : records) {
+            writer.writeRecord(record);
+        }
+        writer.writeRecord(Arrays.asList("null", null, "field"));
+
+        CsvReader reader = reader(out.toString());
+        List<List<String>> read = new ArrayList<>();
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            read.add(fields);
+        }
+
+        assertThat(read).hasSize(4);
+        assertThat(read.subList(0, 3)).isEqualTo(records);
+        assertThat(read.get(3)).containsExactly("null", "", "field");
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new BufferedReader(new StringReader(csv)));
+    }
+}
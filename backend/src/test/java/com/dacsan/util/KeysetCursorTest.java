@@ -0,0 +1,34 @@
+package com.dacsan.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughItsEncoding() {
+        KeysetCursor cursor = new KeysetCursor("createdAt:2026-10-17T08:30:15.123", 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+"); // URL-safe, no padding
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void sortValueMayContainTheSeparator() {
+        KeysetCursor cursor = new KeysetCursor("name:Bún | Phở", 7L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        String noId = new KeysetCursor("basePrice:10", null).encode();
+        assertThatThrownBy(() -> KeysetCursor.decode(noId)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.dacsan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKPrefixIndexTest {
+
+    private record Item(String name, int score) {
+    }
+
+    private static final Comparator<Item> BEST_FIRST = Comparator.comparingInt(Item::score).reversed()
+            .thenComparing(Item::name);
+
+    private final TopKPrefixIndex<Long, Item> index = new TopKPrefixIndex<>(3, BEST_FIRST);
+
+    @Test
+    void returnsBestCompletionsOfPrefix() {
+        put(1L, "banh mi", 10);
+        put(2L, "banh cuon", 30);
+        put(3L, "bun cha", 50);
+        put(4L, "banh xeo", 20);
+
+        assertThat(names(index.top("banh", 10))).containsExactly("banh cuon", "banh xeo", "banh mi");
+        assertThat(names(index.top("b", 2))).containsExactly("bun cha", "banh cuon");
+        assertThat(index.top("pho", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsAtMostKPerNode() {
+        for (long id = 1; id <= 5; id++) {
+            put(id, "che " + id, (int) id);
+        }
+
+        assertThat(names(index.top("che", 10))).containsExactly("che 5", "che 4", "che 3");
+    }
+
+    @Test
+    void valueUnderSeveralKeysIsListedOnce() {
+        index.put(1L, new Item("banh mi bo", 10), List.of("banh mi bo", "mi bo", "bo"));
+        index.put(2L, new Item("bo kho", 5), List.of("bo kho", "kho"));
+
+        assertThat(names(index.top("", 10))).containsExactly("banh mi bo", "bo kho");
+        assertThat(names(index.top("bo", 10))).containsExactly("banh mi bo", "bo kho");
+    }
+
+    @Test
+    void putReplacesPreviousValueAndKeys() {
+        put(1L, "banh mi", 10);
+        put(1L, "pho bo", 40);
+
+        assertThat(index.top("banh", 10)).isEmpty();
+        assertThat(names(index.top("pho", 10))).containsExactly("pho bo");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedValueMakesRoomForTheNextBest() {
+        for (long id = 1; id <= 4; id++) {
+            put(id, "com " + id, (int) id);
+        }
+
+        index.remove(4L);
+        index.remove(99L); // Unknown ids are ignored
+
+        assertThat(names(index.top("com", 10))).containsExactly("com 3", "com 2", "com 1");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void replaceAllSwapsTheWholeContent() {
+        put(1L, "banh mi", 10);
+
+        index.replaceAll(
+                Map.of(2L, new Item("nem ran", 5), 3L, new Item("nem chua", 7)),
+                Map.of(2L, List.of("nem ran"), 3L, List.of("nem chua")));
+
+        assertThat(index.top("banh", 10)).isEmpty();
+        assertThat(names(index.top("nem", 10))).containsExactly("nem chua", "nem ran");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesBruteForceAfterRandomUpdates() {
+        Random random = new Random(7);
+        Map<Long, Item> expected = new HashMap<>();
+        String[] words = {"banh", "bun", "bo", "bap", "che", "cha", "com"};
+        for (int step = 0; step < 2000; step++) {
+            long id = random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                Item item = new Item(words[random.nextInt(words.length)] + " " + id, random.nextInt(1000));
+                index.put(id, item, List.of(item.name()));
+                expected.put(id, item);
+            }
+        }
+
+        for (String prefix : List.of("", "b", "ba", "bo", "c", "ch", "com", "x")) {
+            List<Item> bruteForce = expected.values().stream()
+                    .filter(item -> item.name().startsWith(prefix))
+                    .sorted(BEST_FIRST)
+                    .limit(3)
+                    .toList();
+            assertThat(index.top(prefix, 3)).as("prefix '%s'", prefix).isEqualTo(bruteForce);
+        }
+    }
+
+    private void put(long id, String name, int score) {
+        index.put(id, new Item(name, score), List.of(name));
+    }
+
+    private static List<String> names(List<Item> items) {
+        List<String> names = new ArrayList<>();
+        items.forEach(item -> names.add(item.name()));
+        return names;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dacsan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VietnameseTextTest {
+
+    @Test
+    void foldsAccentsCaseAndSpacing() {
+        assertThat(VietnameseText.fold("Hà Nội")).isEqualTo("ha noi");
+        assertThat(VietnameseText.fold("Ha Noi")).isEqualTo("ha noi");
+        assertThat(VietnameseText.fold("  HÀ   NỘI ")).isEqualTo("ha noi");
+    }
+
+    @Test
+    void decomposedAndPrecomposedFormsFoldAlike() {
+        String decomposed = Normalizer.normalize("Phở bò Nam Định", Normalizer.Form.NFD);
+
+        assertThat(VietnameseText.fold(decomposed)).isEqualTo("pho bo nam dinh");
+    }
+
+    @Test
+    void mapsDStrokeToD() {
+        assertThat(VietnameseText.fold("Đà Lạt, đặc sản")).isEqualTo("da lat dac san");
+    }
+
+    @Test
+    void punctuationSeparatesWordsAndDigitsStay() {
+        assertThat(VietnameseText.fold("Bánh-mì (loại 1)!")).isEqualTo("banh mi loai 1");
+    }
+
+    @Test
+    void nullAndBlankFoldToEmpty() {
+        assertThat(VietnameseText.fold(null)).isEmpty();
+        assertThat(VietnameseText.fold(" - ")).isEmpty();
+    }
+}